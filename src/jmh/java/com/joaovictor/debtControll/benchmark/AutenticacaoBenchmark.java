@@ -0,0 +1,82 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.service.UsuarioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência e vazão da autenticação com senhas em BCrypt, com e sem o cache de usuários por email.
+ * O modo SampleTime reporta os percentis (p99 inclusive); autenticarEmRajada dispara mais threads do
+ * que o executor de autenticação comporta e conta as tentativas recusadas pela fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AutenticacaoBenchmark {
+
+    @Param({"10000", "1000000"})
+    int lancamentos;
+
+    @Param({"caffeine", "none"})
+    String cache;
+
+    @Param({"10"})
+    int forcaBcrypt;
+
+    ConfigurableApplicationContext contexto;
+    UsuarioService service;
+    int usuarios;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Recusas {
+        public long recusadas;
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciar("spring.cache.type=" + cache,
+                "debtcontroll.autenticacao.bcrypt.forca=" + forcaBcrypt);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+        BaseDeDadosBenchmark.popular(jdbc, lancamentos);
+        jdbc.update("update debt.usuario set senha = ?", contexto.getBean(PasswordEncoder.class).encode("senha"));
+        service = contexto.getBean(UsuarioService.class);
+        usuarios = BaseDeDadosBenchmark.quantidadeDeUsuarios(lancamentos);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Usuario autenticar() {
+        return service.autenticar(emailAleatorio(), "senha");
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Usuario autenticarEmRajada(Recusas recusas) {
+        try {
+            return service.autenticarAsync(emailAleatorio(), "senha").join();
+        } catch (TaskRejectedException e) {
+            recusas.recusadas++;
+            return null;
+        }
+    }
+
+    private String emailAleatorio() {
+        long id = 1L + ThreadLocalRandom.current().nextInt(usuarios);
+        return "usuario" + id + "@email.com";
+    }
+}
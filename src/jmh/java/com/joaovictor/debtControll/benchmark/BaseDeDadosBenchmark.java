@@ -0,0 +1,119 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.DebtControllApplication;
+import com.joaovictor.debtControll.model.Rotulos;
+import com.joaovictor.debtControll.model.TermosDescricao;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sobe o contexto da aplicação sem a camada web e popula a base com um volume configurável de
+ * lançamentos. Por padrão usa o perfil "test" (H2 em memória); para rodar contra o PostgreSQL
+ * repasse ao JVM do benchmark, por exemplo:
+ * <pre>-jvmArgsAppend "-Dbenchmark.perfil=default -Dspring.jpa.hibernate.ddl-auto=create"</pre>
+ */
+public final class BaseDeDadosBenchmark {
+
+    static final int LANCAMENTOS_POR_USUARIO = 1000;
+
+    private static final String[] DESCRICOES = {
+            "Aluguel", "Mercado", "Salário", "Conta de luz", "Conta de água", "Internet",
+            "Farmácia", "Restaurante", "Combustível", "Academia", "Freelance", "Dividendos"
+    };
+    private static final int TAMANHO_LOTE = 5000;
+    /** allocationSize das sequências das entidades. */
+    private static final int TAMANHO_BLOCO_SEQUENCIA = 50;
+
+    private BaseDeDadosBenchmark() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        return iniciar(WebApplicationType.NONE, null, propriedades);
+    }
+
+    /**
+     * Como {@link #iniciar(String...)}, com um perfil ativo além do perfil de banco (producao, por exemplo).
+     */
+    static ConfigurableApplicationContext iniciarComPerfil(String perfil, String... propriedades) {
+        return iniciar(WebApplicationType.NONE, perfil, propriedades);
+    }
+
+    /**
+     * Sobe o contexto com o Tomcat embutido numa porta livre, lida em "local.server.port".
+     */
+    static ConfigurableApplicationContext iniciarWeb(String... propriedades) {
+        return iniciar(WebApplicationType.SERVLET, null, propriedades);
+    }
+
+    private static ConfigurableApplicationContext iniciar(WebApplicationType tipo, String perfil, String... propriedades) {
+        SpringApplicationBuilder aplicacao = new SpringApplicationBuilder(DebtControllApplication.class)
+                .web(tipo)
+                .profiles(System.getProperty("benchmark.perfil", "test"));
+        if (perfil != null)
+            aplicacao.profiles(perfil);
+        return aplicacao
+                .properties("server.port=0")
+                .properties(propriedades)
+                .run();
+    }
+
+    static int quantidadeDeUsuarios(int lancamentos) {
+        return Math.max(1, lancamentos / LANCAMENTOS_POR_USUARIO);
+    }
+
+    /**
+     * Insere usuários, uma categoria por descrição e lançamentos (com o índice de termos) direto por
+     * JDBC, em lotes, com ids explícitos a partir de 1. As sequências são reposicionadas depois da carga.
+     */
+    static void popular(JdbcTemplate jdbc, int lancamentos) {
+        popular(jdbc, lancamentos, quantidadeDeUsuarios(lancamentos));
+    }
+
+    /**
+     * Como {@link #popular(JdbcTemplate, int)}, com os lançamentos distribuídos entre a quantidade
+     * de usuários informada.
+     */
+    static void popular(JdbcTemplate jdbc, int lancamentos, int usuarios) {
+        List<Object[]> linhasUsuario = new ArrayList<>();
+        for (long id = 1; id <= usuarios; id++)
+            linhasUsuario.add(new Object[]{id, "usuario " + id, "usuario" + id + "@email.com", "senha"});
+        jdbc.batchUpdate("insert into debt.usuario (id, nome, email, senha) values (?, ?, ?, ?)", linhasUsuario);
+
+        List<Object[]> linhasCategoria = new ArrayList<>();
+        for (int i = 0; i < DESCRICOES.length; i++)
+            linhasCategoria.add(new Object[]{i + 1, Rotulos.normalizar(DESCRICOES[i])});
+        jdbc.batchUpdate("insert into debt.categoria (id, nome) values (?, ?)", linhasCategoria);
+
+        Random random = new Random(42);
+        List<Object[]> linhas = new ArrayList<>(TAMANHO_LOTE);
+        List<Object[]> termos = new ArrayList<>(TAMANHO_LOTE * 4);
+        for (long id = 1; id <= lancamentos; id++) {
+            int categoria = random.nextInt(DESCRICOES.length);
+            String descricao = DESCRICOES[categoria] + " " + random.nextInt(1000);
+            String tipo = random.nextInt(4) == 0 ? "RECEITA" : "DESPESA";
+            String status = random.nextBoolean() ? "EFETIVADO" : "PENDENTE";
+            linhas.add(new Object[]{id, descricao, 1 + random.nextInt(12), 2015 + random.nextInt(10),
+                    1 + (id % usuarios), 1 + random.nextInt(5000), tipo, status, 0L, categoria + 1});
+            for (String termo : TermosDescricao.indexar(descricao))
+                termos.add(new Object[]{id, termo});
+
+            if (linhas.size() == TAMANHO_LOTE || id == lancamentos) {
+                jdbc.batchUpdate("insert into debt.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, versao, id_categoria) " +
+                        "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+                jdbc.batchUpdate("insert into debt.lancamento_termo (id_lancamento, termo) values (?, ?)", termos);
+                linhas.clear();
+                termos.clear();
+            }
+        }
+        // com o otimizador pooled o valor lido é o fim do bloco de ids, que começa TAMANHO_BLOCO_SEQUENCIA - 1 antes
+        jdbc.execute("alter sequence debt.usuario_seq restart with " + (usuarios + TAMANHO_BLOCO_SEQUENCIA));
+        jdbc.execute("alter sequence debt.lancamento_seq restart with " + (lancamentos + TAMANHO_BLOCO_SEQUENCIA));
+        jdbc.execute("alter sequence debt.categoria_seq restart with " + (DESCRICOES.length + 1));
+    }
+}
@@ -0,0 +1,51 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.dto.TotalCategoriaDTO;
+import com.joaovictor.debtControll.service.CategoriaService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência dos totais por categoria de um usuário com muitos lançamentos, no mês e no ano. As duas
+ * consultas leem só o índice de cobertura; a do ano percorre um intervalo doze vezes maior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CategoriaBenchmark {
+
+    @Param({"100000"})
+    int lancamentos;
+
+    ConfigurableApplicationContext contexto;
+    CategoriaService service;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciar();
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos, 1);
+        service = contexto.getBean(CategoriaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<TotalCategoriaDTO> totaisDoMes() {
+        return service.obterTotais(1L, 2020, 6);
+    }
+
+    @Benchmark
+    public List<TotalCategoriaDTO> totaisDoAno() {
+        return service.obterTotais(1L, 2020, null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.model.Centavos;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soma com sinal de valores em baldes mensais, como na previsão de saldo: em BigDecimal, em centavos
+ * convertidos de BigDecimal (o caso de valores lidos do banco) e em centavos já prontos. A taxa de
+ * alocação aparece com o profiler de GC: -Djmh.args="Centavos -prof gc".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CentavosBenchmark {
+
+    private static final int MESES = 120;
+
+    @Param({"1000", "100000"})
+    int valores;
+
+    BigDecimal[] decimais;
+    long[] centavos;
+    TipoLancamento[] tipos;
+    int[] meses;
+
+    @Setup
+    public void iniciar() {
+        Random random = new Random(42);
+        decimais = new BigDecimal[valores];
+        centavos = new long[valores];
+        tipos = new TipoLancamento[valores];
+        meses = new int[valores];
+        for (int i = 0; i < valores; i++) {
+            decimais[i] = BigDecimal.valueOf(1 + random.nextInt(500000), 2);
+            centavos[i] = Centavos.de(decimais[i]);
+            tipos[i] = random.nextInt(4) == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA;
+            meses[i] = random.nextInt(MESES);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal[] somarBigDecimal() {
+        BigDecimal[] baldes = new BigDecimal[MESES];
+        Arrays.fill(baldes, BigDecimal.ZERO);
+        for (int i = 0; i < valores; i++)
+            baldes[meses[i]] = baldes[meses[i]].add(tipos[i].aplicarSinal(decimais[i]));
+        return baldes;
+    }
+
+    @Benchmark
+    public long[] somarCentavosConvertidos() {
+        long[] baldes = new long[MESES];
+        for (int i = 0; i < valores; i++)
+            baldes[meses[i]] = Math.addExact(baldes[meses[i]], tipos[i].aplicarSinal(Centavos.de(decimais[i])));
+        return baldes;
+    }
+
+    @Benchmark
+    public long[] somarCentavos() {
+        long[] baldes = new long[MESES];
+        for (int i = 0; i < valores; i++)
+            baldes[meses[i]] = Math.addExact(baldes[meses[i]], tipos[i].aplicarSinal(centavos[i]));
+        return baldes;
+    }
+}
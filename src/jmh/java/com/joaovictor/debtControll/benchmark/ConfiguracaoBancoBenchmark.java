@@ -0,0 +1,98 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.service.LancamentoService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão das gravações de lançamentos com a configuração padrão e com o perfil producao (pool
+ * dimensionado pelos núcleos, open-in-view desligado, updates ordenados para o lote). O cache de
+ * instruções do driver e a reescrita dos inserts em lote só valem no PostgreSQL:
+ * <pre>-jvmArgsAppend "-Dbenchmark.perfil=default -Dspring.jpa.hibernate.ddl-auto=create"</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(8)
+public class ConfiguracaoBancoBenchmark {
+
+    private static final int TAMANHO_LOTE = 100;
+
+    @Param({"padrao", "producao"})
+    String perfil;
+
+    @Param({"100000"})
+    int lancamentos;
+
+    ConfigurableApplicationContext contexto;
+    LancamentoService service;
+    final AtomicLong proximoUsuario = new AtomicLong();
+
+    /**
+     * Cada thread grava para um usuário próprio, como clientes distintos; duas threads no mesmo usuário
+     * disputariam a criação das linhas de saldo e resumo.
+     */
+    @State(Scope.Thread)
+    public static class Cliente {
+        Usuario usuario;
+
+        @Setup(Level.Trial)
+        public void iniciar(ConfiguracaoBancoBenchmark benchmark) {
+            usuario = Usuario.builder().id(benchmark.proximoUsuario.incrementAndGet()).build();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = "padrao".equals(perfil) ? BaseDeDadosBenchmark.iniciar() : BaseDeDadosBenchmark.iniciarComPerfil(perfil);
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos);
+        service = contexto.getBean(LancamentoService.class);
+        System.out.println("Pool com " + contexto.getBean(HikariDataSource.class).getMaximumPoolSize() + " conexão(ões).");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Lancamento salvar(Cliente cliente) {
+        return service.salvar(novoLancamento(cliente.usuario));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public void salvarEmLote(Cliente cliente) {
+        List<Lancamento> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < TAMANHO_LOTE; i++)
+            lote.add(novoLancamento(cliente.usuario));
+        service.salvarEmLote(lote);
+    }
+
+    private Lancamento novoLancamento(Usuario usuario) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Lancamento.builder()
+                .descricao("Mercado " + random.nextInt(1000))
+                .mes(1 + random.nextInt(12))
+                .ano(2015 + random.nextInt(10))
+                .valor(BigDecimal.valueOf(1 + random.nextInt(500000), 2))
+                .tipo(TipoLancamento.DESPESA)
+                .usuario(usuario)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.dto.DuplicidadeLancamentoDTO;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.service.DuplicidadeLancamentoService;
+import com.joaovictor.debtControll.service.LancamentoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da detecção de duplicados na criação de lançamentos: sem verificação, com a busca pelo hash
+ * de conteúdo e com a chave de idempotência, além da passada agrupada que localiza os duplicados
+ * já gravados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DuplicidadeBenchmark {
+
+    @Param({"PERMITIR", "REJEITAR"})
+    String politica;
+
+    @Param({"100000"})
+    int lancamentos;
+
+    ConfigurableApplicationContext contexto;
+    LancamentoService service;
+    DuplicidadeLancamentoService duplicidadeService;
+    int usuarios;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciar("debtcontroll.lancamentos.duplicados.politica=" + politica);
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos);
+        usuarios = BaseDeDadosBenchmark.quantidadeDeUsuarios(lancamentos);
+        service = contexto.getBean(LancamentoService.class);
+        duplicidadeService = contexto.getBean(DuplicidadeLancamentoService.class);
+        // a carga por JDBC não calcula o hash; a primeira verificação o preenche
+        duplicidadeService.localizarDuplicados();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Lancamento salvar() {
+        return service.salvar(novoLancamento());
+    }
+
+    @Benchmark
+    public Lancamento salvarComChave() {
+        return service.salvar(novoLancamento(), UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    @Measurement(iterations = 3, time = 10)
+    public List<DuplicidadeLancamentoDTO> localizarDuplicados() {
+        return duplicidadeService.localizarDuplicados();
+    }
+
+    private Lancamento novoLancamento() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Lancamento.builder()
+                .descricao("Mercado " + random.nextInt(1_000_000))
+                .mes(1 + random.nextInt(12))
+                .ano(2015 + random.nextInt(10))
+                .valor(BigDecimal.valueOf(1 + random.nextInt(500000), 2))
+                .tipo(TipoLancamento.DESPESA)
+                .usuario(Usuario.builder().id(1L + random.nextInt(usuarios)).build())
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.LancamentoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da busca de lançamentos: filtros exatos e por descrição no caminho indexado, comparados
+ * com o filtro por exemplo (like '%x%' sem diferenciar maiúsculas) que era usado antes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LancamentoBuscaBenchmark {
+
+    @Param({"10000", "1000000"})
+    int lancamentos;
+
+    ConfigurableApplicationContext contexto;
+    LancamentoService service;
+    LancamentoRepository repository;
+    TransactionTemplate transacao;
+    int usuarios;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciar();
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos);
+        service = contexto.getBean(LancamentoService.class);
+        repository = contexto.getBean(LancamentoRepository.class);
+        transacao = contexto.getBean(TransactionTemplate.class);
+        usuarios = BaseDeDadosBenchmark.quantidadeDeUsuarios(lancamentos);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Lancamento> buscarPorUsuarioAnoEMes() {
+        Lancamento filtro = filtroDeUsuarioAleatorio();
+        filtro.setAno(2020);
+        filtro.setMes(6);
+        return service.buscar(filtro);
+    }
+
+    @Benchmark
+    public List<Lancamento> buscarPorUsuario() {
+        return service.buscar(filtroDeUsuarioAleatorio());
+    }
+
+    @Benchmark
+    public List<Lancamento> buscarPorUsuarioAnoTipoEStatus() {
+        Lancamento filtro = filtroDeUsuarioAleatorio();
+        filtro.setAno(2020);
+        filtro.setTipo(TipoLancamento.DESPESA);
+        filtro.setStatus(StatusLancamento.PENDENTE);
+        return service.buscar(filtro);
+    }
+
+    @Benchmark
+    public List<Lancamento> buscarPorDescricao() {
+        Lancamento filtro = filtroDeUsuarioAleatorio();
+        filtro.setDescricao("merc");
+        return service.buscar(filtro);
+    }
+
+    @Benchmark
+    public List<Lancamento> buscarPorDescricaoComFiltroPorExemplo() {
+        Lancamento filtro = filtroDeUsuarioAleatorio();
+        filtro.setDescricao("merc");
+        Example<Lancamento> example = Example.of(filtro, ExampleMatcher.matching().withIgnoreCase()
+                .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING).withIgnorePaths("termos"));
+        return transacao.execute(status -> repository.findAll(example));
+    }
+
+    private Lancamento filtroDeUsuarioAleatorio() {
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1L + ThreadLocalRandom.current().nextInt(usuarios)).build());
+        return filtro;
+    }
+}
@@ -0,0 +1,88 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.service.SaldoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga HTTP mista contra o Tomcat embutido, com poucas threads de requisição: a maior parte dos
+ * clientes lista todos os lançamentos de um usuário (consulta lenta) e alguns consultam o saldo.
+ * No modo SINCRONO as listagens ocupam as threads do Tomcat e o p99 do saldo acompanha a fila; nos
+ * demais cada consulta roda no próprio compartimento. O modo VIRTUAL precisa de um JDK com threads
+ * virtuais ({@code -jvm} apontando para ele e {@code -p modo=VIRTUAL}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ModoExecucaoBenchmark {
+
+    @Param({"SINCRONO", "ASSINCRONO"})
+    String modo;
+
+    @Param({"200000"})
+    int lancamentos;
+
+    @Param({"20"})
+    int usuarios;
+
+    @Param({"16"})
+    int threadsTomcat;
+
+    ConfigurableApplicationContext contexto;
+    HttpClient cliente;
+    String base;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciarWeb("debtcontroll.execucao.modo=" + modo,
+                "server.tomcat.threads.max=" + threadsTomcat,
+                "server.tomcat.threads.min-spare=" + threadsTomcat);
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos, usuarios);
+        contexto.getBean(SaldoService.class).reconciliar();
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port");
+        cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(28)
+    public int listarLancamentos() throws IOException, InterruptedException {
+        return consultar("/api/lancamentos?usuario=" + usuarioAleatorio());
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(4)
+    public int obterSaldo() throws IOException, InterruptedException {
+        return consultar("/api/usuarios/" + usuarioAleatorio() + "/saldo");
+    }
+
+    private int consultar(String caminho) throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long usuarioAleatorio() {
+        return 1L + ThreadLocalRandom.current().nextInt(usuarios);
+    }
+}
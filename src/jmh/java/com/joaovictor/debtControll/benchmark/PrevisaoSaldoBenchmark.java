@@ -0,0 +1,58 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.dto.PrevisaoSaldoDTO;
+import com.joaovictor.debtControll.service.PrevisaoSaldoService;
+import com.joaovictor.debtControll.service.SaldoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência da previsão de saldo de um único usuário com muitos lançamentos (a meta é 50 ms com
+ * 100 mil), para janelas de um ano e de dez anos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PrevisaoSaldoBenchmark {
+
+    @Param({"100000"})
+    int lancamentos;
+
+    @Param({"12", "120"})
+    int meses;
+
+    ConfigurableApplicationContext contexto;
+    PrevisaoSaldoService service;
+    YearMonth inicio;
+    YearMonth fim;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciar();
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos, 1);
+        // a carga por JDBC não materializa o resumo mensal; a reconciliação o reconstrói
+        contexto.getBean(SaldoService.class).reconciliar();
+        service = contexto.getBean(PrevisaoSaldoService.class);
+        // os lançamentos da carga vão de 2015 a 2024
+        fim = YearMonth.of(2024, 12);
+        inicio = fim.minusMonths(meses - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<PrevisaoSaldoDTO> obterPrevisao() {
+        return service.obterPrevisao(1L, inicio, fim);
+    }
+}
@@ -0,0 +1,65 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.model.projection.TotalPorTipo;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.LancamentoService;
+import com.joaovictor.debtControll.service.SaldoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência do saldo por usuário: leitura do saldo materializado comparada com a soma dos
+ * lançamentos por tipo, que era feita a cada consulta antes da materialização.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SaldoBenchmark {
+
+    @Param({"10000", "1000000"})
+    int lancamentos;
+
+    ConfigurableApplicationContext contexto;
+    LancamentoService service;
+    LancamentoRepository repository;
+    int usuarios;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseDeDadosBenchmark.iniciar();
+        BaseDeDadosBenchmark.popular(contexto.getBean(JdbcTemplate.class), lancamentos);
+        // a carga por JDBC não materializa saldos; a reconciliação cria um por usuário
+        contexto.getBean(SaldoService.class).reconciliar();
+        service = contexto.getBean(LancamentoService.class);
+        repository = contexto.getBean(LancamentoRepository.class);
+        usuarios = BaseDeDadosBenchmark.quantidadeDeUsuarios(lancamentos);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public BigDecimal obterSaldoPorUsuario() {
+        return service.obterSaldoPorUsuario(usuarioAleatorio());
+    }
+
+    @Benchmark
+    public List<TotalPorTipo> somarLancamentosDoUsuario() {
+        return repository.obterTotaisPorTipo(usuarioAleatorio());
+    }
+
+    private Long usuarioAleatorio() {
+        return 1L + ThreadLocalRandom.current().nextInt(usuarios);
+    }
+}
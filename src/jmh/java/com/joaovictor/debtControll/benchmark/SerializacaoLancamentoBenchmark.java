@@ -0,0 +1,78 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de listas de lançamentos com a configuração de Jackson usada pelo Spring:
+ * a lista inteira de uma vez (GET /api/lancamentos) e elemento a elemento (GET /stream).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoLancamentoBenchmark {
+
+    @Param({"100", "10000"})
+    int tamanho;
+
+    ObjectMapper objectMapper;
+    ObjectWriter escritorDeLancamento;
+    List<Lancamento> lancamentos;
+    ByteArrayOutputStream saida;
+
+    @Setup
+    public void iniciar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        escritorDeLancamento = objectMapper.writerFor(Lancamento.class);
+        saida = new ByteArrayOutputStream(tamanho * 256);
+        lancamentos = new ArrayList<>(tamanho);
+        for (long id = 1; id <= tamanho; id++)
+            lancamentos.add(Lancamento.builder()
+                    .id(id)
+                    .descricao("Conta de luz " + id)
+                    .mes(1 + (int) (id % 12))
+                    .ano(2020)
+                    .usuario(Usuario.builder().id(1L).build())
+                    .valor(BigDecimal.valueOf(id, 2))
+                    .dataCadastro(LocalDate.of(2020, 6, 1))
+                    .tipo(TipoLancamento.DESPESA)
+                    .status(StatusLancamento.EFETIVADO)
+                    .versao(0L)
+                    .build());
+    }
+
+    @Benchmark
+    public byte[] serializarLista() throws IOException {
+        return objectMapper.writeValueAsBytes(lancamentos);
+    }
+
+    @Benchmark
+    public int serializarElementoAElemento() throws IOException {
+        saida.reset();
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+            gerador.writeStartArray();
+            for (Lancamento lancamento : lancamentos)
+                escritorDeLancamento.writeValue(gerador, lancamento);
+            gerador.writeEndArray();
+        }
+        return saida.size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.joaovictor.debtControll.benchmark;
+
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.PoliticaDuplicidade;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.service.impl.LancamentoServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da validação de um lançamento, sem contexto nem banco: o caminho válido e o inválido, que
+ * paga a criação da exceção.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidacaoLancamentoBenchmark {
+
+    LancamentoServiceImpl service;
+    Lancamento valido;
+    Lancamento semValor;
+
+    @Setup
+    public void iniciar() {
+        service = new LancamentoServiceImpl(null, null, null, null, null, null, null, 500, 5, PoliticaDuplicidade.PERMITIR, 1440);
+        valido = Lancamento.builder()
+                .descricao("Conta de luz")
+                .mes(6)
+                .ano(2020)
+                .usuario(Usuario.builder().id(1L).build())
+                .valor(BigDecimal.valueOf(150))
+                .tipo(TipoLancamento.DESPESA)
+                .build();
+        semValor = Lancamento.builder()
+                .descricao("Conta de luz")
+                .mes(6)
+                .ano(2020)
+                .usuario(Usuario.builder().id(1L).build())
+                .tipo(TipoLancamento.DESPESA)
+                .build();
+    }
+
+    @Benchmark
+    public Lancamento validarLancamentoValido() {
+        service.validar(valido);
+        return valido;
+    }
+
+    @Benchmark
+    public RegraNegocioException validarLancamentoInvalido() {
+        try {
+            service.validar(semValor);
+            return null;
+        } catch (RegraNegocioException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.joaovictor.debtControll.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Com debtcontroll.banco.ajuste-automatico=true (perfil producao), dimensiona o pool do Hikari em
+ * tamanho fixo, nucleos * conexoes-por-nucleo + discos, e nunca abaixo de conexoes-minimas: uma
+ * escrita pode segurar duas conexões (o diário de eventos grava em REQUIRES_NEW depois do commit) e
+ * um pool mínimo se esgotaria. Os núcleos são os do servidor do banco (debtcontroll.banco.nucleos),
+ * na falta deles os desta máquina. Com PostgreSQL, liga também o cache de instruções preparadas do
+ * driver e a reescrita dos inserts em lote. Os valores entram com a menor precedência: qualquer
+ * spring.datasource.hikari.* configurado vale mais.
+ */
+public class AjusteBancoDeDados implements EnvironmentPostProcessor, Ordered {
+
+    static final String FONTE = "debtcontroll-ajuste-banco";
+
+    private static final String PREFIXO_DRIVER = "spring.datasource.hikari.data-source-properties.";
+
+    private final int nucleos;
+
+    public AjusteBancoDeDados() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    AjusteBancoDeDados(int nucleos) {
+        this.nucleos = nucleos;
+    }
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment ambiente, SpringApplication aplicacao) {
+        if (!ambiente.getProperty("debtcontroll.banco.ajuste-automatico", Boolean.class, false))
+            return;
+
+        Map<String, Object> ajustes = new HashMap<>();
+        int conexoes = ambiente.getProperty("debtcontroll.banco.nucleos", Integer.class, nucleos)
+                * ambiente.getProperty("debtcontroll.banco.conexoes-por-nucleo", Integer.class, 2)
+                + ambiente.getProperty("debtcontroll.banco.discos", Integer.class, 1);
+        conexoes = Math.max(conexoes, ambiente.getProperty("debtcontroll.banco.conexoes-minimas", Integer.class, 10));
+        ajustes.put("spring.datasource.hikari.maximum-pool-size", conexoes);
+        ajustes.put("spring.datasource.hikari.minimum-idle", conexoes);
+
+        String url = ambiente.getProperty("spring.datasource.url", "");
+        if (url.startsWith("jdbc:postgresql:")) {
+            // a partir da N-ésima execução a instrução fica preparada no servidor, por conexão
+            ajustes.put(PREFIXO_DRIVER + "prepareThreshold", ambiente.getProperty("debtcontroll.banco.limite-preparacao", "3"));
+            ajustes.put(PREFIXO_DRIVER + "preparedStatementCacheQueries", ambiente.getProperty("debtcontroll.banco.cache-instrucoes", "512"));
+            ajustes.put(PREFIXO_DRIVER + "preparedStatementCacheSizeMiB", ambiente.getProperty("debtcontroll.banco.cache-instrucoes-mib", "10"));
+            ajustes.put(PREFIXO_DRIVER + "reWriteBatchedInserts", "true");
+        }
+        ambiente.getPropertySources().addLast(new MapPropertySource(FONTE, ajustes));
+    }
+
+    /**
+     * Depois do ConfigFileApplicationListener, para enxergar o application-{perfil}.properties.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
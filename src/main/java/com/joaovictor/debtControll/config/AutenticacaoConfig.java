@@ -0,0 +1,76 @@
+package com.joaovictor.debtControll.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+public class AutenticacaoConfig {
+
+    public static final String EXECUTOR = "executorAutenticacao";
+
+    /**
+     * Senhas novas são gravadas como {bcrypt}...; as antigas, em texto puro e sem prefixo, ainda são
+     * aceitas e recodificadas no próximo login bem-sucedido.
+     */
+    @Bean
+    @SuppressWarnings("deprecation")
+    public PasswordEncoder passwordEncoder(@Value("${debtcontroll.autenticacao.bcrypt.forca:10}") int forca) {
+        Map<String, PasswordEncoder> codificadores = new HashMap<>();
+        codificadores.put("bcrypt", new BCryptPasswordEncoder(forca));
+        codificadores.put("noop", NoOpPasswordEncoder.getInstance());
+
+        DelegatingPasswordEncoder codificador = new DelegatingPasswordEncoder("bcrypt", codificadores);
+        codificador.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return codificador;
+    }
+
+    /**
+     * A verificação do BCrypt é cara de propósito; ela roda num pool limitado para que uma rajada de
+     * logins não ocupe as threads do Tomcat. Com a fila cheia a tarefa é recusada (TaskRejectedException).
+     */
+    @Bean(EXECUTOR)
+    public ThreadPoolTaskExecutor executorAutenticacao(@Value("${debtcontroll.autenticacao.threads:0}") int threads,
+                                                       @Value("${debtcontroll.autenticacao.fila:200}") int fila) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("autenticacao-");
+        return executor;
+    }
+
+    /**
+     * Declarar um Executor desliga o pool padrão do Spring Boot, usado pelas respostas em stream; ele é
+     * recriado aqui com as mesmas propriedades spring.task.execution.*.
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public MeterBinder metricasExecutorAutenticacao(@Qualifier(EXECUTOR) ThreadPoolTaskExecutor executorAutenticacao) {
+        return registry -> new ExecutorServiceMetrics(executorAutenticacao.getThreadPoolExecutor(), "autenticacao", Tags.empty())
+                .bindTo(registry);
+    }
+}
@@ -0,0 +1,170 @@
+package com.joaovictor.debtControll.config;
+
+import com.joaovictor.debtControll.model.enums.ModoExecucao;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Compartimentos (bulkheads) para as consultas bloqueantes dos controllers. Fora do modo SINCRONO,
+ * cada compartimento tem seu próprio pool de threads, dimensionado pelas conexões que pode ocupar, e
+ * uma fila limitada: uma consulta lenta esgota só o seu compartimento, não as threads do Tomcat nem os
+ * outros endpoints. Propriedades por compartimento: debtcontroll.execucao.compartimentos.{nome}.threads
+ * e .fila, com padrão em debtcontroll.execucao.threads e debtcontroll.execucao.fila.
+ */
+@Slf4j
+@Component
+public class CompartimentosExecucao {
+
+    static final String MENSAGEM_COMPARTIMENTO_CHEIO = "Muitas consultas em andamento. Tente novamente em instantes.";
+
+    private final Environment ambiente;
+    private final ObjectProvider<MeterRegistry> registry;
+    private final ModoExecucao modo;
+    private final int threads;
+    private final int fila;
+    private final Map<String, Compartimento> compartimentos = new ConcurrentHashMap<>();
+
+    public CompartimentosExecucao(Environment ambiente,
+                                  ObjectProvider<MeterRegistry> registry,
+                                  @Value("${debtcontroll.execucao.modo:SINCRONO}") ModoExecucao modo,
+                                  @Value("${debtcontroll.execucao.threads:4}") int threads,
+                                  @Value("${debtcontroll.execucao.fila:100}") int fila) {
+        this.ambiente = ambiente;
+        this.registry = registry;
+        this.threads = threads;
+        this.fila = fila;
+        if (modo == ModoExecucao.VIRTUAL && criarExecutorVirtual() == null) {
+            log.warn("Threads virtuais exigem JDK 21 ou mais novo; as consultas usarão o modo ASSINCRONO.");
+            modo = ModoExecucao.ASSINCRONO;
+        }
+        this.modo = modo;
+    }
+
+    /**
+     * No modo SINCRONO devolve a resposta da consulta; nos outros, um CompletableFuture com ela, ou um
+     * 503 imediato se o compartimento estiver cheio. O Spring MVC trata os dois tipos de retorno.
+     */
+    public Object executar(String compartimento, Supplier<ResponseEntity> consulta) {
+        if (modo == ModoExecucao.SINCRONO)
+            return consulta.get();
+        CompletableFuture<ResponseEntity> resposta = compartimentos.computeIfAbsent(compartimento, this::criar)
+                .submeter(consulta);
+        if (resposta == null)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(MENSAGEM_COMPARTIMENTO_CHEIO);
+        return resposta;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        compartimentos.values().forEach(compartimento -> compartimento.executor.shutdown());
+    }
+
+    private Compartimento criar(String nome) {
+        int threadsCompartimento = ambiente.getProperty("debtcontroll.execucao.compartimentos." + nome + ".threads", Integer.class, threads);
+        int filaCompartimento = ambiente.getProperty("debtcontroll.execucao.compartimentos." + nome + ".fila", Integer.class, fila);
+
+        final Compartimento compartimento;
+        if (modo == ModoExecucao.VIRTUAL)
+            compartimento = new Compartimento(criarExecutorVirtual(), new Semaphore(threadsCompartimento),
+                    threadsCompartimento + filaCompartimento);
+        else
+            compartimento = new Compartimento(Executors.newFixedThreadPool(threadsCompartimento,
+                    new CustomizableThreadFactory("consulta-" + nome + "-")), null,
+                    threadsCompartimento + filaCompartimento);
+        registry.ifAvailable(meterRegistry -> compartimento.medir(nome, meterRegistry));
+        log.info("Compartimento {} criado no modo {} com {} thread(s) e fila de {}.", nome, modo, threadsCompartimento, filaCompartimento);
+        return compartimento;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor por reflexão, para o código continuar compilando no JDK 11.
+     */
+    private static ExecutorService criarExecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A admissão limita as consultas em andamento mais as da fila. No pool de threads fixo a
+     * concorrência já é limitada pelo pool; com threads virtuais, pelo semáforo de execução.
+     */
+    private static final class Compartimento {
+
+        private final ExecutorService executor;
+        private final Semaphore execucao;
+        private final int capacidade;
+        private final Semaphore admissao;
+        private final AtomicLong rejeicoes = new AtomicLong();
+
+        private Compartimento(ExecutorService executor, Semaphore execucao, int capacidade) {
+            this.executor = executor;
+            this.execucao = execucao;
+            this.capacidade = capacidade;
+            this.admissao = new Semaphore(capacidade);
+        }
+
+        private void medir(String nome, MeterRegistry registry) {
+            Gauge.builder("debtcontroll.execucao.ocupacao", admissao, semaforo -> capacidade - semaforo.availablePermits())
+                    .description("Consultas em andamento ou na fila do compartimento")
+                    .tag("compartimento", nome)
+                    .register(registry);
+            FunctionCounter.builder("debtcontroll.execucao.rejeicoes", rejeicoes, AtomicLong::get)
+                    .description("Consultas recusadas com o compartimento cheio")
+                    .tag("compartimento", nome)
+                    .register(registry);
+        }
+
+        private CompletableFuture<ResponseEntity> submeter(Supplier<ResponseEntity> consulta) {
+            if (!admissao.tryAcquire()) {
+                rejeicoes.incrementAndGet();
+                return null;
+            }
+            try {
+                return CompletableFuture.supplyAsync(() -> executar(consulta), executor)
+                        .whenComplete((resposta, falha) -> admissao.release());
+            } catch (RejectedExecutionException e) {
+                // o executor já foi encerrado
+                admissao.release();
+                rejeicoes.incrementAndGet();
+                return null;
+            }
+        }
+
+        private ResponseEntity executar(Supplier<ResponseEntity> consulta) {
+            if (execucao == null)
+                return consulta.get();
+            execucao.acquireUninterruptibly();
+            try {
+                return consulta.get();
+            } finally {
+                execucao.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.joaovictor.debtControll.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ativo quando debtcontroll.replicas.urls lista ao menos uma réplica (separadas por vírgula). O
+ * principal continua configurado por spring.datasource.*; as réplicas usam o mesmo driver e, se não
+ * houver credenciais próprias, as mesmas credenciais.
+ */
+@Configuration
+@ConditionalOnProperty("debtcontroll.replicas.urls")
+public class ReplicasConfig {
+
+    /**
+     * Réplica PostgreSQL sem nada a aplicar está em dia, por mais antiga que seja a última transação;
+     * fora de recuperação (um principal) as funções devolvem nulo e o atraso é zero.
+     */
+    static final String CONSULTA_ATRASO_POSTGRESQL = "select coalesce(case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() " +
+            "then 0 else extract(epoch from now() - pg_last_xact_replay_timestamp()) end, 0)";
+
+    /**
+     * O único DataSource do contexto; o pool do principal é montado como o do Spring Boot, com as
+     * propriedades spring.datasource.hikari.*.
+     */
+    @Bean
+    @Primary
+    public RoteadorDataSource dataSource(DataSourceProperties propriedades,
+                                         Environment ambiente,
+                                         @Value("${debtcontroll.replicas.urls}") String urls,
+                                         @Value("${debtcontroll.replicas.username:${spring.datasource.username:}}") String usuario,
+                                         @Value("${debtcontroll.replicas.password:${spring.datasource.password:}}") String senha,
+                                         @Value("${debtcontroll.replicas.tamanho-pool:10}") int tamanhoPool,
+                                         @Value("${debtcontroll.replicas.timeout-conexao-ms:1000}") long timeoutConexaoMs,
+                                         @Value("${debtcontroll.replicas.consulta-atraso:" + CONSULTA_ATRASO_POSTGRESQL + "}") String consultaAtraso,
+                                         @Value("${debtcontroll.replicas.atraso-maximo-ms:5000}") long atrasoMaximoMs) {
+        HikariDataSource principal = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(ambiente).bind("spring.datasource.hikari", Bindable.ofInstance(principal));
+        if (principal.getPoolName() == null)
+            principal.setPoolName("principal");
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls.split(",")) {
+            if (url.trim().isEmpty())
+                continue;
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(usuario);
+            replica.setPassword(senha);
+            replica.setDriverClassName(propriedades.determineDriverClassName());
+            // as mesmas propriedades do driver do principal, como o cache de instruções do perfil producao
+            replica.setDataSourceProperties(principal.getDataSourceProperties());
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(tamanhoPool);
+            // timeout curto: com a réplica fora do ar, a leitura cai logo para o principal
+            replica.setConnectionTimeout(timeoutConexaoMs);
+            // uma réplica fora do ar não impede a subida; ela fica fora do rodízio até responder
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new RoteadorDataSource(principal, replicas, consultaAtraso, atrasoMaximoMs);
+    }
+}
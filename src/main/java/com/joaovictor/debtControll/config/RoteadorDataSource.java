@@ -0,0 +1,187 @@
+package com.joaovictor.debtControll.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.jdbc.DataSourcePoolMetrics;
+import org.springframework.boot.jdbc.metadata.HikariDataSourcePoolMetadata;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia as transações somente leitura às réplicas e todo o resto ao principal. Cada thread lê sempre
+ * da mesma réplica enquanto ela estiver disponível, então a versão lida antes dos dados (ETag) nunca é
+ * mais nova que eles. Uma réplica sai do rodízio quando o atraso de replicação passa do limite ou uma
+ * conexão falha, e volta na próxima verificação bem-sucedida; sem réplica disponível, as leituras vão
+ * para o principal.
+ * <p>
+ * A conexão só é obtida na primeira instrução, como no LazyConnectionDataSourceProxy: o
+ * JpaTransactionManager pede a conexão antes de marcar a transação como somente leitura. Os pools do
+ * principal e das réplicas pertencem a este DataSource e são fechados com ele.
+ */
+@Slf4j
+public class RoteadorDataSource extends LazyConnectionDataSourceProxy implements MeterBinder {
+
+    private final DataSource principal;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String consultaAtraso;
+    private final long atrasoMaximoMs;
+    private final AtomicLong desvios = new AtomicLong();
+
+    public RoteadorDataSource(DataSource principal, Map<String, DataSource> replicas, String consultaAtraso,
+                              long atrasoMaximoMs) {
+        this.principal = principal;
+        replicas.forEach((nome, dataSource) -> this.replicas.add(new Replica(nome, dataSource)));
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoMs = atrasoMaximoMs;
+        setTargetDataSource(new Roteamento());
+        afterPropertiesSet();
+    }
+
+    private Connection obterConexao() throws SQLException {
+        if (!somenteLeitura() || replicas.isEmpty())
+            return principal.getConnection();
+
+        int preferida = (int) (Thread.currentThread().getId() % replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((preferida + i) % replicas.size());
+            if (!replica.disponivel)
+                continue;
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.disponivel = false;
+                log.warn("Réplica {} retirada do rodízio: falha ao obter conexão.", replica.nome, e);
+            }
+        }
+        desvios.incrementAndGet();
+        return principal.getConnection();
+    }
+
+    /**
+     * Mede o atraso de cada réplica com a consulta configurada, que deve devolver os segundos de atraso.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${debtcontroll.replicas.intervalo-verificacao-ms:5000}",
+            initialDelayString = "${debtcontroll.replicas.intervalo-verificacao-ms:5000}")
+    public void verificarReplicas() {
+        for (Replica replica : replicas) {
+            boolean disponivel;
+            try (Connection conexao = replica.dataSource.getConnection();
+                 Statement instrucao = conexao.createStatement();
+                 ResultSet resultado = instrucao.executeQuery(consultaAtraso)) {
+                resultado.next();
+                replica.atrasoMs = Math.round(resultado.getDouble(1) * 1000);
+                disponivel = replica.atrasoMs <= atrasoMaximoMs;
+                if (!disponivel && replica.disponivel)
+                    log.warn("Réplica {} retirada do rodízio: atraso de {} ms.", replica.nome, replica.atrasoMs);
+            } catch (SQLException e) {
+                disponivel = false;
+                if (replica.disponivel)
+                    log.warn("Réplica {} retirada do rodízio: falha na verificação.", replica.nome, e);
+            }
+            if (disponivel && !replica.disponivel)
+                log.info("Réplica {} de volta ao rodízio, atraso de {} ms.", replica.nome, replica.atrasoMs);
+            replica.disponivel = disponivel;
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws Exception {
+        for (Replica replica : replicas)
+            fechar(replica.dataSource);
+        fechar(principal);
+    }
+
+    /**
+     * Além das métricas das réplicas, as dos pools (jdbc.connections.*, com o nome do pool), que o
+     * Spring Boot só registra para DataSources declarados como beans.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        medirPool("principal", principal, registry);
+        for (Replica replica : replicas) {
+            medirPool(replica.nome, replica.dataSource, registry);
+            Gauge.builder("debtcontroll.replicas.atraso", replica, r -> r.atrasoMs)
+                    .description("Atraso de replicação medido na última verificação, em milissegundos")
+                    .tag("replica", replica.nome)
+                    .register(registry);
+            Gauge.builder("debtcontroll.replicas.disponivel", replica, r -> r.disponivel ? 1 : 0)
+                    .description("1 se a réplica está recebendo leituras")
+                    .tag("replica", replica.nome)
+                    .register(registry);
+        }
+        FunctionCounter.builder("debtcontroll.replicas.desvios", desvios, AtomicLong::get)
+                .description("Transações somente leitura enviadas ao principal por falta de réplica disponível")
+                .register(registry);
+    }
+
+    /**
+     * Além do jdbc.connections.*, as métricas do próprio Hikari (hikaricp.connections.*, com a espera
+     * por conexão em hikaricp.connections.acquire), que o Spring Boot só liga no DataSource do contexto.
+     */
+    private static void medirPool(String nome, DataSource dataSource, MeterRegistry registry) {
+        if (!(dataSource instanceof HikariDataSource))
+            return;
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        new DataSourcePoolMetrics(hikari, pool -> new HikariDataSourcePoolMetadata((HikariDataSource) pool), nome,
+                Collections.emptyList()).bindTo(registry);
+        if (hikari.getMetricsTrackerFactory() == null && hikari.getMetricRegistry() == null)
+            hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+    }
+
+    private static void fechar(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable)
+            ((AutoCloseable) dataSource).close();
+    }
+
+    private static boolean somenteLeitura() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private class Roteamento extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return obterConexao();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return principal.getConnection(username, password);
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+        private final DataSource dataSource;
+        private volatile boolean disponivel;
+        private volatile long atrasoMs;
+
+        private Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.joaovictor.debtControll.controller;
+
+import com.joaovictor.debtControll.model.entity.Categoria;
+import com.joaovictor.debtControll.service.CategoriaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/categorias")
+@RequiredArgsConstructor
+public class CategoriaController {
+
+    private final CategoriaService service;
+
+    @GetMapping
+    public ResponseEntity listar(){
+        List<Categoria> categorias = service.listar();
+        return ResponseEntity.ok(categorias);
+    }
+}
@@ -1,61 +1,254 @@
 package com.joaovictor.debtControll.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.joaovictor.debtControll.config.CompartimentosExecucao;
 import com.joaovictor.debtControll.dto.AtualizaStatusDTO;
+import com.joaovictor.debtControll.dto.AtualizaStatusLoteDTO;
+import com.joaovictor.debtControll.dto.CursorLancamentoDTO;
 import com.joaovictor.debtControll.dto.LancamentoDTO;
+import com.joaovictor.debtControll.dto.PaginaLancamentoDTO;
+import com.joaovictor.debtControll.dto.ResultadoAtualizacaoStatusDTO;
+import com.joaovictor.debtControll.dto.ResultadoImportacaoDTO;
+import com.joaovictor.debtControll.exceptions.AcessoNegadoException;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.exceptions.RequisicaoConcorrenteException;
+import com.joaovictor.debtControll.metricas.ContadorRejeicoes;
+import com.joaovictor.debtControll.model.Rotulos;
 import com.joaovictor.debtControll.model.entity.Lancamento;
 import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
 import com.joaovictor.debtControll.model.enums.StatusLancamento;
 import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.service.AtualizacaoStatusLancamentoService;
+import com.joaovictor.debtControll.service.CategoriaService;
+import com.joaovictor.debtControll.service.ExportacaoLancamentoService;
+import com.joaovictor.debtControll.service.ImportacaoLancamentoService;
 import com.joaovictor.debtControll.service.LancamentoService;
 import com.joaovictor.debtControll.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/lancamentos")
 @RequiredArgsConstructor
 public class LancamentoController {
 
+    private static final int TAMANHO_BUFFER_GZIP = 8192;
+
+    static final String MENSAGEM_ACESSO_NEGADO = "O lançamento não pertence ao usuário autenticado.";
+
+    static final String CABECALHO_IDEMPOTENCIA = "Idempotency-Key";
+
+    static final String MENSAGEM_CONFLITO = "O lançamento foi alterado por outra operação. Consulte-o novamente e repita a alteração.";
+
     private final LancamentoService service;
 
     private final UsuarioService usuarioService;
 
+    private final CategoriaService categoriaService;
+
+    private final ImportacaoLancamentoService importacaoService;
+
+    private final AtualizacaoStatusLancamentoService atualizacaoStatusService;
+
+    private final ExportacaoLancamentoService exportacaoService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ContadorRejeicoes rejeicoes;
+
+    private final CompartimentosExecucao compartimentos;
+
     @GetMapping
-    public ResponseEntity buscar(
+    public Object buscar(
             @RequestParam(value = "descricao", required = false) String descricao,
             @RequestParam(value = "mes", required = false) Integer mes,
             @RequestParam(value = "ano", required = false) Integer ano,
-            @RequestParam("usuario") Long idUsuario
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado,
+            WebRequest requisicao
             ){
 
-        Lancamento lancamentoFiltro = new Lancamento();
-        lancamentoFiltro.setDescricao(descricao);
-        lancamentoFiltro.setMes(mes);
-        lancamentoFiltro.setAno(ano);
+        Long usuario = identificarUsuario(idAutenticado, idUsuario);
+        return compartimentos.executar("lancamentos.buscar", () -> {
+            String etag = VersaoEtag.de(usuario, service.obterVersaoPorUsuario(usuario));
+            if (requisicao.checkNotModified(etag))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(VersaoEtag.REVALIDAR).build();
 
-        Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-        if (!usuario.isPresent())
-            return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado para o id informado.");
-        else
-            lancamentoFiltro.setUsuario(usuario.get());
+            Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, usuario);
+            List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
+            return ResponseEntity.ok().eTag(etag).cacheControl(VersaoEtag.REVALIDAR).body(lancamentos);
+        });
+    }
 
-        List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-        return ResponseEntity.ok(lancamentos);
+    @GetMapping("/pagina")
+    public Object buscarPagina(
+            @RequestParam(value = "descricao", required = false) String descricao,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamanho", defaultValue = "100") Integer tamanho,
+            @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado
+            ){
+        Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, identificarUsuario(idAutenticado, idUsuario));
+        return compartimentos.executar("lancamentos.pagina", () -> {
+            try {
+                CursorLancamentoDTO posicao = cursor == null ? null : CursorLancamentoDTO.decodificar(cursor);
+                PaginaLancamentoDTO pagina = service.buscarPagina(lancamentoFiltro, posicao, tamanho);
+                return ResponseEntity.ok(pagina);
+            }catch (RegraNegocioException e){
+                rejeicoes.registrar(e);
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> buscarEmStream(
+            @RequestParam(value = "descricao", required = false) String descricao,
+            @RequestParam(value = "mes", required = false) Integer mes,
+            @RequestParam(value = "ano", required = false) Integer ano,
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado
+            ){
+
+        Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, identificarUsuario(idAutenticado, idUsuario));
+        ObjectWriter writer = objectMapper.writerFor(Lancamento.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody corpo = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.writeStartArray();
+                service.percorrer(lancamentoFiltro, lancamento -> {
+                    try {
+                        writer.writeValue(gerador, lancamento);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                gerador.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corpo);
+    }
+
+    /**
+     * Extrato completo do usuário em CSV ou NDJSON, escrito direto do cursor na resposta. Compactado
+     * em gzip quando o cliente aceita.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(value = "usuario", required = false) Long idUsuario,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String codificacoes,
+            @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado
+            ){
+        Long usuario = identificarUsuario(idAutenticado, idUsuario);
+        FormatoExportacao formato;
+        try {
+            formato = FormatoExportacao.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RegraNegocioException("Formato de exportação inválido. Use csv ou ndjson.");
+        }
+        boolean gzip = codificacoes != null && codificacoes.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody corpo = saida -> {
+            if (!gzip) {
+                exportacaoService.exportar(usuario, formato, saida);
+                return;
+            }
+            try (GZIPOutputStream compactada = new GZIPOutputStream(saida, TAMANHO_BUFFER_GZIP)) {
+                exportacaoService.exportar(usuario, formato, compactada);
+            }
+        };
+
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getTipoConteudo() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.builder("attachment")
+                        .filename("lancamentos-" + usuario + "." + formato.getExtensao()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip)
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return resposta.body(corpo);
     }
 
     @PostMapping
-    public ResponseEntity salvar(@RequestBody LancamentoDTO dto){
+    public ResponseEntity salvar(@RequestBody LancamentoDTO dto,
+                                 @RequestHeader(value = CABECALHO_IDEMPOTENCIA, required = false) String chaveIdempotencia,
+                                 @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        dto.setUsuario(identificarUsuario(idAutenticado, dto.getUsuario()));
         try {
             Lancamento entidade = converter(dto);
-            entidade = service.salvar(entidade);
+            entidade = service.salvar(entidade, chaveIdempotencia);
             return ResponseEntity.ok(entidade);
         }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (RequisicaoConcorrenteException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity importar(InputStream corpo,
+                                   @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        try {
+            ResultadoImportacaoDTO resultado = importacaoService.importarJson(corpo, idAutenticado);
+            return ResponseEntity.ok(resultado);
+        }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Extrato CSV no corpo da requisição, lido em fluxo à medida que chega, sem o limite de upload
+     * do multipart.
+     */
+    @PostMapping(value = "/importacao", consumes = "text/csv")
+    public ResponseEntity importarCsvEmFluxo(InputStream corpo,
+                                             @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        try {
+            ResultadoImportacaoDTO resultado = importacaoService.importarCsv(corpo, idAutenticado);
+            return ResponseEntity.ok(resultado);
+        }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity importarCsv(@RequestParam("arquivo") MultipartFile arquivo,
+                                      @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            ResultadoImportacaoDTO resultado = importacaoService.importarCsv(conteudo, idAutenticado);
+            return ResponseEntity.ok(resultado);
+        }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }catch (Exception e){
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
@@ -63,15 +256,23 @@ public class LancamentoController {
     }
 
     @PutMapping("{id}")
-    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto){
+    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto,
+                                    @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        dto.setUsuario(identificarUsuario(idAutenticado, dto.getUsuario()));
         return service.obterPorId(id).map(entity -> {
+            if (!pertenceAoUsuario(entity, idAutenticado))
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MENSAGEM_ACESSO_NEGADO);
             try {
                 Lancamento lancamento = converter(dto);
                 lancamento.setId(entity.getId());
-                service.atualizar(lancamento);
+                lancamento.setVersao(dto.getVersao());
+                lancamento = service.atualizar(lancamento);
                 return ResponseEntity.ok().body(lancamento);
             }catch (RegraNegocioException e){
+                rejeicoes.registrar(e);
                 return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (OptimisticLockingFailureException e){
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(MENSAGEM_CONFLITO);
             }catch (Exception e){
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
             }
@@ -80,31 +281,63 @@ public class LancamentoController {
     }
 
     @PutMapping("{id}/atualiza-status")
-    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto){
-        return service.obterPorId(id).map(entity -> {
-            try {
-                StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
-                if (statusSelecionado == null)
-                    return ResponseEntity.badRequest().body("Não é possível datualizar o status do lançamento, envie um status válido");
-                entity = service.atulizarStatus(entity,statusSelecionado);
-                return ResponseEntity.ok(entity);
-            }catch (RegraNegocioException e){
-                return ResponseEntity.badRequest().body(e.getMessage());
-            }catch (Exception e){
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
-            }
+    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto,
+                                          @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        try {
+            StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+            if (statusSelecionado == null)
+                return ResponseEntity.badRequest().body("Não é possível datualizar o status do lançamento, envie um status válido");
+            Lancamento lancamento = Lancamento.builder().id(id).versao(dto.getVersao()).build();
+            return ResponseEntity.ok(service.atulizarStatus(lancamento, statusSelecionado, idAutenticado));
+        }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (AcessoNegadoException e){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        }catch (OptimisticLockingFailureException e){
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(MENSAGEM_CONFLITO);
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
 
-        }).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
+    @PutMapping("/status")
+    public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto,
+                                                @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        dto.setUsuario(identificarUsuario(idAutenticado, dto.getUsuario()));
+        try {
+            if (dto.getStatus() == null)
+                return ResponseEntity.badRequest().body("Informe um status válido.");
+            StatusLancamento status = StatusLancamento.valueOf(dto.getStatus());
+
+            ResultadoAtualizacaoStatusDTO resultado;
+            if (dto.getIds() != null && !dto.getIds().isEmpty())
+                resultado = atualizacaoStatusService.atualizar(dto.getIds(), status, dto.getUsuario());
+            else
+                resultado = atualizacaoStatusService.atualizar(criarFiltro(null, dto.getMes(), dto.getAno(), dto.getUsuario()), status);
+            return ResponseEntity.ok(resultado);
+        }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("{id}")
-    public ResponseEntity deletar(@PathVariable("id") Long id){
+    public ResponseEntity deletar(@PathVariable("id") Long id,
+                                  @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
         return service.obterPorId(id).map(entity -> {
+            if (!pertenceAoUsuario(entity, idAutenticado))
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MENSAGEM_ACESSO_NEGADO);
             try {
                 service.deletar(entity);
                 return new ResponseEntity(HttpStatus.NO_CONTENT);
             }catch (RegraNegocioException e){
+                rejeicoes.registrar(e);
                 return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (OptimisticLockingFailureException e){
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(MENSAGEM_CONFLITO);
             }catch (Exception e){
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
             }
@@ -112,6 +345,39 @@ public class LancamentoController {
         }).orElseGet(() -> new ResponseEntity("Lançamento não encontrado na base de Dados.", HttpStatus.BAD_REQUEST));
     }
 
+    @ExceptionHandler(RegraNegocioException.class)
+    public ResponseEntity regraNegocio(RegraNegocioException e){
+        rejeicoes.registrar(e);
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    @ExceptionHandler(AcessoNegadoException.class)
+    public ResponseEntity acessoNegado(AcessoNegadoException e){
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+    }
+
+    /**
+     * O usuário é sempre o do token, publicado pelo {@link TokenFilter}; um id informado divergente é recusado.
+     */
+    private Long identificarUsuario(Long idAutenticado, Long idInformado){
+        if (idInformado != null && !idInformado.equals(idAutenticado))
+            throw new AcessoNegadoException("O usuário informado não é o usuário autenticado.");
+        return idAutenticado;
+    }
+
+    private boolean pertenceAoUsuario(Lancamento lancamento, Long idAutenticado){
+        return idAutenticado.equals(lancamento.getUsuario().getId());
+    }
+
+    private Lancamento criarFiltro(String descricao, Integer mes, Integer ano, Long idUsuario){
+        Lancamento lancamentoFiltro = new Lancamento();
+        lancamentoFiltro.setDescricao(descricao);
+        lancamentoFiltro.setMes(mes);
+        lancamentoFiltro.setAno(ano);
+        lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+        return lancamentoFiltro;
+    }
+
     private Lancamento converter(LancamentoDTO dto){
         Lancamento lancamento = new Lancamento();
         lancamento.setId(dto.getId());
@@ -119,12 +385,11 @@ public class LancamentoController {
         lancamento.setMes(dto.getMes());
         lancamento.setAno(dto.getAno());
         lancamento.setValor(dto.getValor());
+        lancamento.setIdCategoria(categoriaService.obterId(dto.getCategoria()));
+        lancamento.setEtiquetas(Rotulos.normalizar(dto.getEtiquetas()));
 
-        Usuario usuario = usuarioService
-                .obterPorId(dto.getUsuario())
-                .orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado."));
-
-        lancamento.setUsuario(usuario);
+        if (dto.getUsuario() != null)
+            lancamento.setUsuario(usuarioService.obterReferencia(dto.getUsuario()));
         if (dto.getTipo() != null)
             lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
         if (dto.getStatus() != null)
@@ -0,0 +1,97 @@
+package com.joaovictor.debtControll.controller;
+
+import com.joaovictor.debtControll.dto.RecorrenciaDTO;
+import com.joaovictor.debtControll.exceptions.AcessoNegadoException;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.metricas.ContadorRejeicoes;
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.service.CategoriaService;
+import com.joaovictor.debtControll.service.RecorrenciaService;
+import com.joaovictor.debtControll.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recorrencias")
+@RequiredArgsConstructor
+public class RecorrenciaController {
+
+    static final String MENSAGEM_ACESSO_NEGADO = "A recorrência não pertence ao usuário autenticado.";
+
+    private final RecorrenciaService service;
+
+    private final UsuarioService usuarioService;
+
+    private final CategoriaService categoriaService;
+
+    private final ContadorRejeicoes rejeicoes;
+
+    @GetMapping
+    public ResponseEntity buscar(@RequestParam(value = "usuario", required = false) Long idUsuario,
+                                 @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        List<Recorrencia> recorrencias = service.buscarPorUsuario(identificarUsuario(idAutenticado, idUsuario));
+        return ResponseEntity.ok(recorrencias);
+    }
+
+    @PostMapping
+    public ResponseEntity salvar(@RequestBody RecorrenciaDTO dto,
+                                 @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        dto.setUsuario(identificarUsuario(idAutenticado, dto.getUsuario()));
+        try {
+            Recorrencia recorrencia = service.salvar(converter(dto));
+            return new ResponseEntity(recorrencia, HttpStatus.CREATED);
+        }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (Exception e){
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("{id}")
+    public ResponseEntity deletar(@PathVariable("id") Long id,
+                                  @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        return service.obterPorId(id).map(entity -> {
+            if (!idAutenticado.equals(entity.getIdUsuario()))
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(MENSAGEM_ACESSO_NEGADO);
+            service.deletar(entity);
+            return new ResponseEntity(HttpStatus.NO_CONTENT);
+        }).orElseGet(() -> new ResponseEntity("Recorrência não encontrada na base de Dados.", HttpStatus.BAD_REQUEST));
+    }
+
+    @ExceptionHandler(AcessoNegadoException.class)
+    public ResponseEntity acessoNegado(AcessoNegadoException e){
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+    }
+
+    /**
+     * O usuário é sempre o do token, publicado pelo {@link TokenFilter}; um id informado divergente é recusado.
+     */
+    private Long identificarUsuario(Long idAutenticado, Long idInformado){
+        if (idInformado != null && !idInformado.equals(idAutenticado))
+            throw new AcessoNegadoException("O usuário informado não é o usuário autenticado.");
+        return idAutenticado;
+    }
+
+    private Recorrencia converter(RecorrenciaDTO dto){
+        Recorrencia recorrencia = new Recorrencia();
+        recorrencia.setDescricao(dto.getDescricao());
+        recorrencia.setValor(dto.getValor());
+        recorrencia.setMesInicio(dto.getMesInicio());
+        recorrencia.setAnoInicio(dto.getAnoInicio());
+        recorrencia.setMesFim(dto.getMesFim());
+        recorrencia.setAnoFim(dto.getAnoFim());
+        recorrencia.setIdCategoria(categoriaService.obterId(dto.getCategoria()));
+
+        if (dto.getUsuario() != null)
+            recorrencia.setUsuario(usuarioService.obterReferencia(dto.getUsuario()));
+        if (dto.getTipo() != null)
+            recorrencia.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+        return recorrencia;
+    }
+}
@@ -0,0 +1,75 @@
+package com.joaovictor.debtControll.controller;
+
+import com.joaovictor.debtControll.service.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resolve o usuário da requisição a partir do cabeçalho {@code Authorization: Bearer <token>} e o
+ * publica no atributo {@link #ATRIBUTO_USUARIO}, sem acessar o banco. Toda requisição à API exige o
+ * token, exceto o cadastro e a autenticação de usuários; sem ele a resposta é 401.
+ */
+@Component
+public class TokenFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO_USUARIO = "debtcontroll.idUsuario";
+
+    private static final String PREFIXO = "Bearer ";
+
+    private static final UrlPathHelper CAMINHOS = new UrlPathHelper();
+
+    private final TokenService tokenService;
+
+    public TokenFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !CAMINHOS.getPathWithinApplication(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (cabecalho == null || !cabecalho.startsWith(PREFIXO)) {
+            if (!dispensaToken(request))
+                recusar(response, "Informe o token de autenticação.");
+            else
+                chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<Long> idUsuario = tokenService.obterIdUsuario(cabecalho.substring(PREFIXO.length()).trim());
+        if (!idUsuario.isPresent()) {
+            recusar(response, "Token inválido ou expirado.");
+            return;
+        }
+        request.setAttribute(ATRIBUTO_USUARIO, idUsuario.get());
+        chain.doFilter(request, response);
+    }
+
+    private boolean dispensaToken(HttpServletRequest request) {
+        String caminho = CAMINHOS.getPathWithinApplication(request);
+        return HttpMethod.POST.matches(request.getMethod())
+                && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+    }
+
+    private void recusar(HttpServletResponse response, String mensagem) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(mensagem);
+    }
+}
@@ -1,27 +1,50 @@
 package com.joaovictor.debtControll.controller;
 
+import com.joaovictor.debtControll.config.CompartimentosExecucao;
 import com.joaovictor.debtControll.dto.AutenticacaoDTO;
+import com.joaovictor.debtControll.dto.PrevisaoSaldoDTO;
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
+import com.joaovictor.debtControll.dto.TotalCategoriaDTO;
 import com.joaovictor.debtControll.dto.UsuarioDTO;
 import com.joaovictor.debtControll.exceptions.ErroAutenticacao;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.metricas.ContadorRejeicoes;
 import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.service.CategoriaService;
 import com.joaovictor.debtControll.service.LancamentoService;
+import com.joaovictor.debtControll.service.PrevisaoSaldoService;
+import com.joaovictor.debtControll.service.TokenService;
 import com.joaovictor.debtControll.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/usuarios")
 @RequiredArgsConstructor
 public class UsuarioController {
 
+    static final String MENSAGEM_ACESSO_NEGADO = "Os dados pertencem a outro usuário.";
+
+    static final String MENSAGEM_AUTENTICACAO_OCUPADA = "Muitas autenticações em andamento. Tente novamente em instantes.";
+
     private final UsuarioService service;
     private final LancamentoService lancamentoService;
+    private final ContadorRejeicoes rejeicoes;
+    private final TokenService tokenService;
+    private final PrevisaoSaldoService previsaoSaldoService;
+    private final CategoriaService categoriaService;
+    private final CompartimentosExecucao compartimentos;
 
     @PostMapping
     public ResponseEntity salvar(@RequestBody UsuarioDTO dto){
@@ -35,6 +58,7 @@ public class UsuarioController {
             Usuario salvarUsuario = service.salvarUsuario(usuario);
             return new ResponseEntity(salvarUsuario, HttpStatus.CREATED);
         }catch (RegraNegocioException e){
+            rejeicoes.registrar(e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
         catch (Exception e){
@@ -43,26 +67,110 @@ public class UsuarioController {
     }
 
     @PostMapping("/autenticar")
-    public ResponseEntity autenticar(@RequestBody AutenticacaoDTO dto){
+    public CompletableFuture<ResponseEntity> autenticar(@RequestBody AutenticacaoDTO dto){
         try {
-            Usuario usuario = service.autenticar(dto.getEmail(), dto.getSenha());
-            return ResponseEntity.ok(usuario);
-        }catch (ErroAutenticacao e){
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
-        catch (Exception e){
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+            return service.autenticarAsync(dto.getEmail(), dto.getSenha())
+                    .<ResponseEntity>thenApply(usuario -> ResponseEntity.ok(tokenService.emitirToken(usuario)))
+                    .exceptionally(this::falhaAutenticacao);
+        }catch (TaskRejectedException e){
+            ResponseEntity resposta = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(MENSAGEM_AUTENTICACAO_OCUPADA);
+            return CompletableFuture.completedFuture(resposta);
         }
     }
 
+    /**
+     * As consultas abaixo rodam no compartimento de cada endpoint; o retorno é a resposta ou, fora do
+     * modo síncrono, um CompletableFuture com ela.
+     */
     @GetMapping("{id}/saldo")
-    public ResponseEntity obterSaldo(@PathVariable("id") Long id){
-        Optional<Usuario> usuario = service.obterPorId(id);
+    public Object obterSaldo(@PathVariable("id") Long id,
+                             @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado,
+                             WebRequest requisicao){
+        return compartimentos.executar("usuarios.saldo", () -> {
+            ResponseEntity recusa = verificarUsuario(id, idAutenticado);
+            if (recusa != null)
+                return recusa;
 
-        if (!usuario.isPresent())
-            return new ResponseEntity(HttpStatus.NOT_FOUND);
+            String etag = VersaoEtag.de(id, lancamentoService.obterVersaoPorUsuario(id));
+            if (requisicao.checkNotModified(etag))
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(VersaoEtag.REVALIDAR).build();
+
+            BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
+            return ResponseEntity.ok().eTag(etag).cacheControl(VersaoEtag.REVALIDAR).body(saldo);
+        });
+    }
+
+    @GetMapping("{id}/resumo")
+    public Object obterResumo(@PathVariable("id") Long id, @RequestParam("ano") Integer ano,
+                              @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        return compartimentos.executar("usuarios.resumo", () -> {
+            ResponseEntity recusa = verificarUsuario(id, idAutenticado);
+            if (recusa != null)
+                return recusa;
+
+            try {
+                List<ResumoMensalDTO> resumo = lancamentoService.obterResumoMensal(id, ano);
+                return ResponseEntity.ok(resumo);
+            }catch (RegraNegocioException e){
+                rejeicoes.registrar(e);
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
 
-        BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
-        return ResponseEntity.ok(saldo);
+    @GetMapping("{id}/previsao")
+    public Object obterPrevisao(@PathVariable("id") Long id,
+                                @RequestParam("inicio") YearMonth inicio, @RequestParam("fim") YearMonth fim,
+                                @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        return compartimentos.executar("usuarios.previsao", () -> {
+            ResponseEntity recusa = verificarUsuario(id, idAutenticado);
+            if (recusa != null)
+                return recusa;
+
+            try {
+                List<PrevisaoSaldoDTO> previsao = previsaoSaldoService.obterPrevisao(id, inicio, fim);
+                return ResponseEntity.ok(previsao);
+            }catch (RegraNegocioException e){
+                rejeicoes.registrar(e);
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
+    @GetMapping("{id}/categorias")
+    public Object obterTotaisPorCategoria(@PathVariable("id") Long id, @RequestParam("ano") Integer ano,
+                                          @RequestParam(value = "mes", required = false) Integer mes,
+                                          @RequestAttribute(TokenFilter.ATRIBUTO_USUARIO) Long idAutenticado){
+        return compartimentos.executar("usuarios.categorias", () -> {
+            ResponseEntity recusa = verificarUsuario(id, idAutenticado);
+            if (recusa != null)
+                return recusa;
+
+            try {
+                List<TotalCategoriaDTO> totais = categoriaService.obterTotais(id, ano, mes);
+                return ResponseEntity.ok(totais);
+            }catch (RegraNegocioException e){
+                rejeicoes.registrar(e);
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * O token só é emitido para usuários existentes, então a consulta de existência é dispensada.
+     */
+    private ResponseEntity verificarUsuario(Long id, Long idAutenticado){
+        return idAutenticado.equals(id) ? null : ResponseEntity.status(HttpStatus.FORBIDDEN).body(MENSAGEM_ACESSO_NEGADO);
+    }
+
+    private ResponseEntity falhaAutenticacao(Throwable falha){
+        Throwable e = falha instanceof CompletionException && falha.getCause() != null ? falha.getCause() : falha;
+        if (e instanceof ErroAutenticacao){
+            rejeicoes.registrar((ErroAutenticacao) e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
     }
 }
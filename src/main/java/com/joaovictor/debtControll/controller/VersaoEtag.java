@@ -0,0 +1,23 @@
+package com.joaovictor.debtControll.controller;
+
+import org.springframework.http.CacheControl;
+
+/**
+ * ETag fraca das respostas derivadas dos lançamentos de um usuário, a partir da versão dele.
+ * A versão deve ser lida antes da consulta: uma escrita concorrente entre as duas só faz o cliente
+ * receber a resposta completa mais uma vez, nunca guardar dados novos sob uma ETag antiga.
+ */
+final class VersaoEtag {
+
+    /**
+     * O cliente pode guardar a resposta, mas revalida a cada uso; dados de um usuário, só no cliente.
+     */
+    static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    private VersaoEtag() {
+    }
+
+    static String de(Long idUsuario, long versao) {
+        return "W/\"" + idUsuario + "-" + versao + "\"";
+    }
+}
@@ -0,0 +1,21 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusLoteDTO {
+
+    private List<Long> ids;
+    private Long usuario;
+    private Integer ano;
+    private Integer mes;
+    private String status;
+}
@@ -0,0 +1,39 @@
+package com.joaovictor.debtControll.dto;
+
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição (ano, mês, id) do último lançamento de uma página, trafegada como um token opaco.
+ */
+@Data
+@AllArgsConstructor
+public class CursorLancamentoDTO {
+
+    private Integer ano;
+    private Integer mes;
+    private Long id;
+
+    public static CursorLancamentoDTO de(Lancamento lancamento) {
+        return new CursorLancamentoDTO(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public static CursorLancamentoDTO decodificar(String token) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            return new CursorLancamentoDTO(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new RegraNegocioException("Cursor de paginação inválido.");
+        }
+    }
+
+    public String codificar() {
+        String valor = ano + ":" + mes + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,15 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class DivergenciaSaldoDTO {
+
+    private Long idUsuario;
+    private BigDecimal saldoMaterializado;
+    private BigDecimal saldoCalculado;
+}
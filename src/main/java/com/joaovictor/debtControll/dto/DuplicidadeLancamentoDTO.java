@@ -0,0 +1,14 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DuplicidadeLancamentoDTO {
+
+    private Long idUsuario;
+    /** O lançamento mais antigo do grupo; os demais são os possíveis duplicados. */
+    private Long idOriginal;
+    private Long quantidade;
+}
@@ -0,0 +1,12 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+
+    private long linha;
+    private String mensagem;
+}
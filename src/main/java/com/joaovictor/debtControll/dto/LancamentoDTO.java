@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 @Data
 @Builder
@@ -18,4 +19,7 @@ public class LancamentoDTO {
     private Long usuario;
     private String tipo;
     private String status;
+    private Long versao;
+    private String categoria;
+    private Set<String> etiquetas;
 }
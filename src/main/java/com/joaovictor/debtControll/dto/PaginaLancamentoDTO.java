@@ -0,0 +1,15 @@
+package com.joaovictor.debtControll.dto;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PaginaLancamentoDTO {
+
+    private List<Lancamento> lancamentos;
+    private String proximoCursor;
+}
@@ -0,0 +1,25 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Um mês da previsão. realizado e previsto são os valores do mês (efetivados; pendentes e
+ * recorrências ainda não geradas); os saldos acumulam desde o primeiro lançamento do usuário,
+ * e saldoPrevisto já inclui o realizado.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PrevisaoSaldoDTO {
+
+    private Integer ano;
+    private Integer mes;
+    private BigDecimal realizado;
+    private BigDecimal previsto;
+    private BigDecimal saldoRealizado;
+    private BigDecimal saldoPrevisto;
+}
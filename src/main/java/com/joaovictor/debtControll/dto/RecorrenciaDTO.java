@@ -0,0 +1,25 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecorrenciaDTO {
+
+    private String descricao;
+    private BigDecimal valor;
+    private String tipo;
+    private Long usuario;
+    private Integer mesInicio;
+    private Integer anoInicio;
+    private Integer mesFim;
+    private Integer anoFim;
+    private String categoria;
+}
@@ -0,0 +1,15 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.Data;
+
+@Data
+public class ResultadoAtualizacaoStatusDTO {
+
+    private long atualizados;
+    private long ignorados;
+
+    public void registrar(long atualizados, long ignorados) {
+        this.atualizados += atualizados;
+        this.ignorados += ignorados;
+    }
+}
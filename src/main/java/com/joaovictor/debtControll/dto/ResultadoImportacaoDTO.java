@@ -0,0 +1,29 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ResultadoImportacaoDTO {
+
+    public static final int MAXIMO_ERROS_DETALHADOS = 1000;
+
+    private long importados;
+    private long rejeitados;
+    private List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+    public void registrarImportados(long quantidade) {
+        importados += quantidade;
+    }
+
+    /**
+     * Conta toda rejeição, mas só detalha as primeiras para manter a resposta com tamanho limitado.
+     */
+    public void registrarErro(long linha, String mensagem) {
+        rejeitados++;
+        if (erros.size() < MAXIMO_ERROS_DETALHADOS)
+            erros.add(new ErroImportacaoDTO(linha, mensagem));
+    }
+}
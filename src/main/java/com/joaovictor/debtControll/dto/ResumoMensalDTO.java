@@ -0,0 +1,32 @@
+package com.joaovictor.debtControll.dto;
+
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+public class ResumoMensalDTO {
+
+    private Integer mes;
+    private Map<StatusLancamento, BigDecimal> receitas = zerados();
+    private Map<StatusLancamento, BigDecimal> despesas = zerados();
+
+    public ResumoMensalDTO(Integer mes) {
+        this.mes = mes;
+    }
+
+    public void adicionar(TipoLancamento tipo, StatusLancamento status, BigDecimal total) {
+        (tipo == TipoLancamento.RECEITA ? receitas : despesas).merge(status, total, BigDecimal::add);
+    }
+
+    private static Map<StatusLancamento, BigDecimal> zerados() {
+        Map<StatusLancamento, BigDecimal> totais = new EnumMap<>(StatusLancamento.class);
+        for (StatusLancamento status : StatusLancamento.values())
+            totais.put(status, BigDecimal.ZERO);
+        return totais;
+    }
+}
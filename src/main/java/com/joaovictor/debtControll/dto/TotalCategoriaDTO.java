@@ -0,0 +1,21 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais de uma categoria no período; idCategoria e categoria nulos agrupam os lançamentos sem categoria.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TotalCategoriaDTO {
+
+    private Integer idCategoria;
+    private String categoria;
+    private BigDecimal receitas;
+    private BigDecimal despesas;
+}
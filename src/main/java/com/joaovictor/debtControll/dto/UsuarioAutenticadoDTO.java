@@ -0,0 +1,20 @@
+package com.joaovictor.debtControll.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioAutenticadoDTO {
+    private Long id;
+    private String nome;
+    private String email;
+    private String token;
+    private Instant expiraEm;
+}
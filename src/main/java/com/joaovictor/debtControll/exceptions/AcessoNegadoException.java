@@ -0,0 +1,8 @@
+package com.joaovictor.debtControll.exceptions;
+
+public class AcessoNegadoException extends RuntimeException {
+
+    public AcessoNegadoException(String s){
+        super(s);
+    }
+}
@@ -0,0 +1,8 @@
+package com.joaovictor.debtControll.exceptions;
+
+public class RequisicaoConcorrenteException extends RuntimeException {
+
+    public RequisicaoConcorrenteException(String s){
+        super(s);
+    }
+}
@@ -0,0 +1,33 @@
+package com.joaovictor.debtControll.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta as instruções SQL preparadas pelo Hibernate na thread da requisição em andamento.
+ * Fora de uma requisição (jobs agendados, respostas em stream) nada é contado.
+ */
+public class ContadorInstrucoesSql implements StatementInspector {
+
+    private static final ThreadLocal<long[]> CONTAGEM = new ThreadLocal<>();
+
+    public static void iniciar() {
+        CONTAGEM.set(new long[1]);
+    }
+
+    /**
+     * Encerra a contagem da thread atual e devolve o total, ou -1 se nenhuma contagem estava aberta.
+     */
+    public static long finalizar() {
+        long[] contagem = CONTAGEM.get();
+        CONTAGEM.remove();
+        return contagem == null ? -1 : contagem[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] contagem = CONTAGEM.get();
+        if (contagem != null)
+            contagem[0]++;
+        return sql;
+    }
+}
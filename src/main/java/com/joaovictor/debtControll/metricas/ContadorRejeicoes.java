@@ -0,0 +1,28 @@
+package com.joaovictor.debtControll.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conta as regras de negócio que viraram resposta 400, por exceção e mensagem, em debtcontroll.rejeicoes.
+ */
+@Component
+public class ContadorRejeicoes {
+
+    static final String METRICA = "debtcontroll.rejeicoes";
+
+    private final MeterRegistry registry;
+
+    public ContadorRejeicoes(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void registrar(RuntimeException e) {
+        Counter.builder(METRICA)
+                .tag("excecao", e.getClass().getSimpleName())
+                .tag("mensagem", e.getMessage() == null ? "" : e.getMessage())
+                .register(registry)
+                .increment();
+    }
+}
@@ -0,0 +1,53 @@
+package com.joaovictor.debtControll.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Registra quantas instruções SQL cada requisição executou, por rota, em debtcontroll.http.instrucoes.sql.
+ */
+public class InstrucoesSqlInterceptor implements AsyncHandlerInterceptor {
+
+    static final String METRICA = "debtcontroll.http.instrucoes.sql";
+
+    private final MeterRegistry registry;
+
+    public InstrucoesSqlInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC)
+            ContadorInstrucoesSql.iniciar();
+        return true;
+    }
+
+    /**
+     * Respostas assíncronas (stream, autenticação) consultam o banco em outra thread; a contagem parcial é descartada.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorInstrucoesSql.finalizar();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long instrucoes = ContadorInstrucoesSql.finalizar();
+        if (instrucoes < 0)
+            return;
+
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRICA)
+                .tag("method", request.getMethod())
+                .tag("uri", rota == null ? "UNKNOWN" : rota.toString())
+                .register(registry)
+                .record(instrucoes);
+    }
+}
@@ -0,0 +1,44 @@
+package com.joaovictor.debtControll.metricas;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jpa.HibernateQueryMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+public class MetricasConfig {
+
+    /**
+     * Habilita o @Timed dos serviços; cada método vira uma série de debtcontroll.servico com as tags class e method.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorInstrucoesSql() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorInstrucoesSql());
+    }
+
+    /**
+     * Com as estatísticas do Hibernate ligadas (perfil producao), cada consulta HQL vira uma série de
+     * hibernate.query com a tag query. O registro fica para depois dos singletons, como no
+     * HibernateMetrics do Spring Boot, para o registry não puxar o JPA durante a criação do DataSource.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+    public SmartInitializingSingleton metricasConsultasHibernate(ObjectProvider<EntityManagerFactory> fabricas, MeterRegistry registry) {
+        return () -> fabricas.forEach(fabrica ->
+                HibernateQueryMetrics.monitor(registry, fabrica.unwrap(SessionFactory.class), "entityManagerFactory"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.joaovictor.debtControll.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class MetricasWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    public MetricasWebConfig(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Sem o actuator (testes de fatia web, por exemplo) não há registro de métricas e o interceptor fica de fora.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        registry.ifAvailable(meterRegistry ->
+                interceptors.addInterceptor(new InstrucoesSqlInterceptor(meterRegistry)).addPathPatterns("/api/**"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.joaovictor.debtControll.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Valores monetários em centavos, num long, para as agregações feitas em memória: somar longs não
+ * aloca, somar BigDecimal cria uma instância a cada parcela. A conversão nos dois sentidos é exata;
+ * os valores são gravados com duas casas decimais e a validação recusa valores com mais.
+ */
+public final class Centavos {
+
+    public static final int CASAS_DECIMAIS = 2;
+
+    private Centavos() {
+    }
+
+    /**
+     * @throws ArithmeticException se o valor tiver mais de duas casas decimais ou não couber num long
+     */
+    public static long de(BigDecimal valor) {
+        return valor.movePointRight(CASAS_DECIMAIS).longValueExact();
+    }
+
+    public static BigDecimal paraValor(long centavos) {
+        return BigDecimal.valueOf(centavos, CASAS_DECIMAIS);
+    }
+
+    public static boolean representavel(BigDecimal valor) {
+        return valor.stripTrailingZeros().scale() <= CASAS_DECIMAIS;
+    }
+}
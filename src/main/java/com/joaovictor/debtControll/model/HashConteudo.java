@@ -0,0 +1,60 @@
+package com.joaovictor.debtControll.model;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+
+/**
+ * Hash de 64 bits do conteúdo de um lançamento (usuário, ano, mês, valor, tipo e descrição), para
+ * achar duplicados por igualdade num índice em vez de comparar coluna a coluna. A descrição entra
+ * normalizada como os rótulos e o valor sem zeros à direita: "Aluguel " de 10.0 e "aluguel" de 10
+ * têm o mesmo hash. Hashes iguais ainda podem vir de conteúdos diferentes; quem precisa da certeza
+ * compara com {@link #mesmoConteudo(Lancamento, Lancamento)}.
+ */
+public final class HashConteudo {
+
+    private static final char SEPARADOR = '\u0000';
+
+    private HashConteudo() {
+    }
+
+    public static long calcular(Lancamento lancamento) {
+        return calcular(lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+                lancamento.getValor(), lancamento.getTipo(), lancamento.getDescricao());
+    }
+
+    public static long calcular(Long idUsuario, Integer ano, Integer mes, BigDecimal valor, TipoLancamento tipo, String descricao) {
+        String conteudo = new StringBuilder()
+                .append(idUsuario).append(SEPARADOR)
+                .append(ano).append(SEPARADOR)
+                .append(mes).append(SEPARADOR)
+                .append(valor == null ? null : valor.stripTrailingZeros().toPlainString()).append(SEPARADOR)
+                .append(tipo).append(SEPARADOR)
+                .append(Rotulos.normalizar(descricao))
+                .toString();
+        return ByteBuffer.wrap(sha256().digest(conteudo.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+
+    public static boolean mesmoConteudo(Lancamento lancamento, Lancamento outro) {
+        return Objects.equals(lancamento.getUsuario().getId(), outro.getUsuario().getId())
+                && Objects.equals(lancamento.getAno(), outro.getAno())
+                && Objects.equals(lancamento.getMes(), outro.getMes())
+                && lancamento.getValor().compareTo(outro.getValor()) == 0
+                && lancamento.getTipo() == outro.getTipo()
+                && Objects.equals(Rotulos.normalizar(lancamento.getDescricao()), Rotulos.normalizar(outro.getDescricao()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
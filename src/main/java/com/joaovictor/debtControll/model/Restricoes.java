@@ -0,0 +1,33 @@
+package com.joaovictor.debtControll.model;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * Nomes das restrições que o serviço traduz em mensagem para o usuário; as demais violações seguem
+ * como erro.
+ */
+public final class Restricoes {
+
+    public static final String FK_LANCAMENTO_USUARIO = "fk_lancamento_usuario";
+    public static final String FK_RECORRENCIA_USUARIO = "fk_recorrencia_usuario";
+
+    private Restricoes() {
+    }
+
+    /**
+     * O nome vem do Hibernate, extraído da mensagem do banco: no PostgreSQL é só o nome, no H2 vem
+     * em maiúsculas e seguido da definição da restrição.
+     */
+    public static boolean violou(DataIntegrityViolationException e, String restricao) {
+        for (Throwable causa = e.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException) {
+                String nome = ((ConstraintViolationException) causa).getConstraintName();
+                return nome != null && nome.toLowerCase(Locale.ROOT).contains(restricao);
+            }
+        }
+        return false;
+    }
+}
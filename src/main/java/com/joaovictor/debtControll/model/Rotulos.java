@@ -0,0 +1,50 @@
+package com.joaovictor.debtControll.model;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Normalização dos nomes de categoria e das etiquetas dos lançamentos: minúsculas, sem espaços nas
+ * pontas e com espaços internos simples. Ao contrário do índice de termos, os acentos são mantidos,
+ * porque o rótulo normalizado é também o que se exibe.
+ */
+public final class Rotulos {
+
+    public static final int MAXIMO_ETIQUETAS = 10;
+    public static final int TAMANHO_MAXIMO_ETIQUETA = 30;
+    public static final String SEPARADOR_ETIQUETAS = ",";
+
+    private Rotulos() {
+    }
+
+    /**
+     * @return o rótulo normalizado, ou nulo se vier nulo ou em branco
+     */
+    public static String normalizar(String rotulo) {
+        if (rotulo == null)
+            return null;
+        String normalizado = rotulo.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalizado.isEmpty() ? null : normalizado;
+    }
+
+    /**
+     * Etiquetas normalizadas, sem repetições e em ordem alfabética; as em branco são descartadas.
+     */
+    public static Set<String> normalizar(Collection<String> etiquetas) {
+        Set<String> normalizadas = new TreeSet<>();
+        if (etiquetas == null)
+            return normalizadas;
+        for (String etiqueta : etiquetas) {
+            String normalizada = normalizar(etiqueta);
+            if (normalizada != null)
+                normalizadas.add(normalizada);
+        }
+        return normalizadas;
+    }
+
+    public static boolean etiquetaValida(String etiqueta) {
+        return etiqueta.length() <= TAMANHO_MAXIMO_ETIQUETA && !etiqueta.contains(SEPARADOR_ETIQUETAS);
+    }
+}
@@ -0,0 +1,55 @@
+package com.joaovictor.debtControll.model;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Índice de termos da descrição dos lançamentos. Cada palavra é normalizada (minúsculas, sem
+ * acentos) e indexada por todos os seus prefixos a partir de {@link #TAMANHO_MINIMO} caracteres,
+ * de forma que a busca por início de palavra seja sempre uma igualdade servida por índice.
+ */
+public final class TermosDescricao {
+
+    public static final int TAMANHO_MINIMO = 3;
+    public static final int TAMANHO_MAXIMO = 20;
+
+    private TermosDescricao() {
+    }
+
+    public static Set<String> indexar(String descricao) {
+        Set<String> termos = new HashSet<>();
+        for (String palavra : palavras(descricao)) {
+            int limite = Math.min(palavra.length(), TAMANHO_MAXIMO);
+            for (int tamanho = TAMANHO_MINIMO; tamanho <= limite; tamanho++)
+                termos.add(palavra.substring(0, tamanho));
+        }
+        return termos;
+    }
+
+    /**
+     * Palavras de uma consulta, já normalizadas e truncadas no tamanho máximo indexado.
+     */
+    public static List<String> consultar(String texto) {
+        List<String> palavras = palavras(texto);
+        palavras.replaceAll(palavra -> palavra.length() > TAMANHO_MAXIMO ? palavra.substring(0, TAMANHO_MAXIMO) : palavra);
+        return palavras;
+    }
+
+    public static boolean indexavel(String palavra) {
+        return palavra.length() >= TAMANHO_MINIMO;
+    }
+
+    private static List<String> palavras(String texto) {
+        if (texto == null)
+            return new ArrayList<>();
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> palavras = new ArrayList<>();
+        for (String palavra : normalizado.split("[^\\p{Alnum}]+"))
+            if (!palavra.isEmpty())
+                palavras.add(palavra);
+        return palavras;
+    }
+}
@@ -0,0 +1,38 @@
+package com.joaovictor.debtControll.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Dicionário de categorias: o lançamento guarda só o id, um inteiro pequeno, e o nome fica aqui uma
+ * única vez. Os nomes são gravados normalizados (minúsculos, espaços simples), então "Mercado" e
+ * " mercado " são a mesma categoria.
+ */
+@Entity
+@Table(name = "categoria", schema = "debt", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_categoria_nome", columnNames = "nome")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Categoria {
+
+    public static final int TAMANHO_MAXIMO_NOME = 60;
+
+    /**
+     * Sem reserva de blocos: categorias novas são raras e os ids ficam contíguos.
+     */
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categoria_seq")
+    @SequenceGenerator(name = "categoria_seq", sequenceName = "categoria_seq", schema = "debt", allocationSize = 1)
+    private Integer id;
+
+    @Column(name = "nome", length = TAMANHO_MAXIMO_NOME)
+    private String nome;
+}
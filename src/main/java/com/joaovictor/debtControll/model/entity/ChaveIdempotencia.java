@@ -0,0 +1,38 @@
+package com.joaovictor.debtControll.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Chave do cabeçalho Idempotency-Key de uma criação de lançamento, por usuário, com o lançamento
+ * criado e o hash do conteúdo enviado. Vale até a data de expiração; depois é removida.
+ */
+@Entity
+@Table(name = "chave_idempotencia", schema = "debt", indexes = {
+        @Index(name = "idx_chave_idempotencia_expiracao", columnList = "data_expiracao")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChaveIdempotencia {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    @EmbeddedId
+    private ChaveIdempotenciaId id;
+
+    @Column(name = "id_lancamento")
+    private Long idLancamento;
+
+    @Column(name = "hash_conteudo")
+    private Long hashConteudo;
+
+    @Column(name = "data_expiracao")
+    private Instant dataExpiracao;
+}
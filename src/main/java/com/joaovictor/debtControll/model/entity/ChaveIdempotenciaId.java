@@ -0,0 +1,22 @@
+package com.joaovictor.debtControll.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChaveIdempotenciaId implements Serializable {
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "chave", length = ChaveIdempotencia.TAMANHO_MAXIMO_CHAVE)
+    private String chave;
+}
@@ -0,0 +1,29 @@
+package com.joaovictor.debtControll.model.entity;
+
+import com.joaovictor.debtControll.model.Rotulos;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Grava as etiquetas numa única coluna, separadas por vírgula, e as lê de volta em ordem alfabética.
+ */
+@Converter
+public class EtiquetasConverter implements AttributeConverter<Set<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Set<String> etiquetas) {
+        return etiquetas == null || etiquetas.isEmpty() ? null : String.join(Rotulos.SEPARADOR_ETIQUETAS, new TreeSet<>(etiquetas));
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(String coluna) {
+        Set<String> etiquetas = new TreeSet<>();
+        if (coluna != null && !coluna.isEmpty())
+            etiquetas.addAll(Arrays.asList(coluna.split(Rotulos.SEPARADOR_ETIQUETAS)));
+        return etiquetas;
+    }
+}
@@ -0,0 +1,105 @@
+package com.joaovictor.debtControll.model.entity;
+
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoEventoLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Registro imutável de uma alteração de lançamento, com o estado dele depois da alteração (antes,
+ * no caso da exclusão). A versão ordena os eventos de um mesmo lançamento.
+ */
+@Entity
+@Table(name = "evento_lancamento", schema = "debt", indexes = {
+        @Index(name = "idx_evento_lancamento_lancamento", columnList = "id_lancamento, versao")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoLancamento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_lancamento_seq")
+    @SequenceGenerator(name = "evento_lancamento_seq", sequenceName = "evento_lancamento_seq", schema = "debt", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "tipo_evento")
+    @Enumerated(value = EnumType.STRING)
+    private TipoEventoLancamento tipoEvento;
+
+    @Column(name = "data_evento")
+    private Instant dataEvento;
+
+    @Column(name = "id_lancamento")
+    private Long idLancamento;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "descricao")
+    private String descricao;
+
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Column(name = "valor")
+    private BigDecimal valor;
+
+    @Column(name = "tipo")
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "status")
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    @Column(name = "versao")
+    private Long versao;
+
+    public static EventoLancamento de(TipoEventoLancamento tipoEvento, Lancamento lancamento) {
+        return EventoLancamento.builder()
+                .tipoEvento(tipoEvento)
+                .dataEvento(Instant.now())
+                .idLancamento(lancamento.getId())
+                .idUsuario(lancamento.getIdUsuario())
+                .descricao(lancamento.getDescricao())
+                .mes(lancamento.getMes())
+                .ano(lancamento.getAno())
+                .valor(lancamento.getValor())
+                .tipo(lancamento.getTipo())
+                .status(lancamento.getStatus())
+                .versao(lancamento.getVersao())
+                .build();
+    }
+
+    /**
+     * A projeção não traz a descrição; basta para exclusões e trocas de status.
+     */
+    public static EventoLancamento de(TipoEventoLancamento tipoEvento, EstadoLancamento estado) {
+        return EventoLancamento.builder()
+                .tipoEvento(tipoEvento)
+                .dataEvento(Instant.now())
+                .idLancamento(estado.getId())
+                .idUsuario(estado.getIdUsuario())
+                .mes(estado.getMes())
+                .ano(estado.getAno())
+                .valor(estado.getValor())
+                .tipo(estado.getTipo())
+                .status(estado.getStatus())
+                .versao(estado.getVersao())
+                .build();
+    }
+}
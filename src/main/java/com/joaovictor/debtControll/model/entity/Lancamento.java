@@ -1,31 +1,51 @@
 package com.joaovictor.debtControll.model.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.joaovictor.debtControll.model.Restricoes;
 import com.joaovictor.debtControll.model.enums.StatusLancamento;
 import com.joaovictor.debtControll.model.enums.TipoLancamento;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Entity
-@Table(name = "lancamento", schema = "debt")
+@Table(name = "lancamento", schema = "debt", indexes = {
+        @Index(name = "idx_lancamento_usuario_periodo", columnList = "id_usuario, ano, mes, id"),
+        @Index(name = "idx_lancamento_filtro", columnList = "id_usuario, ano, mes, tipo, status"),
+        // cobre os totais por categoria: a soma sai do índice, sem ler as linhas
+        @Index(name = "idx_lancamento_categoria", columnList = "id_usuario, ano, mes, id_categoria, tipo, status, valor"),
+        // duplicados por igualdade do hash; o status filtra os cancelados sem ler as linhas
+        @Index(name = "idx_lancamento_hash_conteudo", columnList = "id_usuario, hash_conteudo, status")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lancamento_recorrencia_periodo", columnNames = {"id_recorrencia", "ano", "mes"})
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Lancamento {
 
+    public static final int TAMANHO_MAXIMO_DESCRICAO = 255;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", schema = "debt", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "descricao")
+    @Column(name = "descricao", length = TAMANHO_MAXIMO_DESCRICAO)
     private String descricao;
 
     @Column(name = "mes")
@@ -34,8 +54,11 @@ public class Lancamento {
     @Column(name = "ano")
     private Integer ano;
 
-    @ManyToOne
-    @JoinColumn(name = "id_usuario")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_usuario", foreignKey = @ForeignKey(name = Restricoes.FK_LANCAMENTO_USUARIO))
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Usuario usuario;
 
     @Column(name = "valor")
@@ -52,4 +75,65 @@ public class Lancamento {
     @Column(name = "status")
     @Enumerated(value = EnumType.STRING)
     private StatusLancamento status;
+
+    /**
+     * Id no dicionário de categorias; nulo para lançamentos sem categoria.
+     */
+    @Column(name = "id_categoria")
+    private Integer idCategoria;
+
+    /**
+     * Numa coluna só, lidas junto com o lançamento, sem outra consulta.
+     */
+    @Column(name = "etiquetas", length = 320)
+    @Convert(converter = EtiquetasConverter.class)
+    @Builder.Default
+    private Set<String> etiquetas = new TreeSet<>();
+
+    /**
+     * {@link com.joaovictor.debtControll.model.HashConteudo} do conteúdo, recalculado a cada gravação;
+     * nulo nos lançamentos antigos até a verificação de duplicados preenchê-lo.
+     */
+    @Column(name = "hash_conteudo")
+    @JsonIgnore
+    private Long hashConteudo;
+
+    /**
+     * Recorrência que gerou o lançamento; uma mesma recorrência gera no máximo um lançamento por mês.
+     */
+    @Column(name = "id_recorrencia")
+    private Long idRecorrencia;
+
+    /**
+     * Nula enquanto o lançamento não foi gravado; é o que indica ao save que a entidade é nova.
+     */
+    @Version
+    @Column(name = "versao")
+    private Long versao;
+
+    /**
+     * Marcado a cada gravação da descrição; nulo nos lançamentos gravados antes do índice de termos,
+     * até o preenchimento em lote indexá-los.
+     */
+    @Column(name = "termos_indexados")
+    @JsonIgnore
+    private Boolean termosIndexados;
+
+    @ElementCollection
+    @CollectionTable(name = "lancamento_termo", schema = "debt", joinColumns = @JoinColumn(name = "id_lancamento"),
+            indexes = @Index(name = "idx_lancamento_termo", columnList = "termo, id_lancamento"))
+    @Column(name = "termo", length = 20)
+    @JsonIgnore
+    @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Set<String> termos = new HashSet<>();
+
+    /**
+     * Somente o id do usuário é exposto: obtê-lo do proxy não carrega o usuário.
+     */
+    @JsonProperty("usuario")
+    public Long getIdUsuario() {
+        return usuario == null ? null : usuario.getId();
+    }
 }
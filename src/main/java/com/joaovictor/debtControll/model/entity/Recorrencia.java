@@ -0,0 +1,83 @@
+package com.joaovictor.debtControll.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.joaovictor.debtControll.model.Restricoes;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Modelo de um lançamento que se repete todo mês, de mes/anoInicio até mes/anoFim (sem fim, para
+ * sempre). mes/anoProximo é a primeira ocorrência ainda não gerada.
+ */
+@Entity
+@Table(name = "recorrencia", schema = "debt", indexes = {
+        @Index(name = "idx_recorrencia_usuario", columnList = "id_usuario"),
+        @Index(name = "idx_recorrencia_proximo", columnList = "ano_proximo, mes_proximo, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Recorrencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recorrencia_seq")
+    @SequenceGenerator(name = "recorrencia_seq", sequenceName = "recorrencia_seq", schema = "debt", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_usuario", foreignKey = @ForeignKey(name = Restricoes.FK_RECORRENCIA_USUARIO))
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Usuario usuario;
+
+    @Column(name = "descricao", length = Lancamento.TAMANHO_MAXIMO_DESCRICAO)
+    private String descricao;
+
+    @Column(name = "valor")
+    private BigDecimal valor;
+
+    @Column(name = "tipo")
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    /**
+     * Categoria dos lançamentos gerados.
+     */
+    @Column(name = "id_categoria")
+    private Integer idCategoria;
+
+    @Column(name = "mes_inicio")
+    private Integer mesInicio;
+
+    @Column(name = "ano_inicio")
+    private Integer anoInicio;
+
+    @Column(name = "mes_fim")
+    private Integer mesFim;
+
+    @Column(name = "ano_fim")
+    private Integer anoFim;
+
+    @Column(name = "mes_proximo")
+    private Integer mesProximo;
+
+    @Column(name = "ano_proximo")
+    private Integer anoProximo;
+
+    @JsonProperty("usuario")
+    public Long getIdUsuario() {
+        return usuario == null ? null : usuario.getId();
+    }
+}
@@ -0,0 +1,48 @@
+package com.joaovictor.debtControll.model.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Total dos lançamentos de um usuário em um mês, por tipo e status. Um ano tem no máximo
+ * 12 x 2 x 3 linhas por usuário, independente da quantidade de lançamentos.
+ */
+@Entity
+@Table(name = "resumo_mensal", schema = "debt")
+@Data
+@NoArgsConstructor
+public class ResumoMensal implements Persistable<ResumoMensalId> {
+
+    @EmbeddedId
+    private ResumoMensalId id;
+
+    @Column(name = "total")
+    private BigDecimal total;
+
+    /**
+     * A chave é atribuída pela aplicação; sem esta marca o save faria merge, com um select antes
+     * de cada insert.
+     */
+    @Transient
+    private boolean novo = true;
+
+    public ResumoMensal(ResumoMensalId id, BigDecimal total) {
+        this.id = id;
+        this.total = total;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarGravado() {
+        novo = false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.joaovictor.debtControll.model.entity;
+
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensalId implements Serializable {
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "ano")
+    private Integer ano;
+
+    @Column(name = "mes")
+    private Integer mes;
+
+    @Column(name = "tipo", length = 10)
+    @Enumerated(value = EnumType.STRING)
+    private TipoLancamento tipo;
+
+    @Column(name = "status", length = 10)
+    @Enumerated(value = EnumType.STRING)
+    private StatusLancamento status;
+
+    public static ResumoMensalId de(Lancamento lancamento) {
+        return new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+                lancamento.getTipo(), lancamento.getStatus());
+    }
+
+    public static ResumoMensalId de(EstadoLancamento estado) {
+        return new ResumoMensalId(estado.getIdUsuario(), estado.getAno(), estado.getMes(),
+                estado.getTipo(), estado.getStatus());
+    }
+}
@@ -0,0 +1,25 @@
+package com.joaovictor.debtControll.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "saldo_usuario", schema = "debt")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "valor")
+    private BigDecimal valor;
+}
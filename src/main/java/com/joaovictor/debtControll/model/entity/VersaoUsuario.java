@@ -0,0 +1,24 @@
+package com.joaovictor.debtControll.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "versao_usuario", schema = "debt")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersaoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "versao")
+    private Long versao;
+}
@@ -0,0 +1,16 @@
+package com.joaovictor.debtControll.model.enums;
+
+public enum ModoDurabilidadeEventos {
+
+    /**
+     * O evento é gravado na transação da escrita: some junto com ela num rollback e nunca se perde
+     * depois do commit, ao custo de um insert a mais em cada requisição.
+     */
+    SINCRONO,
+
+    /**
+     * O evento entra no buffer depois do commit e é gravado em lote por uma thread separada; eventos
+     * ainda no buffer se perdem se o processo cair.
+     */
+    GRUPO
+}
@@ -0,0 +1,21 @@
+package com.joaovictor.debtControll.model.enums;
+
+public enum ModoExecucao {
+
+    /**
+     * A consulta roda na thread do Tomcat; uma consulta lenta ocupa a thread até terminar.
+     */
+    SINCRONO,
+
+    /**
+     * A consulta roda no pool limitado do seu compartimento e a thread do Tomcat é liberada; com o
+     * compartimento cheio a requisição é recusada com 503.
+     */
+    ASSINCRONO,
+
+    /**
+     * Como ASSINCRONO, com uma thread virtual por consulta e a concorrência limitada por semáforo.
+     * Exige JDK 21 ou mais novo; nos anteriores vale ASSINCRONO.
+     */
+    VIRTUAL
+}
@@ -0,0 +1,23 @@
+package com.joaovictor.debtControll.model.enums;
+
+/**
+ * O que a criação de um lançamento faz quando o usuário já tem outro, não cancelado, com o mesmo
+ * conteúdo. Reenvios com a mesma chave de idempotência devolvem sempre o lançamento original.
+ */
+public enum PoliticaDuplicidade {
+
+    /**
+     * Grava o novo lançamento: duas compras iguais no mesmo mês são legítimas.
+     */
+    PERMITIR,
+
+    /**
+     * Recusa a criação com erro de regra de negócio.
+     */
+    REJEITAR,
+
+    /**
+     * Devolve o lançamento existente sem gravar outro.
+     */
+    REAPROVEITAR
+}
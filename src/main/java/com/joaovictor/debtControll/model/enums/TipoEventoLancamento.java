@@ -0,0 +1,9 @@
+package com.joaovictor.debtControll.model.enums;
+
+public enum TipoEventoLancamento {
+
+    CRIADO,
+    ATUALIZADO,
+    STATUS_ALTERADO,
+    EXCLUIDO
+}
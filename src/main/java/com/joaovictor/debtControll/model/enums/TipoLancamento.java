@@ -1,7 +1,17 @@
 package com.joaovictor.debtControll.model.enums;
 
+import java.math.BigDecimal;
+
 public enum TipoLancamento {
 
     RECEITA,
-    DESPESA
+    DESPESA;
+
+    public BigDecimal aplicarSinal(BigDecimal valor) {
+        return this == RECEITA ? valor : valor.negate();
+    }
+
+    public long aplicarSinal(long centavos) {
+        return this == RECEITA ? centavos : -centavos;
+    }
 }
@@ -0,0 +1,29 @@
+package com.joaovictor.debtControll.model.projection;
+
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+/**
+ * Valores de um lançamento como estão gravados no banco, independente do que já foi alterado
+ * na entidade gerenciada pela sessão.
+ */
+public interface EstadoLancamento {
+
+    Long getId();
+
+    Long getIdUsuario();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    BigDecimal getValor();
+
+    TipoLancamento getTipo();
+
+    StatusLancamento getStatus();
+
+    Long getVersao();
+}
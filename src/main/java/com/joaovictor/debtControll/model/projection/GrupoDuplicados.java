@@ -0,0 +1,12 @@
+package com.joaovictor.debtControll.model.projection;
+
+public interface GrupoDuplicados {
+
+    Long getIdUsuario();
+
+    Long getHashConteudo();
+
+    Long getQuantidade();
+
+    Long getIdOriginal();
+}
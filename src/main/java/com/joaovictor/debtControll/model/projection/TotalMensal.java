@@ -0,0 +1,21 @@
+package com.joaovictor.debtControll.model.projection;
+
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface TotalMensal {
+
+    Long getIdUsuario();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    TipoLancamento getTipo();
+
+    StatusLancamento getStatus();
+
+    BigDecimal getTotal();
+}
@@ -0,0 +1,14 @@
+package com.joaovictor.debtControll.model.projection;
+
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface TotalPorTipo {
+
+    Long getIdUsuario();
+
+    TipoLancamento getTipo();
+
+    BigDecimal getTotal();
+}
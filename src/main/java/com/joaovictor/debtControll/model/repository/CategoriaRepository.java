@@ -0,0 +1,16 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.Categoria;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface CategoriaRepository extends JpaRepository<Categoria, Integer> {
+
+    /**
+     * Só categorias encontradas ficam no cache; um nome ainda sem categoria continua consultando o banco.
+     */
+    @Cacheable(cacheNames = "categorias", key = "#p0", unless = "#result == null")
+    Optional<Categoria> findByNome(String nome);
+}
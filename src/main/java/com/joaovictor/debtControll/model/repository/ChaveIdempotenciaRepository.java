@@ -0,0 +1,17 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.ChaveIdempotencia;
+import com.joaovictor.debtControll.model.entity.ChaveIdempotenciaId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface ChaveIdempotenciaRepository extends JpaRepository<ChaveIdempotencia, ChaveIdempotenciaId> {
+
+    @Modifying
+    @Query(value = "delete from ChaveIdempotencia c where c.dataExpiracao < :agora")
+    int removerExpiradas(@Param("agora") Instant agora);
+}
@@ -0,0 +1,7 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EventoLancamentoRepository extends JpaRepository<EventoLancamento, Long> {
+}
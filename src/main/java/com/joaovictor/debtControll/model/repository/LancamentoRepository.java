@@ -1,16 +1,140 @@
 package com.joaovictor.debtControll.model.repository;
 
 import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
 import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import com.joaovictor.debtControll.model.projection.GrupoDuplicados;
+import com.joaovictor.debtControll.model.projection.TotalMensal;
+import com.joaovictor.debtControll.model.projection.TotalPorCategoria;
+import com.joaovictor.debtControll.model.projection.TotalPorTipo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, JpaSpecificationExecutor<Lancamento>,
+        LancamentoRepositoryCustom {
 
-    @Query(value = "select sum(l.valor) from Lancamento l join l.usuario u " +
-            "where u.id = :idUsuario and l.tipo = :tipo")
-    BigDecimal obterSaldoPorTipoLancamentoEUsuario(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo);
+    @Query(value = "select l.usuario.id as idUsuario, l.tipo as tipo, sum(l.valor) as total from Lancamento l " +
+            "where l.usuario.id = :idUsuario group by l.usuario.id, l.tipo")
+    List<TotalPorTipo> obterTotaisPorTipo(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = "select l.usuario.id as idUsuario, l.tipo as tipo, sum(l.valor) as total from Lancamento l " +
+            "where l.usuario.id in :ids group by l.usuario.id, l.tipo")
+    List<TotalPorTipo> obterTotaisPorTipo(@Param("ids") Collection<Long> idsUsuarios);
+
+    /**
+     * Todas as colunas lidas estão no índice (usuario, ano, mes, categoria, tipo, status, valor), então a
+     * soma é feita sem ler as linhas dos lançamentos.
+     */
+    @Query(value = "select l.idCategoria as idCategoria, l.tipo as tipo, sum(l.valor) as total from Lancamento l " +
+            "where l.usuario.id = :idUsuario and l.ano = :ano and l.status <> :excluido group by l.idCategoria, l.tipo")
+    List<TotalPorCategoria> obterTotaisPorCategoria(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+                                                    @Param("excluido") StatusLancamento excluido);
+
+    @Query(value = "select l.idCategoria as idCategoria, l.tipo as tipo, sum(l.valor) as total from Lancamento l " +
+            "where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes and l.status <> :excluido " +
+            "group by l.idCategoria, l.tipo")
+    List<TotalPorCategoria> obterTotaisPorCategoria(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+                                                    @Param("mes") Integer mes, @Param("excluido") StatusLancamento excluido);
+
+    @Query(value = "select coalesce(sum(l.valor), 0) from Lancamento l where l.usuario.id = :idUsuario " +
+            "and l.ano = :ano and l.mes = :mes and l.tipo = :tipo and l.status = :status")
+    BigDecimal obterTotalMensal(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+                                @Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+
+    @Query(value = "select l.usuario.id as idUsuario, l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, " +
+            "sum(l.valor) as total from Lancamento l where l.usuario.id in :ids " +
+            "group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+    List<TotalMensal> obterTotaisMensais(@Param("ids") Collection<Long> idsUsuarios);
+
+    @Query(value = "select l.usuario.id as idUsuario, l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, " +
+            "sum(l.valor) as total from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano " +
+            "group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+    List<TotalMensal> obterTotaisMensais(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+    /**
+     * Lê o estado gravado sem forçar o flush da sessão, para que alterações ainda pendentes na
+     * entidade gerenciada não contaminem o valor anterior.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    @Query(value = "select l.id as id, l.usuario.id as idUsuario, l.ano as ano, l.mes as mes, l.valor as valor, " +
+            "l.tipo as tipo, l.status as status, l.versao as versao from Lancamento l where l.id = :id")
+    Optional<EstadoLancamento> obterEstadoPersistido(@Param("id") Long id);
+
+    /**
+     * Altera somente o status, e só se o lançamento ainda for do usuário e estiver na versão
+     * informada. O ano, já conhecido pelo estado lido, restringe a alteração à partição do ano quando
+     * a tabela é particionada.
+     *
+     * @return 1 se a alteração foi feita, 0 se a versão já mudou
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update Lancamento l set l.status = :status, l.versao = l.versao + 1 " +
+            "where l.id = :id and l.ano = :ano and l.usuario.id = :idUsuario and l.versao = :versao")
+    int atualizarStatus(@Param("id") Long id, @Param("ano") Integer ano, @Param("idUsuario") Long idUsuario,
+                        @Param("status") StatusLancamento status, @Param("versao") Long versao);
+
+    /**
+     * A exclusão por consulta não alcança a coleção de termos; eles precisam sair antes do lançamento.
+     */
+    @Modifying
+    @Query(value = "delete from debt.lancamento_termo where id_lancamento = :id", nativeQuery = true)
+    void excluirTermos(@Param("id") Long id);
+
+    /**
+     * Exclui o lançamento só se ele ainda estiver na versão informada, depois de {@link #excluirTermos}. O ano
+     * restringe a exclusão à partição do ano quando a tabela é particionada.
+     *
+     * @return 1 se o lançamento foi excluído, 0 se ele já foi excluído ou a versão mudou
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from Lancamento l where l.id = :id and l.ano = :ano and l.versao = :versao")
+    int excluir(@Param("id") Long id, @Param("ano") Integer ano, @Param("versao") Long versao);
+
+    /**
+     * Bloqueia, em ordem de id, os lançamentos do usuário que vão mudar de status e devolve o estado
+     * de cada um; até o fim da transação nenhuma outra escrita altera esses lançamentos. Ids de
+     * outros usuários ficam de fora.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select l.id as id, l.usuario.id as idUsuario, l.ano as ano, l.mes as mes, l.valor as valor, " +
+            "l.tipo as tipo, l.status as status, l.versao as versao from Lancamento l " +
+            "where l.id in :ids and l.usuario.id = :idUsuario and l.status <> :status order by l.id")
+    List<EstadoLancamento> bloquearParaAlterarStatus(@Param("ids") Collection<Long> ids, @Param("idUsuario") Long idUsuario,
+                                                     @Param("status") StatusLancamento status);
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update Lancamento l set l.status = :status, l.versao = l.versao + 1 " +
+            "where l.id in :ids and l.usuario.id = :idUsuario")
+    int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("idUsuario") Long idUsuario,
+                        @Param("status") StatusLancamento status);
+
+    /**
+     * Candidatos a duplicado de um lançamento, pelo idx_lancamento_hash_conteudo; o conteúdo ainda
+     * precisa ser comparado. O ano faz parte do conteúdo e limita a busca à partição do ano.
+     */
+    @Query(value = "select l from Lancamento l where l.usuario.id = :idUsuario and l.hashConteudo = :hash " +
+            "and l.ano = :ano and l.status <> :excluido order by l.id")
+    List<Lancamento> obterPorHashConteudo(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+                                          @Param("hash") Long hashConteudo, @Param("excluido") StatusLancamento excluido);
+
+    /**
+     * Grupos de lançamentos com o mesmo hash de conteúdo, numa única passada agrupada pelo índice.
+     */
+    @Query(value = "select l.usuario.id as idUsuario, l.hashConteudo as hashConteudo, count(l) as quantidade, " +
+            "min(l.id) as idOriginal from Lancamento l where l.hashConteudo is not null and l.status <> :excluido " +
+            "group by l.usuario.id, l.hashConteudo having count(l) > 1")
+    List<GrupoDuplicados> obterDuplicados(@Param("excluido") StatusLancamento excluido);
 }
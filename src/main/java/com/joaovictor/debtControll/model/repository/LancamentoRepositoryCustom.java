@@ -0,0 +1,53 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface LancamentoRepositoryCustom {
+
+    /**
+     * Persiste lançamentos novos em lotes JDBC, descarregando e limpando a sessão a cada lote.
+     */
+    void inserirEmLote(List<Lancamento> lancamentos);
+
+    List<Lancamento> buscarLimitado(Specification<Lancamento> specification, Sort sort, int limite);
+
+    /**
+     * Somente os ids, em ordem crescente, para percorrer grandes volumes em lotes.
+     */
+    List<Long> buscarIds(Specification<Lancamento> specification, int limite);
+
+    /**
+     * Entrega os lançamentos um a um a partir de um cursor JDBC, desanexando cada entidade da sessão
+     * depois de consumida. Precisa ser chamado dentro de uma transação.
+     */
+    void percorrer(Specification<Lancamento> specification, Sort sort, Consumer<Lancamento> consumidor);
+
+    /**
+     * Lê os lançamentos do usuário num cursor JDBC de avanço único e somente leitura, sem montar
+     * entidades, entregando cada linha ao handler. Precisa ser chamado dentro de uma transação; no
+     * PostgreSQL o fetch size só limita a memória com o autocommit desligado.
+     */
+    void percorrerLinhas(Long idUsuario, RowCallbackHandler linhas);
+
+    /**
+     * Calcula o hash de conteúdo de até {@code limite} lançamentos que ainda não o têm, gravados
+     * antes da coluna existir, sem passar pela entidade: a versão dos lançamentos não muda.
+     *
+     * @return quantos lançamentos foram preenchidos
+     */
+    int preencherHashConteudo(int limite);
+
+    /**
+     * Indexa os termos da descrição de até {@code limite} lançamentos gravados antes do índice de
+     * termos, sem passar pela entidade: a versão dos lançamentos não muda.
+     *
+     * @return quantos lançamentos foram lidos; zero quando não resta nenhum a indexar
+     */
+    int preencherTermos(int limite);
+}
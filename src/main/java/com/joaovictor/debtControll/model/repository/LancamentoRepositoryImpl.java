@@ -0,0 +1,155 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.HashConteudo;
+import com.joaovictor.debtControll.model.TermosDescricao;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+    private static final String SQL_LINHAS_USUARIO = "select id, descricao, mes, ano, valor, id_usuario, tipo, status, data_cadastro " +
+            "from debt.lancamento where id_usuario = ? order by ano, mes, id";
+
+    private static final String SQL_SEM_HASH = "select id, id_usuario, ano, mes, valor, tipo, descricao " +
+            "from debt.lancamento where hash_conteudo is null order by id fetch first ? rows only";
+
+    private static final String SQL_SEM_TERMOS = "select id, descricao " +
+            "from debt.lancamento where termos_indexados is null order by id fetch first ? rows only";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${debtcontroll.lancamentos.stream.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLote;
+
+    @Override
+    public void inserirEmLote(List<Lancamento> lancamentos) {
+        for (int i = 0; i < lancamentos.size(); i++) {
+            entityManager.persist(lancamentos.get(i));
+            if ((i + 1) % tamanhoLote == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public List<Lancamento> buscarLimitado(Specification<Lancamento> specification, Sort sort, int limite) {
+        return criarConsulta(specification, sort)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> buscarIds(Specification<Lancamento> specification, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        query.select(root.get("id"))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public void percorrer(Specification<Lancamento> specification, Sort sort, Consumer<Lancamento> consumidor) {
+        TypedQuery<Lancamento> consulta = criarConsulta(specification, sort)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true);
+
+        try (Stream<Lancamento> lancamentos = consulta.getResultStream()) {
+            lancamentos.forEach(lancamento -> {
+                consumidor.accept(lancamento);
+                entityManager.detach(lancamento);
+            });
+        }
+    }
+
+    @Override
+    public void percorrerLinhas(Long idUsuario, RowCallbackHandler linhas) {
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement consulta = conexao.prepareStatement(SQL_LINHAS_USUARIO, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            consulta.setFetchSize(fetchSize);
+            consulta.setLong(1, idUsuario);
+            return consulta;
+        }, linhas);
+    }
+
+    @Override
+    public int preencherHashConteudo(int limite) {
+        List<Object[]> hashes = jdbcTemplate.query(SQL_SEM_HASH, (linha, numero) -> new Object[]{
+                HashConteudo.calcular(linha.getLong("id_usuario"), linha.getInt("ano"), linha.getInt("mes"),
+                        linha.getBigDecimal("valor"), TipoLancamento.valueOf(linha.getString("tipo")), linha.getString("descricao")),
+                linha.getLong("id")
+        }, limite);
+        if (!hashes.isEmpty())
+            jdbcTemplate.batchUpdate("update debt.lancamento set hash_conteudo = ? where id = ?", hashes);
+        return hashes.size();
+    }
+
+    /**
+     * A marcação vem antes dos termos e só vale para quem ainda não estava indexado: um lançamento
+     * regravado entre a leitura e a marcação já teve os termos gravados pelo serviço e é pulado.
+     */
+    @Override
+    public int preencherTermos(int limite) {
+        List<Object[]> pendentes = jdbcTemplate.query(SQL_SEM_TERMOS, (linha, numero) -> new Object[]{
+                linha.getLong("id"), linha.getString("descricao")
+        }, limite);
+        if (pendentes.isEmpty())
+            return 0;
+
+        int[] marcados = jdbcTemplate.batchUpdate("update debt.lancamento set termos_indexados = true where id = ? and termos_indexados is null",
+                pendentes.stream().map(pendente -> new Object[]{pendente[0]}).collect(Collectors.toList()));
+        List<Object[]> termos = new ArrayList<>();
+        for (int i = 0; i < pendentes.size(); i++)
+            if (marcados[i] != 0)
+                for (String termo : TermosDescricao.indexar((String) pendentes.get(i)[1]))
+                    termos.add(new Object[]{pendentes.get(i)[0], termo});
+        if (!termos.isEmpty())
+            jdbcTemplate.batchUpdate("insert into debt.lancamento_termo (id_lancamento, termo) values (?, ?)", termos);
+        return pendentes.size();
+    }
+
+    private TypedQuery<Lancamento> criarConsulta(Specification<Lancamento> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+        query.select(root)
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+}
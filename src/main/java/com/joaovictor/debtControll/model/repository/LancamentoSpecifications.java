@@ -0,0 +1,94 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.dto.CursorLancamentoDTO;
+import com.joaovictor.debtControll.model.TermosDescricao;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class LancamentoSpecifications {
+
+    public static final Sort ORDEM_PERIODO = Sort.by("ano", "mes", "id");
+
+    // tira da descrição os mesmos acentos que TermosDescricao tira da consulta; translate existe no PostgreSQL e no H2
+    private static final String COM_ACENTO = "áàâãäéèêëíìîïóòôõöúùûüçñ";
+    private static final String SEM_ACENTO = "aaaaaeeeeiiiiooooouuuucn";
+
+    private LancamentoSpecifications() {
+    }
+
+    /**
+     * Igualdade nos campos preenchidos, servida pelo índice (usuario, ano, mes, tipo, status). Cada
+     * palavra da descrição informada precisa iniciar alguma palavra da descrição do lançamento e é
+     * resolvida pelo índice de termos; palavras curtas demais para o índice viram um filtro residual.
+     * Sem {@code indiceTermos}, enquanto os lançamentos antigos não foram indexados, todas as palavras
+     * usam o filtro residual.
+     */
+    public static Specification<Lancamento> filtro(Lancamento filtro, boolean indiceTermos) {
+        return (root, query, cb) -> {
+            List<Predicate> predicados = new ArrayList<>();
+            for (String palavra : TermosDescricao.consultar(filtro.getDescricao()))
+                predicados.add(indiceTermos && TermosDescricao.indexavel(palavra)
+                        ? descricaoTemTermo(palavra, root, query, cb) : descricaoContem(palavra, root, cb));
+            if (filtro.getMes() != null)
+                predicados.add(cb.equal(root.get("mes"), filtro.getMes()));
+            if (filtro.getAno() != null)
+                predicados.add(cb.equal(root.get("ano"), filtro.getAno()));
+            if (filtro.getUsuario() != null)
+                predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+            if (filtro.getTipo() != null)
+                predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+            if (filtro.getStatus() != null)
+                predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+            return cb.and(predicados.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Predicate descricaoTemTermo(String palavra, Root<Lancamento> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Subquery<String> termos = query.subquery(String.class);
+        Join<Lancamento, String> termo = termos.correlate(root).join("termos");
+        termos.select(termo).where(cb.equal(termo, palavra));
+        return cb.exists(termos);
+    }
+
+    /**
+     * A palavra já vem normalizada; a descrição é normalizada do mesmo jeito para comparar.
+     */
+    private static Predicate descricaoContem(String palavra, Root<Lancamento> root, CriteriaBuilder cb) {
+        Expression<String> descricao = cb.function("translate", String.class,
+                cb.lower(root.get("descricao")), cb.literal(COM_ACENTO), cb.literal(SEM_ACENTO));
+        return cb.like(descricao, "%" + palavra + "%");
+    }
+
+    public static Specification<Lancamento> idApos(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Lancamento> statusDiferente(StatusLancamento status) {
+        return (root, query, cb) -> cb.notEqual(root.get("status"), status);
+    }
+
+    /**
+     * Lançamentos posteriores ao cursor na ordem (ano, mês, id).
+     */
+    public static Specification<Lancamento> apos(CursorLancamentoDTO cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("ano"), cursor.getAno()),
+                cb.or(
+                        cb.greaterThan(root.get("ano"), cursor.getAno()),
+                        cb.and(cb.equal(root.get("ano"), cursor.getAno()), cb.greaterThan(root.get("mes"), cursor.getMes())),
+                        cb.and(cb.equal(root.get("ano"), cursor.getAno()), cb.equal(root.get("mes"), cursor.getMes()),
+                                cb.greaterThan(root.get("id"), cursor.getId()))));
+    }
+}
@@ -0,0 +1,53 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Savepoint;
+
+/**
+ * Insere a primeira linha das tabelas materializadas por usuário quando o update não encontrou a linha.
+ * Duas primeiras escritas concorrentes podem tentar inserir a mesma chave: a que perde recebe {@code false}
+ * e deve repetir o update. A inserção roda em um savepoint e fora do Hibernate, para que a violação de chave
+ * desfaça só a inserção e a transação de quem chama continue válida.
+ */
+@Repository
+public class PrimeiraEscritaRepository {
+
+    private JdbcTemplate jdbcTemplate;
+
+    public PrimeiraEscritaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean inserirSaldo(Long idUsuario, BigDecimal valor) {
+        return inserir("insert into debt.saldo_usuario (id_usuario, valor) values (?, ?)", idUsuario, valor);
+    }
+
+    public boolean inserirResumoMensal(ResumoMensalId chave, BigDecimal total) {
+        return inserir("insert into debt.resumo_mensal (id_usuario, ano, mes, tipo, status, total) values (?, ?, ?, ?, ?, ?)",
+                chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo().name(), chave.getStatus().name(), total);
+    }
+
+    public boolean inserirVersao(Long idUsuario) {
+        return inserir("insert into debt.versao_usuario (id_usuario, versao) values (?, 1)", idUsuario);
+    }
+
+    private boolean inserir(String sql, Object... parametros) {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao -> {
+            Savepoint savepoint = conexao.setSavepoint();
+            try {
+                jdbcTemplate.update(sql, parametros);
+            } catch (DuplicateKeyException e) {
+                conexao.rollback(savepoint);
+                return false;
+            }
+            conexao.releaseSavepoint(savepoint);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.List;
+
+public interface RecorrenciaRepository extends JpaRepository<Recorrencia, Long> {
+
+    @Query(value = "select r from Recorrencia r where r.usuario.id = :idUsuario order by r.id")
+    List<Recorrencia> obterPorUsuario(@Param("idUsuario") Long idUsuario);
+
+    /**
+     * Bloqueia, em ordem de id, as recorrências da partição com ocorrência até ano/mes ainda não
+     * gerada. Linhas já bloqueadas por outro gerador são puladas (SKIP LOCKED onde o banco suporta).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query(value = "select r from Recorrencia r where mod(r.usuario.id, :particoes) = :particao and r.id > :ultimoId " +
+            "and (r.anoProximo < :ano or (r.anoProximo = :ano and r.mesProximo <= :mes)) " +
+            "and (r.anoFim is null or r.anoProximo < r.anoFim or (r.anoProximo = r.anoFim and r.mesProximo <= r.mesFim)) " +
+            "order by r.id")
+    List<Recorrencia> bloquearPendentes(@Param("particoes") int particoes, @Param("particao") int particao,
+                                        @Param("ultimoId") Long ultimoId, @Param("ano") Integer ano,
+                                        @Param("mes") Integer mes, Pageable pagina);
+}
@@ -0,0 +1,42 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.ResumoMensal;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId> {
+
+    @Modifying
+    @Query(value = "update ResumoMensal r set r.total = r.total + :delta where r.id.idUsuario = :idUsuario " +
+            "and r.id.ano = :ano and r.id.mes = :mes and r.id.tipo = :tipo and r.id.status = :status")
+    int adicionar(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+                  @Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+                  @Param("delta") BigDecimal delta);
+
+    @Query(value = "select r from ResumoMensal r where r.id.idUsuario = :idUsuario and r.id.ano = :ano")
+    List<ResumoMensal> obterPorUsuarioEAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+    /**
+     * Todas as linhas do usuário até ano/mes, exceto as do status informado; percorre a chave primária
+     * a partir do usuário, sem tocar nos lançamentos.
+     */
+    @Query(value = "select r from ResumoMensal r where r.id.idUsuario = :idUsuario and r.id.status <> :excluido " +
+            "and (r.id.ano < :ano or (r.id.ano = :ano and r.id.mes <= :mes))")
+    List<ResumoMensal> obterAte(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+                                @Param("excluido") StatusLancamento excluido);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select r from ResumoMensal r where r.id.idUsuario in :ids")
+    List<ResumoMensal> bloquearPorUsuarios(@Param("ids") Collection<Long> idsUsuarios);
+}
@@ -0,0 +1,24 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    @Modifying
+    @Query(value = "update SaldoUsuario s set s.valor = s.valor + :delta where s.idUsuario = :idUsuario")
+    int adicionar(@Param("idUsuario") Long idUsuario, @Param("delta") BigDecimal delta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select s from SaldoUsuario s where s.idUsuario in :ids")
+    List<SaldoUsuario> bloquearPorUsuarios(@Param("ids") Collection<Long> ids);
+}
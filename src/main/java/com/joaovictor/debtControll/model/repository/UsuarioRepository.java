@@ -1,13 +1,43 @@
 package com.joaovictor.debtControll.model.repository;
 
 import com.joaovictor.debtControll.model.entity.Usuario;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
     boolean existsByEmail(String email);
 
+    /**
+     * Emails inexistentes também ficam no cache (como Optional vazio), poupando o banco de tentativas
+     * de login repetidas; o cadastro do usuário invalida a entrada do email.
+     */
+    @Cacheable(cacheNames = "usuariosPorEmail", key = "#p0")
     Optional<Usuario> findByEmail(String email);
+
+    @Modifying
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "usuarios", key = "#p0"),
+            @CacheEvict(cacheNames = "usuariosPorEmail", key = "#p1")
+    })
+    @Query(value = "update Usuario u set u.senha = :senha where u.id = :id and u.email = :email")
+    int atualizarSenha(@Param("id") Long id, @Param("email") String email, @Param("senha") String senha);
+
+    @Query(value = "select u.id from Usuario u where u.id in :ids")
+    List<Long> obterIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select u.id from Usuario u where u.id > :ultimoId order by u.id")
+    List<Long> obterIdsApos(@Param("ultimoId") Long ultimoId, Pageable pageable);
 }
@@ -0,0 +1,19 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.VersaoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface VersaoUsuarioRepository extends JpaRepository<VersaoUsuario, Long> {
+
+    @Modifying
+    @Query(value = "update VersaoUsuario v set v.versao = v.versao + 1 where v.idUsuario = :idUsuario")
+    int incrementar(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = "select v.versao from VersaoUsuario v where v.idUsuario = :idUsuario")
+    Optional<Long> obterVersao(@Param("idUsuario") Long idUsuario);
+}
@@ -0,0 +1,20 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.ResultadoAtualizacaoStatusDTO;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+
+import java.util.Collection;
+
+public interface AtualizacaoStatusLancamentoService {
+
+    /**
+     * Altera os lançamentos informados que forem do usuário; os demais contam como ignorados.
+     */
+    ResultadoAtualizacaoStatusDTO atualizar(Collection<Long> ids, StatusLancamento status, Long idUsuario);
+
+    /**
+     * Altera todos os lançamentos do usuário que atendem ao filtro (ano e mês são opcionais).
+     */
+    ResultadoAtualizacaoStatusDTO atualizar(Lancamento filtro, StatusLancamento status);
+}
@@ -0,0 +1,18 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.TotalCategoriaDTO;
+import com.joaovictor.debtControll.model.entity.Categoria;
+
+import java.util.List;
+
+public interface CategoriaService {
+
+    /**
+     * @return o id da categoria com o nome informado, criada se ainda não existir, ou nulo para nome em branco
+     */
+    Integer obterId(String nome);
+
+    List<Categoria> listar();
+
+    List<TotalCategoriaDTO> obterTotais(Long idUsuario, Integer ano, Integer mes);
+}
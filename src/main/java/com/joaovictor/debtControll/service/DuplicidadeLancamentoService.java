@@ -0,0 +1,12 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.DuplicidadeLancamentoDTO;
+
+import java.util.List;
+
+public interface DuplicidadeLancamentoService {
+
+    List<DuplicidadeLancamentoDTO> localizarDuplicados();
+
+    int removerChavesExpiradas();
+}
@@ -0,0 +1,12 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
+
+import java.util.List;
+
+public interface EventoLancamentoService {
+
+    void registrar(EventoLancamento evento);
+
+    void registrar(List<EventoLancamento> eventos);
+}
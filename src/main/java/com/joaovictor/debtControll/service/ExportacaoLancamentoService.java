@@ -0,0 +1,16 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
+
+import java.io.OutputStream;
+
+public interface ExportacaoLancamentoService {
+
+    /**
+     * Escreve todos os lançamentos do usuário na saída, linha a linha, com memória constante
+     * independentemente do volume. A saída não é fechada.
+     *
+     * @return quantidade de lançamentos exportados
+     */
+    long exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida);
+}
@@ -0,0 +1,16 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.ResultadoImportacaoDTO;
+
+import java.io.InputStream;
+
+public interface ImportacaoLancamentoService {
+
+    /**
+     * Com usuário autenticado, os lançamentos sem usuário são dele e os de outro usuário são
+     * rejeitados; sem ele vale o usuário de cada lançamento.
+     */
+    ResultadoImportacaoDTO importarJson(InputStream entrada, Long idAutenticado);
+
+    ResultadoImportacaoDTO importarCsv(InputStream entrada, Long idAutenticado);
+}
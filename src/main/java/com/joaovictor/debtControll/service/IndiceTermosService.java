@@ -0,0 +1,12 @@
+package com.joaovictor.debtControll.service;
+
+public interface IndiceTermosService {
+
+    /**
+     * Se a busca por descrição já pode ser resolvida pelo índice de termos: só depois que os
+     * lançamentos gravados antes dele foram indexados.
+     */
+    boolean disponivel();
+
+    int preencherPendentes();
+}
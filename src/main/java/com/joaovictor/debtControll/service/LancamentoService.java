@@ -1,27 +1,65 @@
 package com.joaovictor.debtControll.service;
 
+import com.joaovictor.debtControll.dto.CursorLancamentoDTO;
+import com.joaovictor.debtControll.dto.PaginaLancamentoDTO;
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
 import com.joaovictor.debtControll.model.entity.Lancamento;
 import com.joaovictor.debtControll.model.enums.StatusLancamento;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LancamentoService {
 
     Lancamento salvar(Lancamento lancamento);
 
+    /**
+     * Como {@link #salvar(Lancamento)}; com a chave de idempotência de uma criação anterior e ainda
+     * válida, devolve o lançamento criado por ela em vez de gravar outro.
+     *
+     * @throws com.joaovictor.debtControll.exceptions.RequisicaoConcorrenteException quando outra
+     *         requisição com a mesma chave gravou ao mesmo tempo
+     */
+    Lancamento salvar(Lancamento lancamento, String chaveIdempotencia);
+
+    /**
+     * Grava lançamentos já validados, com os usuários já resolvidos, em lotes JDBC.
+     */
+    void salvarEmLote(List<Lancamento> lancamentos);
+
     Lancamento atualizar(Lancamento lancamento);
 
     void deletar(Lancamento lancamento);
 
     List<Lancamento> buscar(Lancamento lancamentoFiltro);
 
+    PaginaLancamentoDTO buscarPagina(Lancamento lancamentoFiltro, CursorLancamentoDTO cursor, Integer tamanho);
+
+    void percorrer(Lancamento lancamentoFiltro, Consumer<Lancamento> consumidor);
+
     Lancamento atulizarStatus(Lancamento lancamento, StatusLancamento status);
 
+    /**
+     * Como {@link #atulizarStatus(Lancamento, StatusLancamento)}, só para um lançamento do usuário
+     * informado; sem usuário vale o dono do lançamento.
+     *
+     * @throws com.joaovictor.debtControll.exceptions.AcessoNegadoException quando o lançamento é de
+     *         outro usuário
+     */
+    Lancamento atulizarStatus(Lancamento lancamento, StatusLancamento status, Long idUsuario);
+
     void validar(Lancamento lancamento);
 
     Optional<Lancamento> obterPorId(Long id);
 
     BigDecimal obterSaldoPorUsuario(Long id);
+
+    /**
+     * Versão dos lançamentos e do saldo do usuário; muda a cada escrita feita por este serviço.
+     */
+    long obterVersaoPorUsuario(Long id);
+
+    List<ResumoMensalDTO> obterResumoMensal(Long idUsuario, Integer ano);
 }
@@ -0,0 +1,11 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.PrevisaoSaldoDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface PrevisaoSaldoService {
+
+    List<PrevisaoSaldoDTO> obterPrevisao(Long idUsuario, YearMonth inicio, YearMonth fim);
+}
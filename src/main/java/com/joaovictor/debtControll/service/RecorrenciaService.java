@@ -0,0 +1,22 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+public interface RecorrenciaService {
+
+    Recorrencia salvar(Recorrencia recorrencia);
+
+    void deletar(Recorrencia recorrencia);
+
+    Optional<Recorrencia> obterPorId(Long id);
+
+    List<Recorrencia> buscarPorUsuario(Long idUsuario);
+
+    int gerarLancamentos();
+
+    int gerarLancamentos(YearMonth ate);
+}
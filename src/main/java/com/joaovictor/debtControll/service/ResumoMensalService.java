@@ -0,0 +1,17 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumoMensalService {
+
+    List<ResumoMensalDTO> obterResumo(Long idUsuario, Integer ano);
+
+    void aplicar(ResumoMensalId chave, BigDecimal delta);
+
+    int reconciliar(Collection<Long> idsUsuarios);
+}
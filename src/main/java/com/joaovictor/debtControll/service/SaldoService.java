@@ -0,0 +1,15 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.DivergenciaSaldoDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SaldoService {
+
+    BigDecimal obterSaldo(Long idUsuario);
+
+    void aplicar(Long idUsuario, BigDecimal delta);
+
+    List<DivergenciaSaldoDTO> reconciliar();
+}
@@ -0,0 +1,16 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.UsuarioAutenticadoDTO;
+import com.joaovictor.debtControll.model.entity.Usuario;
+
+import java.util.Optional;
+
+public interface TokenService {
+
+    UsuarioAutenticadoDTO emitirToken(Usuario usuario);
+
+    /**
+     * Id do usuário do token, ou vazio se a assinatura não confere ou o token expirou. Não consulta o banco.
+     */
+    Optional<Long> obterIdUsuario(String token);
+}
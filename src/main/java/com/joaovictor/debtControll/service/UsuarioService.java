@@ -3,14 +3,23 @@ package com.joaovictor.debtControll.service;
 import com.joaovictor.debtControll.model.entity.Usuario;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UsuarioService {
 
     Usuario autenticar(String email, String senha);
 
+    /**
+     * Autentica no executor dedicado à verificação de senhas. Lança TaskRejectedException quando a
+     * fila de autenticações está cheia; as falhas de autenticação completam o futuro com ErroAutenticacao.
+     */
+    CompletableFuture<Usuario> autenticarAsync(String email, String senha);
+
     Usuario salvarUsuario(Usuario usuario);
 
     void validarEmail(String email);
 
     Optional<Usuario> obterPorId(Long id);
+
+    Usuario obterReferencia(Long id);
 }
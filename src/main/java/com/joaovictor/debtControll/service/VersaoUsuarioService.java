@@ -0,0 +1,12 @@
+package com.joaovictor.debtControll.service;
+
+import java.util.Collection;
+
+public interface VersaoUsuarioService {
+
+    long obterVersao(Long idUsuario);
+
+    void incrementar(Long idUsuario);
+
+    void incrementar(Collection<Long> idsUsuarios);
+}
@@ -0,0 +1,131 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.ResultadoAtualizacaoStatusDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.Centavos;
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoEventoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.LancamentoSpecifications;
+import com.joaovictor.debtControll.service.AtualizacaoStatusLancamentoService;
+import com.joaovictor.debtControll.service.EventoLancamentoService;
+import com.joaovictor.debtControll.service.IndiceTermosService;
+import com.joaovictor.debtControll.service.ResumoMensalService;
+import com.joaovictor.debtControll.service.VersaoUsuarioService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Troca de status em massa: cada lote de até {@code tamanhoLote} lançamentos é uma transação com
+ * um select bloqueante e um único update. O saldo não depende do status; o resumo mensal recebe
+ * um delta por chave afetada.
+ */
+@Service
+public class AtualizacaoStatusLancamentoServiceImpl implements AtualizacaoStatusLancamentoService {
+
+    private LancamentoRepository repository;
+    private ResumoMensalService resumoMensalService;
+    private VersaoUsuarioService versaoUsuarioService;
+    private EventoLancamentoService eventoService;
+    private IndiceTermosService indiceTermosService;
+    private TransactionTemplate transactionTemplate;
+    private int tamanhoLote;
+
+    public AtualizacaoStatusLancamentoServiceImpl(LancamentoRepository repository,
+                                                  ResumoMensalService resumoMensalService,
+                                                  VersaoUsuarioService versaoUsuarioService,
+                                                  EventoLancamentoService eventoService,
+                                                  IndiceTermosService indiceTermosService,
+                                                  PlatformTransactionManager transactionManager,
+                                                  @Value("${debtcontroll.lancamentos.status.tamanho-lote:500}") int tamanhoLote) {
+        this.repository = repository;
+        this.resumoMensalService = resumoMensalService;
+        this.versaoUsuarioService = versaoUsuarioService;
+        this.eventoService = eventoService;
+        this.indiceTermosService = indiceTermosService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    public ResultadoAtualizacaoStatusDTO atualizar(Collection<Long> ids, StatusLancamento status, Long idUsuario) {
+        Objects.requireNonNull(status);
+        if (ids == null || ids.isEmpty())
+            throw new RegraNegocioException("Informe os lançamentos.");
+        if (idUsuario == null)
+            throw new RegraNegocioException("Informe um Usuário.");
+
+        List<Long> distintos = ids.stream().filter(Objects::nonNull).distinct().sorted().collect(Collectors.toList());
+        ResultadoAtualizacaoStatusDTO resultado = new ResultadoAtualizacaoStatusDTO();
+        for (int inicio = 0; inicio < distintos.size(); inicio += tamanhoLote) {
+            List<Long> lote = distintos.subList(inicio, Math.min(inicio + tamanhoLote, distintos.size()));
+            int atualizados = transactionTemplate.execute(transacao -> atualizarLote(lote, status, idUsuario));
+            resultado.registrar(atualizados, lote.size() - atualizados);
+        }
+        return resultado;
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    public ResultadoAtualizacaoStatusDTO atualizar(Lancamento filtro, StatusLancamento status) {
+        Objects.requireNonNull(status);
+        if (filtro.getUsuario() == null || filtro.getUsuario().getId() == null)
+            throw new RegraNegocioException("Informe um Usuário.");
+
+        Specification<Lancamento> aAlterar = LancamentoSpecifications.filtro(filtro, indiceTermosService.disponivel())
+                .and(LancamentoSpecifications.statusDiferente(status));
+        ResultadoAtualizacaoStatusDTO resultado = new ResultadoAtualizacaoStatusDTO();
+        Long ultimoId = 0L;
+        List<Long> lote;
+        while (!(lote = repository.buscarIds(aAlterar.and(LancamentoSpecifications.idApos(ultimoId)), tamanhoLote)).isEmpty()) {
+            List<Long> ids = lote;
+            int atualizados = transactionTemplate.execute(transacao -> atualizarLote(ids, status, filtro.getUsuario().getId()));
+            resultado.registrar(atualizados, ids.size() - atualizados);
+            ultimoId = lote.get(lote.size() - 1);
+        }
+        return resultado;
+    }
+
+    private int atualizarLote(List<Long> ids, StatusLancamento status, Long idUsuario) {
+        List<EstadoLancamento> estados = repository.bloquearParaAlterarStatus(ids, idUsuario, status);
+        if (estados.isEmpty())
+            return 0;
+
+        Map<ResumoMensalId, Long> deltas = new HashMap<>();
+        List<Long> bloqueados = new ArrayList<>(estados.size());
+        List<EventoLancamento> eventos = new ArrayList<>(estados.size());
+        Set<Long> usuarios = new HashSet<>();
+        for (EstadoLancamento estado : estados) {
+            ResumoMensalId chaveNova = ResumoMensalId.de(estado);
+            chaveNova.setStatus(status);
+            long centavos = Centavos.de(estado.getValor());
+            deltas.merge(ResumoMensalId.de(estado), -centavos, Math::addExact);
+            deltas.merge(chaveNova, centavos, Math::addExact);
+            bloqueados.add(estado.getId());
+            usuarios.add(estado.getIdUsuario());
+
+            EventoLancamento evento = EventoLancamento.de(TipoEventoLancamento.STATUS_ALTERADO, estado);
+            evento.setStatus(status);
+            evento.setVersao(estado.getVersao() + 1);
+            eventos.add(evento);
+        }
+
+        int atualizados = repository.atualizarStatus(bloqueados, idUsuario, status);
+        deltas.forEach((chave, delta) -> resumoMensalService.aplicar(chave, Centavos.paraValor(delta)));
+        versaoUsuarioService.incrementar(usuarios);
+        eventoService.registrar(eventos);
+        return atualizados;
+    }
+}
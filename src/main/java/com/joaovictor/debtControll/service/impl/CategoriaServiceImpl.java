@@ -0,0 +1,109 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.TotalCategoriaDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.Rotulos;
+import com.joaovictor.debtControll.model.entity.Categoria;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.TotalPorCategoria;
+import com.joaovictor.debtControll.model.repository.CategoriaRepository;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.CategoriaService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Service
+public class CategoriaServiceImpl implements CategoriaService {
+
+    private static final Comparator<TotalCategoriaDTO> MAIORES_DESPESAS = Comparator
+            .comparing(TotalCategoriaDTO::getDespesas).reversed()
+            .thenComparing(Comparator.comparing(TotalCategoriaDTO::getReceitas).reversed());
+
+    private CategoriaRepository repository;
+    private LancamentoRepository lancamentoRepository;
+    private TransactionTemplate transactionTemplate;
+
+    public CategoriaServiceImpl(CategoriaRepository repository, LancamentoRepository lancamentoRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+        // a criação tem transação própria: numa criação simultânea do mesmo nome, a violação da chave
+        // única não invalida a transação de quem chamou
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * O nome é normalizado antes da busca; categorias existentes vêm do cache.
+     */
+    @Override
+    public Integer obterId(String nome) {
+        String normalizado = Rotulos.normalizar(nome);
+        if (normalizado == null)
+            return null;
+        if (normalizado.length() > Categoria.TAMANHO_MAXIMO_NOME)
+            throw new RegraNegocioException("Informe uma Categoria com até " + Categoria.TAMANHO_MAXIMO_NOME + " caracteres.");
+
+        Optional<Categoria> existente = repository.findByNome(normalizado);
+        if (existente.isPresent())
+            return existente.get().getId();
+        try {
+            return transactionTemplate.execute(status -> repository.saveAndFlush(Categoria.builder().nome(normalizado).build()).getId());
+        } catch (DataIntegrityViolationException e) {
+            return repository.findByNome(normalizado).map(Categoria::getId).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public List<Categoria> listar() {
+        return repository.findAll(Sort.by("nome"));
+    }
+
+    /**
+     * Receitas e despesas por categoria no ano, ou só no mês, se informado, das maiores despesas para
+     * as menores. Lançamentos cancelados ficam de fora.
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional(readOnly = true)
+    public List<TotalCategoriaDTO> obterTotais(Long idUsuario, Integer ano, Integer mes) {
+        if (ano == null || ano.toString().length() != 4)
+            throw new RegraNegocioException("Informe um Ano válido.");
+        if (mes != null && (mes < 1 || mes > 12))
+            throw new RegraNegocioException("Informe um Mês válido.");
+
+        List<TotalPorCategoria> totais = mes == null
+                ? lancamentoRepository.obterTotaisPorCategoria(idUsuario, ano, StatusLancamento.CANCELADO)
+                : lancamentoRepository.obterTotaisPorCategoria(idUsuario, ano, mes, StatusLancamento.CANCELADO);
+
+        Map<Integer, TotalCategoriaDTO> porCategoria = new HashMap<>();
+        for (TotalPorCategoria total : totais) {
+            TotalCategoriaDTO dto = porCategoria.computeIfAbsent(total.getIdCategoria(),
+                    id -> new TotalCategoriaDTO(id, null, BigDecimal.ZERO, BigDecimal.ZERO));
+            if (total.getTipo() == TipoLancamento.RECEITA)
+                dto.setReceitas(dto.getReceitas().add(total.getTotal()));
+            else
+                dto.setDespesas(dto.getDespesas().add(total.getTotal()));
+        }
+
+        Set<Integer> ids = new HashSet<>(porCategoria.keySet());
+        ids.remove(null);
+        if (!ids.isEmpty())
+            for (Categoria categoria : repository.findAllById(ids))
+                porCategoria.get(categoria.getId()).setCategoria(categoria.getNome());
+
+        List<TotalCategoriaDTO> resultado = new ArrayList<>(porCategoria.values());
+        resultado.sort(MAIORES_DESPESAS);
+        return resultado;
+    }
+}
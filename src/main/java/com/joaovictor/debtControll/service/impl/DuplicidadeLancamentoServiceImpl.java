@@ -0,0 +1,75 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.DuplicidadeLancamentoDTO;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.repository.ChaveIdempotenciaRepository;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.DuplicidadeLancamentoService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class DuplicidadeLancamentoServiceImpl implements DuplicidadeLancamentoService {
+
+    private LancamentoRepository lancamentoRepository;
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private TransactionTemplate transactionTemplate;
+    private int tamanhoLotePreenchimento;
+
+    public DuplicidadeLancamentoServiceImpl(LancamentoRepository lancamentoRepository,
+                                            ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${debtcontroll.lancamentos.duplicados.tamanho-lote:1000}") int tamanhoLotePreenchimento) {
+        this.lancamentoRepository = lancamentoRepository;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLotePreenchimento = tamanhoLotePreenchimento;
+    }
+
+    /**
+     * Preenche, em lotes com transação própria, o hash dos lançamentos gravados antes dele existir e
+     * agrupa todos os lançamentos não cancelados por usuário e hash numa única consulta. Só relata:
+     * quais duplicados remover é decisão do usuário.
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Scheduled(cron = "${debtcontroll.lancamentos.duplicados.cron:0 30 3 * * *}")
+    public List<DuplicidadeLancamentoDTO> localizarDuplicados() {
+        int preenchidos = 0;
+        int lote;
+        while ((lote = transactionTemplate.execute(status -> lancamentoRepository.preencherHashConteudo(tamanhoLotePreenchimento))) > 0)
+            preenchidos += lote;
+        if (preenchidos > 0)
+            log.info("Hash de conteúdo preenchido em {} lançamento(s) antigo(s).", preenchidos);
+
+        List<DuplicidadeLancamentoDTO> duplicados = transactionTemplate.execute(status ->
+                lancamentoRepository.obterDuplicados(StatusLancamento.CANCELADO).stream()
+                        .map(grupo -> new DuplicidadeLancamentoDTO(grupo.getIdUsuario(), grupo.getIdOriginal(), grupo.getQuantidade()))
+                        .collect(Collectors.toList()));
+
+        if (duplicados.isEmpty())
+            log.info("Verificação de lançamentos duplicados concluída sem duplicados.");
+        else
+            log.warn("Verificação de lançamentos duplicados encontrou {} grupo(s) com o mesmo conteúdo.", duplicados.size());
+        return duplicados;
+    }
+
+    @Override
+    @Scheduled(cron = "${debtcontroll.idempotencia.limpeza.cron:0 0 * * * *}")
+    public int removerChavesExpiradas() {
+        int removidas = transactionTemplate.execute(status -> chaveIdempotenciaRepository.removerExpiradas(Instant.now()));
+        if (removidas > 0)
+            log.info("{} chave(s) de idempotência expirada(s) removida(s).", removidas);
+        return removidas;
+    }
+}
@@ -0,0 +1,181 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Escreve cada linha do cursor de exportação direto no Writer, sem montar entidades. As colunas
+ * seguem a consulta de {@code LancamentoRepositoryCustom.percorrerLinhas}.
+ */
+abstract class EscritorLancamentos implements RowCallbackHandler {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    protected final Writer saida;
+    private long linhas;
+
+    private EscritorLancamentos(Writer saida) {
+        this.saida = saida;
+    }
+
+    static EscritorLancamentos para(FormatoExportacao formato, Writer saida) {
+        return formato == FormatoExportacao.CSV ? new Csv(saida) : new Ndjson(saida);
+    }
+
+    long getLinhas() {
+        return linhas;
+    }
+
+    @Override
+    public void processRow(ResultSet linha) throws SQLException {
+        try {
+            escrever(linha.getLong(1), linha.getString(2), inteiro(linha, 3), inteiro(linha, 4), linha.getBigDecimal(5),
+                    linha.getLong(6), linha.getString(7), linha.getString(8), linha.getDate(9));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        linhas++;
+    }
+
+    /**
+     * Descarrega o que estiver em buffer, sem fechar a saída.
+     */
+    abstract void concluir() throws IOException;
+
+    protected abstract void escrever(long id, String descricao, Integer mes, Integer ano, BigDecimal valor, long usuario,
+                                     String tipo, String status, Date dataCadastro) throws IOException;
+
+    private static Integer inteiro(ResultSet linha, int coluna) throws SQLException {
+        int valor = linha.getInt(coluna);
+        return linha.wasNull() ? null : valor;
+    }
+
+    /**
+     * Cabeçalho com as colunas da importação (mais id, status e data_cadastro), de modo que o arquivo
+     * exportado possa ser importado de volta.
+     */
+    private static class Csv extends EscritorLancamentos {
+
+        private static final String CABECALHO = "id,descricao,mes,ano,valor,usuario,tipo,status,data_cadastro\n";
+
+        private boolean iniciado;
+
+        Csv(Writer saida) {
+            super(saida);
+        }
+
+        @Override
+        protected void escrever(long id, String descricao, Integer mes, Integer ano, BigDecimal valor, long usuario,
+                                String tipo, String status, Date dataCadastro) throws IOException {
+            iniciar();
+            saida.write(Long.toString(id));
+            saida.write(',');
+            escreverTexto(descricao);
+            saida.write(',');
+            if (mes != null)
+                saida.write(mes.toString());
+            saida.write(',');
+            if (ano != null)
+                saida.write(ano.toString());
+            saida.write(',');
+            if (valor != null)
+                saida.write(valor.toPlainString());
+            saida.write(',');
+            saida.write(Long.toString(usuario));
+            saida.write(',');
+            if (tipo != null)
+                saida.write(tipo);
+            saida.write(',');
+            if (status != null)
+                saida.write(status);
+            saida.write(',');
+            if (dataCadastro != null)
+                saida.write(dataCadastro.toLocalDate().toString());
+            saida.write('\n');
+        }
+
+        @Override
+        void concluir() throws IOException {
+            iniciar();
+            saida.flush();
+        }
+
+        private void iniciar() throws IOException {
+            if (!iniciado) {
+                saida.write(CABECALHO);
+                iniciado = true;
+            }
+        }
+
+        private void escreverTexto(String texto) throws IOException {
+            if (texto == null)
+                return;
+            if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+                saida.write(texto);
+                return;
+            }
+            saida.write('"');
+            saida.write(texto.replace("\"", "\"\""));
+            saida.write('"');
+        }
+    }
+
+    /**
+     * Um objeto JSON por linha, com os mesmos nomes de campo da resposta de /api/lancamentos.
+     */
+    private static class Ndjson extends EscritorLancamentos {
+
+        private final JsonGenerator gerador;
+
+        Ndjson(Writer saida) {
+            super(saida);
+            try {
+                this.gerador = JSON.createGenerator(saida).setRootValueSeparator(new SerializedString("\n"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        protected void escrever(long id, String descricao, Integer mes, Integer ano, BigDecimal valor, long usuario,
+                                String tipo, String status, Date dataCadastro) throws IOException {
+            gerador.writeStartObject();
+            gerador.writeNumberField("id", id);
+            gerador.writeStringField("descricao", descricao);
+            escreverInteiro("mes", mes);
+            escreverInteiro("ano", ano);
+            gerador.writeNumberField("valor", valor);
+            gerador.writeStringField("dataCadastro", dataCadastro == null ? null : dataCadastro.toLocalDate().toString());
+            gerador.writeStringField("tipo", tipo);
+            gerador.writeStringField("status", status);
+            gerador.writeNumberField("usuario", usuario);
+            gerador.writeEndObject();
+        }
+
+        @Override
+        void concluir() throws IOException {
+            if (getLinhas() > 0)
+                gerador.writeRaw('\n');
+            gerador.flush();
+        }
+
+        private void escreverInteiro(String campo, Integer valor) throws IOException {
+            if (valor == null)
+                gerador.writeNullField(campo);
+            else
+                gerador.writeNumberField(campo, valor);
+        }
+    }
+}
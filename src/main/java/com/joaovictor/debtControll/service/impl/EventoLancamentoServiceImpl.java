@@ -0,0 +1,204 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
+import com.joaovictor.debtControll.model.enums.ModoDurabilidadeEventos;
+import com.joaovictor.debtControll.model.repository.EventoLancamentoRepository;
+import com.joaovictor.debtControll.service.EventoLancamentoService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diário de alterações de lançamentos. No modo GRUPO os eventos de transações confirmadas entram num
+ * buffer circular de capacidade fixa e uma única thread os grava em lote, tudo o que estiver no buffer
+ * numa transação só; com o buffer cheio, quem publica grava os próprios eventos, em vez de descartá-los.
+ */
+@Slf4j
+@Service
+public class EventoLancamentoServiceImpl implements EventoLancamentoService, MeterBinder {
+
+    private EventoLancamentoRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private ModoDurabilidadeEventos modo;
+    private BlockingQueue<EventoLancamento> buffer;
+    private int tamanhoLote;
+    private long intervaloMs;
+    private int tentativas;
+    private ExecutorService escritor;
+    private volatile boolean ativo;
+    private final AtomicLong transbordados = new AtomicLong();
+    private final AtomicLong perdidos = new AtomicLong();
+
+    public EventoLancamentoServiceImpl(EventoLancamentoRepository repository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${debtcontroll.eventos.modo:GRUPO}") ModoDurabilidadeEventos modo,
+                                       @Value("${debtcontroll.eventos.capacidade:8192}") int capacidade,
+                                       @Value("${debtcontroll.eventos.tamanho-lote:500}") int tamanhoLote,
+                                       @Value("${debtcontroll.eventos.intervalo-ms:200}") long intervaloMs,
+                                       @Value("${debtcontroll.eventos.tentativas:3}") int tentativas) {
+        this.repository = repository;
+        // no afterCommit a transação original ainda está associada à thread; a gravação precisa ser outra
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.modo = modo;
+        this.buffer = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+        this.tentativas = tentativas;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (modo != ModoDurabilidadeEventos.GRUPO)
+            return;
+        ativo = true;
+        escritor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("eventos-lancamento-"));
+        escritor.execute(this::escreverContinuamente);
+    }
+
+    /**
+     * Daqui em diante quem publica grava os próprios eventos; a thread esvazia o buffer antes de o
+     * banco ser fechado.
+     */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        if (escritor == null)
+            return;
+        ativo = false;
+        escritor.shutdown();
+        if (!escritor.awaitTermination(30, TimeUnit.SECONDS))
+            log.error("Diário de lançamentos encerrado com {} evento(s) não gravado(s).", buffer.size());
+    }
+
+    @Override
+    @Transactional
+    public void registrar(EventoLancamento evento) {
+        registrar(Collections.singletonList(evento));
+    }
+
+    /**
+     * Deve ser chamado na transação da escrita. No modo GRUPO os eventos só são publicados depois do
+     * commit, então uma escrita desfeita não deixa rastro no diário.
+     */
+    @Override
+    @Transactional
+    public void registrar(List<EventoLancamento> eventos) {
+        if (eventos.isEmpty())
+            return;
+        if (modo == ModoDurabilidadeEventos.SINCRONO) {
+            repository.saveAll(eventos);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar(eventos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar(eventos);
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("debtcontroll.eventos.buffer", buffer, BlockingQueue::size)
+                .description("Eventos de lançamento aguardando gravação")
+                .register(registry);
+        FunctionCounter.builder("debtcontroll.eventos.transbordo", transbordados, AtomicLong::get)
+                .description("Eventos gravados por quem publicou porque o buffer estava cheio")
+                .register(registry);
+        FunctionCounter.builder("debtcontroll.eventos.perdidos", perdidos, AtomicLong::get)
+                .description("Eventos descartados depois de esgotadas as tentativas de gravação")
+                .register(registry);
+    }
+
+    private void publicar(List<EventoLancamento> eventos) {
+        List<EventoLancamento> excedentes = null;
+        for (EventoLancamento evento : eventos) {
+            if (ativo && buffer.offer(evento))
+                continue;
+            if (excedentes == null)
+                excedentes = new ArrayList<>();
+            excedentes.add(evento);
+        }
+        if (excedentes == null)
+            return;
+        transbordados.addAndGet(excedentes.size());
+        try {
+            gravar(excedentes);
+        } catch (RuntimeException e) {
+            // a escrita já foi confirmada; a falha do diário não pode virar erro da requisição
+            descartar(excedentes, e);
+        }
+    }
+
+    private void escreverContinuamente() {
+        while (ativo || !buffer.isEmpty()) {
+            try {
+                EventoLancamento primeiro = buffer.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primeiro == null)
+                    continue;
+                List<EventoLancamento> lote = new ArrayList<>(tamanhoLote);
+                lote.add(primeiro);
+                buffer.drainTo(lote, tamanhoLote - 1);
+                gravarComTentativas(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void gravarComTentativas(List<EventoLancamento> lote) throws InterruptedException {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                gravar(lote);
+                return;
+            } catch (RuntimeException e) {
+                if (tentativa >= tentativas) {
+                    descartar(lote, e);
+                    return;
+                }
+                log.warn("Falha ao gravar {} evento(s) de lançamento, tentativa {} de {}.", lote.size(), tentativa, tentativas, e);
+                // o persist já atribuiu ids; sem eles os eventos voltam a ser novos para o saveAll
+                lote.forEach(evento -> evento.setId(null));
+                Thread.sleep(intervaloMs * tentativa);
+            }
+        }
+    }
+
+    private void gravar(List<EventoLancamento> eventos) {
+        transactionTemplate.executeWithoutResult(status -> repository.saveAll(eventos));
+    }
+
+    private void descartar(List<EventoLancamento> eventos, RuntimeException e) {
+        perdidos.addAndGet(eventos.size());
+        log.error("{} evento(s) de lançamento descartado(s), do lançamento {} ao {}.", eventos.size(),
+                eventos.get(0).getIdLancamento(), eventos.get(eventos.size() - 1).getIdLancamento(), e);
+    }
+}
@@ -0,0 +1,48 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.ExportacaoLancamentoService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+@Service
+public class ExportacaoLancamentoServiceImpl implements ExportacaoLancamentoService {
+
+    private final LancamentoRepository repository;
+    private final int tamanhoBuffer;
+
+    public ExportacaoLancamentoServiceImpl(LancamentoRepository repository,
+                                           @Value("${debtcontroll.exportacao.tamanho-buffer:65536}") int tamanhoBuffer) {
+        this.repository = repository;
+        this.tamanhoBuffer = tamanhoBuffer;
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional(readOnly = true)
+    public long exportar(Long idUsuario, FormatoExportacao formato, OutputStream saida) {
+        Objects.requireNonNull(idUsuario);
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), tamanhoBuffer);
+        EscritorLancamentos linhas = EscritorLancamentos.para(formato, escritor);
+        repository.percorrerLinhas(idUsuario, linhas);
+        try {
+            linhas.concluir();
+            escritor.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return linhas.getLinhas();
+    }
+}
@@ -0,0 +1,233 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joaovictor.debtControll.dto.LancamentoDTO;
+import com.joaovictor.debtControll.dto.ResultadoImportacaoDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.Rotulos;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.UsuarioRepository;
+import com.joaovictor.debtControll.service.CategoriaService;
+import com.joaovictor.debtControll.service.ImportacaoLancamentoService;
+import com.joaovictor.debtControll.service.LancamentoService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ImportacaoLancamentoServiceImpl implements ImportacaoLancamentoService {
+
+    private LancamentoService lancamentoService;
+    private UsuarioRepository usuarioRepository;
+    private CategoriaService categoriaService;
+    private ObjectMapper objectMapper;
+    private int tamanhoLote;
+
+    public ImportacaoLancamentoServiceImpl(LancamentoService lancamentoService,
+                                           UsuarioRepository usuarioRepository,
+                                           CategoriaService categoriaService,
+                                           ObjectMapper objectMapper,
+                                           @Value("${debtcontroll.importacao.tamanho-lote:1000}") int tamanhoLote) {
+        this.lancamentoService = lancamentoService;
+        this.usuarioRepository = usuarioRepository;
+        this.categoriaService = categoriaService;
+        this.objectMapper = objectMapper;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    public ResultadoImportacaoDTO importarJson(InputStream entrada, Long idAutenticado) {
+        Importacao importacao = new Importacao(idAutenticado);
+        long linha = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new RegraNegocioException("Informe uma lista de lançamentos.");
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                linha++;
+                JsonNode no = parser.readValueAsTree();
+                try {
+                    importacao.adicionar(linha, objectMapper.treeToValue(no, LancamentoDTO.class));
+                } catch (JsonProcessingException e) {
+                    importacao.rejeitar(linha, "Lançamento com formato inválido.");
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // o que já foi lido continua valendo; o restante do arquivo não pode ser interpretado
+            importacao.rejeitar(linha + 1, "Conteúdo JSON inválido a partir deste lançamento.");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return importacao.concluir();
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    public ResultadoImportacaoDTO importarCsv(InputStream entrada, Long idAutenticado) {
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        LeitorCsvLancamentos csv = new LeitorCsvLancamentos(leitor);
+        Importacao importacao = new Importacao(idAutenticado);
+        while (true) {
+            try {
+                Optional<LancamentoDTO> dto = csv.proximo();
+                if (!dto.isPresent())
+                    break;
+                importacao.adicionar(csv.getLinha(), dto.get());
+            } catch (RegraNegocioException e) {
+                importacao.rejeitar(csv.getLinha(), e.getMessage());
+            }
+        }
+        return importacao.concluir();
+    }
+
+    /**
+     * Acumula lançamentos convertidos e grava um lote por transação. Cada usuário e cada categoria
+     * são consultados uma única vez por importação.
+     */
+    private class Importacao {
+
+        private final ResultadoImportacaoDTO resultado = new ResultadoImportacaoDTO();
+        private final Map<Long, Usuario> usuarios = new HashMap<>();
+        private final Set<Long> usuariosInexistentes = new HashSet<>();
+        private final Map<String, Integer> categorias = new HashMap<>();
+        private final List<Lancamento> lancamentos = new ArrayList<>();
+        private final List<Long> linhas = new ArrayList<>();
+        private final Long idAutenticado;
+
+        Importacao(Long idAutenticado) {
+            this.idAutenticado = idAutenticado;
+        }
+
+        void adicionar(long linha, LancamentoDTO dto) {
+            try {
+                if (idAutenticado != null) {
+                    if (dto.getUsuario() != null && !dto.getUsuario().equals(idAutenticado))
+                        throw new RegraNegocioException("O usuário informado não é o usuário autenticado.");
+                    dto.setUsuario(idAutenticado);
+                }
+                Lancamento lancamento = converter(dto);
+                if (dto.getCategoria() != null)
+                    lancamento.setIdCategoria(categorias.computeIfAbsent(dto.getCategoria(), categoriaService::obterId));
+                lancamentoService.validar(lancamento);
+                lancamentos.add(lancamento);
+                linhas.add(linha);
+            } catch (RegraNegocioException e) {
+                rejeitar(linha, e.getMessage());
+            }
+            if (lancamentos.size() == tamanhoLote)
+                gravarLote();
+        }
+
+        void rejeitar(long linha, String mensagem) {
+            resultado.registrarErro(linha, mensagem);
+        }
+
+        ResultadoImportacaoDTO concluir() {
+            if (!lancamentos.isEmpty())
+                gravarLote();
+            return resultado;
+        }
+
+        private void gravarLote() {
+            resolverUsuarios();
+
+            List<Lancamento> validos = new ArrayList<>(lancamentos.size());
+            List<Long> linhasValidas = new ArrayList<>(lancamentos.size());
+            for (int i = 0; i < lancamentos.size(); i++) {
+                Lancamento lancamento = lancamentos.get(i);
+                Usuario usuario = usuarios.get(lancamento.getUsuario().getId());
+                if (usuario == null) {
+                    rejeitar(linhas.get(i), "Usuário não encontrado para o id informado.");
+                } else {
+                    lancamento.setUsuario(usuario);
+                    validos.add(lancamento);
+                    linhasValidas.add(linhas.get(i));
+                }
+            }
+
+            try {
+                if (!validos.isEmpty())
+                    lancamentoService.salvarEmLote(validos);
+                resultado.registrarImportados(validos.size());
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Falha ao gravar lote de importação de lançamentos; gravando um a um.", e);
+                gravarUmAUm(validos, linhasValidas);
+            }
+            lancamentos.clear();
+            linhas.clear();
+        }
+
+        /**
+         * Regrava um lote que falhou, um lançamento por transação, para rejeitar somente as linhas
+         * que o banco recusa.
+         */
+        private void gravarUmAUm(List<Lancamento> validos, List<Long> linhasValidas) {
+            for (int i = 0; i < validos.size(); i++) {
+                Lancamento lancamento = validos.get(i);
+                // o persist do lote desfeito já atribuiu id e versão
+                lancamento.setId(null);
+                lancamento.setVersao(null);
+                try {
+                    lancamentoService.salvarEmLote(Collections.singletonList(lancamento));
+                    resultado.registrarImportados(1);
+                } catch (DataAccessException | TransactionException e) {
+                    log.error("Falha ao gravar lançamento da linha {} da importação.", linhasValidas.get(i), e);
+                    rejeitar(linhasValidas.get(i), "Não foi possível gravar este lançamento.");
+                }
+            }
+        }
+
+        private void resolverUsuarios() {
+            Set<Long> desconhecidos = lancamentos.stream()
+                    .map(lancamento -> lancamento.getUsuario().getId())
+                    .filter(id -> !usuarios.containsKey(id) && !usuariosInexistentes.contains(id))
+                    .collect(Collectors.toSet());
+            if (desconhecidos.isEmpty())
+                return;
+
+            for (Long id : usuarioRepository.obterIdsExistentes(desconhecidos))
+                usuarios.put(id, usuarioRepository.getOne(id));
+            desconhecidos.removeAll(usuarios.keySet());
+            usuariosInexistentes.addAll(desconhecidos);
+        }
+    }
+
+    private Lancamento converter(LancamentoDTO dto) {
+        Lancamento lancamento = new Lancamento();
+        lancamento.setDescricao(dto.getDescricao());
+        lancamento.setMes(dto.getMes());
+        lancamento.setAno(dto.getAno());
+        lancamento.setValor(dto.getValor());
+        lancamento.setEtiquetas(Rotulos.normalizar(dto.getEtiquetas()));
+        if (dto.getUsuario() != null)
+            lancamento.setUsuario(Usuario.builder().id(dto.getUsuario()).build());
+        if (dto.getTipo() != null) {
+            try {
+                lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+            } catch (IllegalArgumentException e) {
+                throw new RegraNegocioException("Informe um tipo de Lançamento válido.");
+            }
+        }
+        return lancamento;
+    }
+}
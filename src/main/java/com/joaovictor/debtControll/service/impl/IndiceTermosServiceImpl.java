@@ -0,0 +1,56 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.IndiceTermosService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+public class IndiceTermosServiceImpl implements IndiceTermosService {
+
+    private LancamentoRepository lancamentoRepository;
+    private TransactionTemplate transactionTemplate;
+    private int tamanhoLote;
+    private volatile boolean disponivel;
+
+    public IndiceTermosServiceImpl(LancamentoRepository lancamentoRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${debtcontroll.lancamentos.termos.tamanho-lote:1000}") int tamanhoLote) {
+        this.lancamentoRepository = lancamentoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Override
+    public boolean disponivel() {
+        return disponivel;
+    }
+
+    /**
+     * Indexa, em lotes com transação própria, os lançamentos gravados antes do índice de termos. Até
+     * o primeiro lote vazio a busca por descrição continua no filtro por LIKE; depois disso os
+     * lançamentos novos já são indexados na gravação e a tarefa não volta a consultar a tabela.
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Scheduled(initialDelayString = "${debtcontroll.lancamentos.termos.atraso-inicial:0}",
+            fixedDelayString = "${debtcontroll.lancamentos.termos.intervalo:600000}")
+    public int preencherPendentes() {
+        if (disponivel)
+            return 0;
+        int preenchidos = 0;
+        int lote;
+        while ((lote = transactionTemplate.execute(status -> lancamentoRepository.preencherTermos(tamanhoLote))) > 0)
+            preenchidos += lote;
+        if (preenchidos > 0)
+            log.info("Termos da descrição indexados em {} lançamento(s) antigo(s).", preenchidos);
+        disponivel = true;
+        return preenchidos;
+    }
+}
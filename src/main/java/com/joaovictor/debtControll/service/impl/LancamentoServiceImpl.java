@@ -1,69 +1,320 @@
 package com.joaovictor.debtControll.service.impl;
 
+import com.joaovictor.debtControll.dto.CursorLancamentoDTO;
+import com.joaovictor.debtControll.dto.PaginaLancamentoDTO;
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
+import com.joaovictor.debtControll.exceptions.AcessoNegadoException;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.exceptions.RequisicaoConcorrenteException;
+import com.joaovictor.debtControll.model.HashConteudo;
+import com.joaovictor.debtControll.model.Restricoes;
+import com.joaovictor.debtControll.model.TermosDescricao;
+import com.joaovictor.debtControll.model.Centavos;
+import com.joaovictor.debtControll.model.Rotulos;
+import com.joaovictor.debtControll.model.entity.ChaveIdempotencia;
+import com.joaovictor.debtControll.model.entity.ChaveIdempotenciaId;
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
 import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.PoliticaDuplicidade;
 import com.joaovictor.debtControll.model.enums.StatusLancamento;
-import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.enums.TipoEventoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import com.joaovictor.debtControll.model.repository.ChaveIdempotenciaRepository;
 import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.LancamentoSpecifications;
+import com.joaovictor.debtControll.service.EventoLancamentoService;
+import com.joaovictor.debtControll.service.IndiceTermosService;
 import com.joaovictor.debtControll.service.LancamentoService;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
+import com.joaovictor.debtControll.service.ResumoMensalService;
+import com.joaovictor.debtControll.service.SaldoService;
+import com.joaovictor.debtControll.service.VersaoUsuarioService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
     private LancamentoRepository repository;
+    private SaldoService saldoService;
+    private ResumoMensalService resumoMensalService;
+    private VersaoUsuarioService versaoUsuarioService;
+    private EventoLancamentoService eventoService;
+    private ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+    private IndiceTermosService indiceTermosService;
+    private int tamanhoMaximoPagina;
+    private int tentativasAtualizacaoStatus;
+    private PoliticaDuplicidade politicaDuplicidade;
+    private long validadeChaveMinutos;
 
-    public LancamentoServiceImpl(LancamentoRepository repository) {
+    public LancamentoServiceImpl(LancamentoRepository repository,
+                                 SaldoService saldoService,
+                                 ResumoMensalService resumoMensalService,
+                                 VersaoUsuarioService versaoUsuarioService,
+                                 EventoLancamentoService eventoService,
+                                 ChaveIdempotenciaRepository chaveIdempotenciaRepository,
+                                 IndiceTermosService indiceTermosService,
+                                 @Value("${debtcontroll.lancamentos.pagina.tamanho-maximo:500}") int tamanhoMaximoPagina,
+                                 @Value("${debtcontroll.lancamentos.status.tentativas:5}") int tentativasAtualizacaoStatus,
+                                 @Value("${debtcontroll.lancamentos.duplicados.politica:PERMITIR}") PoliticaDuplicidade politicaDuplicidade,
+                                 @Value("${debtcontroll.idempotencia.validade-minutos:1440}") long validadeChaveMinutos) {
         this.repository = repository;
+        this.saldoService = saldoService;
+        this.resumoMensalService = resumoMensalService;
+        this.versaoUsuarioService = versaoUsuarioService;
+        this.eventoService = eventoService;
+        this.chaveIdempotenciaRepository = chaveIdempotenciaRepository;
+        this.indiceTermosService = indiceTermosService;
+        this.tamanhoMaximoPagina = tamanhoMaximoPagina;
+        this.tentativasAtualizacaoStatus = tentativasAtualizacaoStatus;
+        this.politicaDuplicidade = politicaDuplicidade;
+        this.validadeChaveMinutos = validadeChaveMinutos;
     }
 
     @Override
+    @Timed("debtcontroll.servico")
     @Transactional
     public Lancamento salvar(Lancamento lancamento) {
+        return salvar(lancamento, null);
+    }
+
+    /**
+     * A chave é gravada antes do lançamento: uma requisição simultânea com a mesma chave espera no
+     * índice único e falha em vez de criar um segundo lançamento. Duplicados de conteúdo são
+     * procurados pelo hash, uma leitura de índice, conforme a política configurada.
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional
+    public Lancamento salvar(Lancamento lancamento, String chaveIdempotencia) {
         validar(lancamento);
+        if (chaveIdempotencia != null && chaveIdempotencia.length() > ChaveIdempotencia.TAMANHO_MAXIMO_CHAVE)
+            throw new RegraNegocioException("Informe uma chave de idempotência com até " + ChaveIdempotencia.TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        lancamento.setHashConteudo(HashConteudo.calcular(lancamento));
+
+        ChaveIdempotencia chave = null;
+        if (chaveIdempotencia != null) {
+            ChaveIdempotenciaId id = new ChaveIdempotenciaId(lancamento.getUsuario().getId(), chaveIdempotencia);
+            Optional<ChaveIdempotencia> existente = chaveIdempotenciaRepository.findById(id)
+                    .filter(registrada -> registrada.getDataExpiracao().isAfter(Instant.now()));
+            if (existente.isPresent())
+                return obterCriadoPelaChave(existente.get(), lancamento);
+            chave = reservarChave(id, lancamento.getHashConteudo());
+        }
+
+        Optional<Lancamento> duplicado = politicaDuplicidade == PoliticaDuplicidade.PERMITIR
+                ? Optional.empty() : localizarDuplicado(lancamento);
+        if (duplicado.isPresent() && politicaDuplicidade == PoliticaDuplicidade.REJEITAR)
+            throw new RegraNegocioException("Já existe um lançamento com a mesma descrição, valor, tipo e período.");
+        Lancamento salvo = duplicado.isPresent() ? duplicado.get() : criar(lancamento);
+
+        if (chave != null)
+            chave.setIdLancamento(salvo.getId());
+        return salvo;
+    }
+
+    private Lancamento criar(Lancamento lancamento) {
         lancamento.setStatus(StatusLancamento.PENDENTE);
-        return repository.save(lancamento);
+        indexarDescricao(lancamento);
+        Lancamento salvo = gravar(lancamento);
+        saldoService.aplicar(salvo.getUsuario().getId(), salvo.getTipo().aplicarSinal(salvo.getValor()));
+        resumoMensalService.aplicar(ResumoMensalId.de(salvo), salvo.getValor());
+        versaoUsuarioService.incrementar(salvo.getUsuario().getId());
+        eventoService.registrar(EventoLancamento.de(TipoEventoLancamento.CRIADO, salvo));
+        return salvo;
     }
 
     @Override
+    @Timed("debtcontroll.servico")
+    @Transactional
+    public void salvarEmLote(List<Lancamento> lancamentos) {
+        Map<Long, Long> saldos = new HashMap<>();
+        Map<ResumoMensalId, Long> resumos = new HashMap<>();
+        for (Lancamento lancamento : lancamentos) {
+            lancamento.setStatus(StatusLancamento.PENDENTE);
+            lancamento.setHashConteudo(HashConteudo.calcular(lancamento));
+            indexarDescricao(lancamento);
+            long centavos = Centavos.de(lancamento.getValor());
+            saldos.merge(lancamento.getUsuario().getId(), lancamento.getTipo().aplicarSinal(centavos), Math::addExact);
+            resumos.merge(ResumoMensalId.de(lancamento), centavos, Math::addExact);
+        }
+        repository.inserirEmLote(lancamentos);
+        saldos.forEach((idUsuario, delta) -> saldoService.aplicar(idUsuario, Centavos.paraValor(delta)));
+        resumos.forEach((chave, delta) -> resumoMensalService.aplicar(chave, Centavos.paraValor(delta)));
+        versaoUsuarioService.incrementar(saldos.keySet());
+        eventoService.registrar(lancamentos.stream()
+                .map(lancamento -> EventoLancamento.de(TipoEventoLancamento.CRIADO, lancamento))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
     @Transactional
     public Lancamento atualizar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
-        return repository.save(lancamento);
+        validar(lancamento);
+        Optional<EstadoLancamento> anterior = repository.obterEstadoPersistido(lancamento.getId());
+        // sem versão informada, a alteração vale sobre a versão gravada agora
+        if (lancamento.getVersao() == null)
+            anterior.map(EstadoLancamento::getVersao).ifPresent(lancamento::setVersao);
+        lancamento.setHashConteudo(HashConteudo.calcular(lancamento));
+        indexarDescricao(lancamento);
+        Lancamento atualizado = gravar(lancamento);
+
+        Long idUsuario = atualizado.getUsuario().getId();
+        BigDecimal valorAtual = atualizado.getTipo().aplicarSinal(atualizado.getValor());
+        if (anterior.isPresent() && !anterior.get().getIdUsuario().equals(idUsuario)) {
+            saldoService.aplicar(anterior.get().getIdUsuario(), valorComSinal(anterior.get()).negate());
+            saldoService.aplicar(idUsuario, valorAtual);
+        } else {
+            saldoService.aplicar(idUsuario, valorAtual.subtract(anterior.map(this::valorComSinal).orElse(BigDecimal.ZERO)));
+        }
+
+        ResumoMensalId chaveAtual = ResumoMensalId.de(atualizado);
+        if (anterior.isPresent() && !ResumoMensalId.de(anterior.get()).equals(chaveAtual)) {
+            resumoMensalService.aplicar(ResumoMensalId.de(anterior.get()), anterior.get().getValor().negate());
+            resumoMensalService.aplicar(chaveAtual, atualizado.getValor());
+        } else {
+            resumoMensalService.aplicar(chaveAtual, atualizado.getValor().subtract(anterior.map(EstadoLancamento::getValor).orElse(BigDecimal.ZERO)));
+        }
+
+        Set<Long> usuarios = new HashSet<>();
+        usuarios.add(idUsuario);
+        anterior.map(EstadoLancamento::getIdUsuario).ifPresent(usuarios::add);
+        versaoUsuarioService.incrementar(usuarios);
+        eventoService.registrar(EventoLancamento.de(TipoEventoLancamento.ATUALIZADO, atualizado));
+        return atualizado;
     }
 
+    /**
+     * Exclui condicionado à versão, como a alteração: sem versão informada, vale a versão lida agora. Os
+     * estornos só são aplicados se a exclusão removeu o lançamento.
+     *
+     * @throws ObjectOptimisticLockingFailureException quando o lançamento já foi excluído ou a versão mudou
+     */
     @Override
+    @Timed("debtcontroll.servico")
     @Transactional
     public void deletar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId());
-        repository.delete(lancamento);
+        EstadoLancamento estado = repository.obterEstadoPersistido(lancamento.getId())
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Lancamento.class, lancamento.getId()));
+        Long versao = lancamento.getVersao() != null ? lancamento.getVersao() : estado.getVersao();
+        // se a versão mudou, a exceção desfaz a exclusão dos termos junto com a transação
+        repository.excluirTermos(estado.getId());
+        if (repository.excluir(estado.getId(), estado.getAno(), versao) != 1)
+            throw new ObjectOptimisticLockingFailureException(Lancamento.class, lancamento.getId());
+
+        saldoService.aplicar(estado.getIdUsuario(), valorComSinal(estado).negate());
+        resumoMensalService.aplicar(ResumoMensalId.de(estado), estado.getValor().negate());
+        versaoUsuarioService.incrementar(estado.getIdUsuario());
+        eventoService.registrar(EventoLancamento.de(TipoEventoLancamento.EXCLUIDO, estado));
     }
 
     @Override
+    @Timed("debtcontroll.servico")
     @Transactional(readOnly = true)
     public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-        Example example = Example.of(lancamentoFiltro, ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
-        return repository.findAll(example);
+        return repository.findAll(LancamentoSpecifications.filtro(lancamentoFiltro, indiceTermosService.disponivel()), LancamentoSpecifications.ORDEM_PERIODO);
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional(readOnly = true)
+    public PaginaLancamentoDTO buscarPagina(Lancamento lancamentoFiltro, CursorLancamentoDTO cursor, Integer tamanho) {
+        if (tamanho == null || tamanho < 1)
+            throw new RegraNegocioException("Informe um tamanho de página válido.");
+        int limite = Math.min(tamanho, tamanhoMaximoPagina);
+
+        Specification<Lancamento> specification = LancamentoSpecifications.filtro(lancamentoFiltro, indiceTermosService.disponivel());
+        if (cursor != null)
+            specification = specification.and(LancamentoSpecifications.apos(cursor));
+
+        // um registro a mais indica se existe próxima página sem precisar de count
+        List<Lancamento> lancamentos = repository.buscarLimitado(specification, LancamentoSpecifications.ORDEM_PERIODO, limite + 1);
+        if (lancamentos.size() <= limite)
+            return new PaginaLancamentoDTO(lancamentos, null);
+
+        lancamentos = lancamentos.subList(0, limite);
+        return new PaginaLancamentoDTO(lancamentos, CursorLancamentoDTO.de(lancamentos.get(limite - 1)).codificar());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void percorrer(Lancamento lancamentoFiltro, Consumer<Lancamento> consumidor) {
+        repository.percorrer(LancamentoSpecifications.filtro(lancamentoFiltro, indiceTermosService.disponivel()), LancamentoSpecifications.ORDEM_PERIODO, consumidor);
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional
     public Lancamento atulizarStatus(Lancamento lancamento, StatusLancamento status) {
-        lancamento.setStatus(status);
-        return atualizar(lancamento);
+        return atulizarStatus(lancamento, status, null);
+    }
+
+    /**
+     * Troca somente a coluna de status, condicionada ao dono e à versão lidos. Com versão informada
+     * no lançamento, uma alteração concorrente é um conflito; sem ela, a troca é refeita sobre o
+     * estado novo até o limite de tentativas.
+     *
+     * @throws ObjectOptimisticLockingFailureException quando a versão mudou
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional
+    public Lancamento atulizarStatus(Lancamento lancamento, StatusLancamento status, Long idUsuario) {
+        Objects.requireNonNull(lancamento.getId());
+        Long versaoEsperada = lancamento.getVersao();
+        int tentativas = versaoEsperada == null ? tentativasAtualizacaoStatus : 1;
+
+        for (int tentativa = 0; tentativa < tentativas; tentativa++) {
+            EstadoLancamento anterior = repository.obterEstadoPersistido(lancamento.getId())
+                    .orElseThrow(() -> new RegraNegocioException("Lançamento não encontrado na base de Dados."));
+            if (idUsuario != null && !idUsuario.equals(anterior.getIdUsuario()))
+                throw new AcessoNegadoException("O lançamento não pertence ao usuário autenticado.");
+            if (versaoEsperada != null && !versaoEsperada.equals(anterior.getVersao()))
+                break;
+
+            if (repository.atualizarStatus(lancamento.getId(), anterior.getAno(), anterior.getIdUsuario(), status, anterior.getVersao()) == 1) {
+                if (anterior.getStatus() != status) {
+                    ResumoMensalId chaveNova = ResumoMensalId.de(anterior);
+                    chaveNova.setStatus(status);
+                    resumoMensalService.aplicar(ResumoMensalId.de(anterior), anterior.getValor().negate());
+                    resumoMensalService.aplicar(chaveNova, anterior.getValor());
+                }
+                versaoUsuarioService.incrementar(anterior.getIdUsuario());
+                Lancamento atualizado = repository.findById(lancamento.getId()).orElseThrow(IllegalStateException::new);
+                eventoService.registrar(EventoLancamento.de(TipoEventoLancamento.STATUS_ALTERADO, atualizado));
+                return atualizado;
+            }
+        }
+        throw new ObjectOptimisticLockingFailureException(Lancamento.class, lancamento.getId());
     }
 
     @Override
     public void validar(Lancamento lancamento) {
         if (lancamento.getDescricao() == null  || lancamento.getDescricao().trim().equals(""))
             throw new RegraNegocioException("Informe uma Descrição válida.");
+        if (lancamento.getDescricao().length() > Lancamento.TAMANHO_MAXIMO_DESCRICAO)
+            throw new RegraNegocioException("Informe uma Descrição com até " + Lancamento.TAMANHO_MAXIMO_DESCRICAO + " caracteres.");
         if (lancamento.getMes() == null  || lancamento.getMes() < 1 || lancamento.getMes() > 12)
             throw new RegraNegocioException("Informe um Mês válido.");
         if (lancamento.getAno() == null  || lancamento.getAno().toString().length() != 4)
@@ -72,8 +323,16 @@ public class LancamentoServiceImpl implements LancamentoService {
             throw new RegraNegocioException("Informe um Usuário.");
         if (lancamento.getValor() == null  || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1)
             throw new RegraNegocioException("Informe um Valor válido.");
+        if (!Centavos.representavel(lancamento.getValor()))
+            throw new RegraNegocioException("Informe um Valor com no máximo duas casas decimais.");
         if (lancamento.getTipo() == null )
             throw new RegraNegocioException("Informe um tipo de Lançamento.");
+        if (lancamento.getEtiquetas() != null) {
+            if (lancamento.getEtiquetas().size() > Rotulos.MAXIMO_ETIQUETAS)
+                throw new RegraNegocioException("Informe no máximo " + Rotulos.MAXIMO_ETIQUETAS + " etiquetas.");
+            if (!lancamento.getEtiquetas().stream().allMatch(Rotulos::etiquetaValida))
+                throw new RegraNegocioException("Informe etiquetas de até " + Rotulos.TAMANHO_MAXIMO_ETIQUETA + " caracteres, sem vírgula.");
+        }
     }
 
     @Override
@@ -82,15 +341,83 @@ public class LancamentoServiceImpl implements LancamentoService {
     }
 
     @Override
+    @Timed("debtcontroll.servico")
     @Transactional(readOnly = true)
     public BigDecimal obterSaldoPorUsuario(Long id) {
-        BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-        BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
-
-        if (receitas == null)
-            receitas = BigDecimal.ZERO;
-        if (despesas == null)
-            despesas = BigDecimal.ZERO;
-        return receitas.subtract(despesas);
+        return saldoService.obterSaldo(id);
+    }
+
+    @Override
+    public long obterVersaoPorUsuario(Long id) {
+        return versaoUsuarioService.obterVersao(id);
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    public List<ResumoMensalDTO> obterResumoMensal(Long idUsuario, Integer ano) {
+        return resumoMensalService.obterResumo(idUsuario, ano);
+    }
+
+    /**
+     * O usuário chega como referência, sem ter sido consultado; um id inexistente só é detectado
+     * pela chave estrangeira, por isso a escrita é descarregada aqui.
+     */
+    private Lancamento gravar(Lancamento lancamento) {
+        try {
+            Lancamento gravado = repository.save(lancamento);
+            repository.flush();
+            return gravado;
+        } catch (DataIntegrityViolationException e) {
+            if (Restricoes.violou(e, Restricoes.FK_LANCAMENTO_USUARIO))
+                throw new RegraNegocioException("Usuário não encontrado para o id informado.");
+            throw e;
+        }
+    }
+
+    private Lancamento obterCriadoPelaChave(ChaveIdempotencia chave, Lancamento lancamento) {
+        if (!chave.getHashConteudo().equals(lancamento.getHashConteudo()))
+            throw new RegraNegocioException("A chave de idempotência já foi usada em um lançamento com outro conteúdo.");
+        return repository.findById(chave.getIdLancamento())
+                .orElseThrow(() -> new RegraNegocioException("O lançamento criado com esta chave de idempotência foi excluído."));
+    }
+
+    /**
+     * Uma chave expirada ainda não removida é sobrescrita.
+     *
+     * @throws RequisicaoConcorrenteException se outra transação gravou a mesma chave
+     */
+    private ChaveIdempotencia reservarChave(ChaveIdempotenciaId id, Long hashConteudo) {
+        try {
+            return chaveIdempotenciaRepository.saveAndFlush(ChaveIdempotencia.builder()
+                    .id(id)
+                    .hashConteudo(hashConteudo)
+                    .dataExpiracao(Instant.now().plus(validadeChaveMinutos, ChronoUnit.MINUTES))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new RequisicaoConcorrenteException("Outra requisição com a mesma chave de idempotência está em andamento. Repita a requisição em instantes.");
+        }
+    }
+
+    private Optional<Lancamento> localizarDuplicado(Lancamento lancamento) {
+        return repository.obterPorHashConteudo(lancamento.getUsuario().getId(), lancamento.getAno(),
+                        lancamento.getHashConteudo(), StatusLancamento.CANCELADO)
+                .stream()
+                .filter(existente -> HashConteudo.mesmoConteudo(existente, lancamento))
+                .findFirst();
+    }
+
+    /**
+     * Altera o conjunto existente em vez de substituí-lo, para que só os termos que mudaram sejam
+     * regravados.
+     */
+    private void indexarDescricao(Lancamento lancamento) {
+        Set<String> termos = TermosDescricao.indexar(lancamento.getDescricao());
+        lancamento.getTermos().retainAll(termos);
+        lancamento.getTermos().addAll(termos);
+        lancamento.setTermosIndexados(true);
+    }
+
+    private BigDecimal valorComSinal(EstadoLancamento estado) {
+        return estado.getTipo().aplicarSinal(estado.getValor());
     }
 }
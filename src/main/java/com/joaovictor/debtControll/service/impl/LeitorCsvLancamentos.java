@@ -0,0 +1,150 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.LancamentoDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Lê um CSV de lançamentos registro a registro. O cabeçalho define a ordem das colunas e o separador
+ * (';' ou ','); valores com vírgula decimal são aceitos. A coluna categoria é opcional. Campos entre
+ * aspas podem conter o separador, aspas duplicadas e quebras de linha (RFC 4180); uma quebra de linha
+ * dentro de um campo é lida como '\n'.
+ */
+class LeitorCsvLancamentos {
+
+    static final List<String> COLUNAS = Arrays.asList("descricao", "mes", "ano", "valor", "usuario", "tipo");
+
+    static final String COLUNA_CATEGORIA = "categoria";
+
+    /** Limite de caracteres de um registro, para que aspas sem fechamento não acumulem o restante do arquivo. */
+    static final int TAMANHO_MAXIMO_REGISTRO = 64 * 1024;
+
+    private final BufferedReader leitor;
+    private final char separador;
+    private final Map<String, Integer> posicoes = new HashMap<>();
+    private long linha = 1;
+    private long linhasLidas = 1;
+
+    LeitorCsvLancamentos(BufferedReader leitor) {
+        this.leitor = leitor;
+        String cabecalho = lerLinha();
+        if (cabecalho == null)
+            throw new RegraNegocioException("O arquivo de importação está vazio.");
+
+        this.separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        List<String> nomes = lerRegistro(cabecalho);
+        for (int i = 0; i < nomes.size(); i++)
+            posicoes.put(nomes.get(i).trim().toLowerCase(Locale.ROOT), i);
+        if (!posicoes.keySet().containsAll(COLUNAS))
+            throw new RegraNegocioException("Cabeçalho inválido. Informe as colunas: " + String.join(", ", COLUNAS) + ".");
+    }
+
+    /**
+     * @return a linha em que começa o último registro lido
+     */
+    long getLinha() {
+        return linha;
+    }
+
+    /**
+     * @return o próximo registro convertido, ou vazio no fim do arquivo
+     * @throws RegraNegocioException quando o registro não pode ser convertido
+     */
+    Optional<LancamentoDTO> proximo() {
+        String conteudo;
+        do {
+            conteudo = lerLinha();
+            if (conteudo == null)
+                return Optional.empty();
+            linha = ++linhasLidas;
+        } while (conteudo.trim().isEmpty());
+
+        List<String> valores = lerRegistro(conteudo);
+        try {
+            return Optional.of(LancamentoDTO.builder()
+                    .descricao(valor(valores, "descricao"))
+                    .mes(inteiro(valor(valores, "mes")))
+                    .ano(inteiro(valor(valores, "ano")))
+                    .valor(decimal(valor(valores, "valor")))
+                    .usuario(valor(valores, "usuario") == null ? null : Long.valueOf(valor(valores, "usuario")))
+                    .tipo(valor(valores, "tipo"))
+                    .categoria(valor(valores, COLUNA_CATEGORIA))
+                    .build());
+        } catch (NumberFormatException e) {
+            throw new RegraNegocioException("Lançamento com formato inválido.");
+        }
+    }
+
+    private String lerLinha() {
+        try {
+            return leitor.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String valor(List<String> valores, String coluna) {
+        Integer posicao = posicoes.get(coluna);
+        if (posicao == null || posicao >= valores.size())
+            return null;
+        String valor = valores.get(posicao).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private Integer inteiro(String valor) {
+        return valor == null ? null : Integer.valueOf(valor);
+    }
+
+    private BigDecimal decimal(String valor) {
+        if (valor == null)
+            return null;
+        if (valor.indexOf(',') >= 0)
+            valor = valor.replace(".", "").replace(',', '.');
+        return new BigDecimal(valor);
+    }
+
+    /**
+     * Separa os campos de um registro. Enquanto um campo entre aspas não for fechado, as linhas
+     * seguintes fazem parte dele.
+     */
+    private List<String> lerRegistro(String conteudo) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        while (true) {
+            for (int i = 0; i < conteudo.length(); i++) {
+                char c = conteudo.charAt(i);
+                if (c == '"') {
+                    if (entreAspas && i + 1 < conteudo.length() && conteudo.charAt(i + 1) == '"') {
+                        atual.append('"');
+                        i++;
+                    } else {
+                        entreAspas = !entreAspas;
+                    }
+                } else if (c == separador && !entreAspas) {
+                    valores.add(atual.toString());
+                    atual.setLength(0);
+                } else {
+                    atual.append(c);
+                }
+            }
+            if (!entreAspas)
+                break;
+
+            conteudo = lerLinha();
+            if (conteudo == null)
+                throw new RegraNegocioException("Campo entre aspas sem fechamento.");
+            linhasLidas++;
+            if (atual.length() + conteudo.length() > TAMANHO_MAXIMO_REGISTRO)
+                throw new RegraNegocioException("Registro maior que o permitido. Verifique as aspas deste lançamento.");
+            atual.append('\n');
+        }
+        valores.add(atual.toString());
+        return valores;
+    }
+}
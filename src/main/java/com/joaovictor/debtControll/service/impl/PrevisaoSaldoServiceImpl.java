@@ -0,0 +1,114 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.PrevisaoSaldoDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.Centavos;
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+import com.joaovictor.debtControll.model.entity.ResumoMensal;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.repository.RecorrenciaRepository;
+import com.joaovictor.debtControll.model.repository.ResumoMensalRepository;
+import com.joaovictor.debtControll.service.PrevisaoSaldoService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Saldo acumulado mês a mês a partir do resumo mensal, não dos lançamentos: o custo depende da
+ * quantidade de meses com movimento, não da quantidade de lançamentos do usuário. Os meses são
+ * somados em centavos num array indexado pelo mês e os saldos acumulados numa única passada.
+ */
+@Service
+public class PrevisaoSaldoServiceImpl implements PrevisaoSaldoService {
+
+    private ResumoMensalRepository resumoMensalRepository;
+    private RecorrenciaRepository recorrenciaRepository;
+    private int mesesMaximo;
+
+    public PrevisaoSaldoServiceImpl(ResumoMensalRepository resumoMensalRepository,
+                                    RecorrenciaRepository recorrenciaRepository,
+                                    @Value("${debtcontroll.previsao.meses-maximo:120}") int mesesMaximo) {
+        this.resumoMensalRepository = resumoMensalRepository;
+        this.recorrenciaRepository = recorrenciaRepository;
+        this.mesesMaximo = mesesMaximo;
+    }
+
+    /**
+     * Lançamentos efetivados compõem o realizado; pendentes e as ocorrências das recorrências ainda
+     * não geradas, o previsto. Cancelados ficam de fora. Os meses anteriores ao início entram no saldo
+     * de abertura.
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional(readOnly = true)
+    public List<PrevisaoSaldoDTO> obterPrevisao(Long idUsuario, YearMonth inicio, YearMonth fim) {
+        if (inicio == null || fim == null)
+            throw new RegraNegocioException("Informe o mês de início e o mês de fim da previsão.");
+        if (fim.isBefore(inicio))
+            throw new RegraNegocioException("O fim da previsão deve ser posterior ao início.");
+        int meses = (int) inicio.until(fim, ChronoUnit.MONTHS) + 1;
+        if (meses > mesesMaximo)
+            throw new RegraNegocioException("A previsão pode abranger no máximo " + mesesMaximo + " meses.");
+
+        long[] realizado = new long[meses];
+        long[] previsto = new long[meses];
+        long realizadoAnterior = 0;
+        long previstoAnterior = 0;
+
+        for (ResumoMensal resumo : resumoMensalRepository.obterAte(idUsuario, fim.getYear(), fim.getMonthValue(),
+                StatusLancamento.CANCELADO)) {
+            ResumoMensalId chave = resumo.getId();
+            long valor = chave.getTipo().aplicarSinal(Centavos.de(resumo.getTotal()));
+            boolean efetivado = chave.getStatus() == StatusLancamento.EFETIVADO;
+            int indice = (int) inicio.until(YearMonth.of(chave.getAno(), chave.getMes()), ChronoUnit.MONTHS);
+            if (indice < 0) {
+                if (efetivado)
+                    realizadoAnterior = Math.addExact(realizadoAnterior, valor);
+                else
+                    previstoAnterior = Math.addExact(previstoAnterior, valor);
+            } else if (efetivado) {
+                realizado[indice] = Math.addExact(realizado[indice], valor);
+            } else {
+                previsto[indice] = Math.addExact(previsto[indice], valor);
+            }
+        }
+
+        for (Recorrencia recorrencia : recorrenciaRepository.obterPorUsuario(idUsuario)) {
+            YearMonth limite = fim;
+            if (recorrencia.getAnoFim() != null) {
+                YearMonth termino = YearMonth.of(recorrencia.getAnoFim(), recorrencia.getMesFim());
+                if (termino.isBefore(limite))
+                    limite = termino;
+            }
+            long valor = recorrencia.getTipo().aplicarSinal(Centavos.de(recorrencia.getValor()));
+            // do próximo mês em diante as ocorrências ainda não existem como lançamentos
+            YearMonth mes = YearMonth.of(recorrencia.getAnoProximo(), recorrencia.getMesProximo());
+            for (; !mes.isAfter(limite); mes = mes.plusMonths(1)) {
+                int indice = (int) inicio.until(mes, ChronoUnit.MONTHS);
+                if (indice < 0)
+                    previstoAnterior = Math.addExact(previstoAnterior, valor);
+                else
+                    previsto[indice] = Math.addExact(previsto[indice], valor);
+            }
+        }
+
+        List<PrevisaoSaldoDTO> previsao = new ArrayList<>(meses);
+        long saldoRealizado = realizadoAnterior;
+        long saldoPrevisto = Math.addExact(realizadoAnterior, previstoAnterior);
+        for (int indice = 0; indice < meses; indice++) {
+            YearMonth mes = inicio.plusMonths(indice);
+            saldoRealizado = Math.addExact(saldoRealizado, realizado[indice]);
+            saldoPrevisto = Math.addExact(saldoPrevisto, Math.addExact(realizado[indice], previsto[indice]));
+            previsao.add(new PrevisaoSaldoDTO(mes.getYear(), mes.getMonthValue(), Centavos.paraValor(realizado[indice]),
+                    Centavos.paraValor(previsto[indice]), Centavos.paraValor(saldoRealizado), Centavos.paraValor(saldoPrevisto)));
+        }
+        return previsao;
+    }
+}
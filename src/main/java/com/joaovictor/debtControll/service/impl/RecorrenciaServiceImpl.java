@@ -0,0 +1,263 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.Centavos;
+import com.joaovictor.debtControll.model.Restricoes;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+import com.joaovictor.debtControll.model.repository.RecorrenciaRepository;
+import com.joaovictor.debtControll.service.LancamentoService;
+import com.joaovictor.debtControll.service.RecorrenciaService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera os lançamentos das recorrências vencidas. As recorrências são divididas em partições pelo
+ * resto do id do usuário; cada nó gera as partições configuradas nele, uma thread por partição.
+ * Cada lote bloqueia suas recorrências, grava os lançamentos e avança o próximo mês na mesma
+ * transação, então uma execução interrompida recomeça de onde parou sem duplicar ocorrências.
+ */
+@Slf4j
+@Service
+public class RecorrenciaServiceImpl implements RecorrenciaService {
+
+    private RecorrenciaRepository repository;
+    private LancamentoService lancamentoService;
+    private TransactionTemplate transactionTemplate;
+    private int particoes;
+    private List<Integer> particoesLocais;
+    private int threads;
+    private int tamanhoLote;
+    private int mesesRetroativos;
+
+    public RecorrenciaServiceImpl(RecorrenciaRepository repository,
+                                  LancamentoService lancamentoService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${debtcontroll.recorrencias.particoes:1}") int particoes,
+                                  @Value("${debtcontroll.recorrencias.particoes-locais:}") String particoesLocais,
+                                  @Value("${debtcontroll.recorrencias.threads:2}") int threads,
+                                  @Value("${debtcontroll.recorrencias.tamanho-lote:200}") int tamanhoLote,
+                                  @Value("${debtcontroll.recorrencias.meses-retroativos:12}") int mesesRetroativos) {
+        this.repository = repository;
+        this.lancamentoService = lancamentoService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.particoes = particoes;
+        this.particoesLocais = lerParticoes(particoesLocais, particoes);
+        this.threads = threads;
+        this.tamanhoLote = tamanhoLote;
+        this.mesesRetroativos = mesesRetroativos;
+    }
+
+    /**
+     * As ocorrências já vencidas da recorrência nova são geradas na mesma transação. O início pode
+     * recuar no máximo debtcontroll.recorrencias.meses-retroativos meses, o que limita o trabalho da requisição.
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    @Transactional
+    public Recorrencia salvar(Recorrencia recorrencia) {
+        validar(recorrencia);
+        recorrencia.setMesProximo(recorrencia.getMesInicio());
+        recorrencia.setAnoProximo(recorrencia.getAnoInicio());
+        try {
+            recorrencia = repository.saveAndFlush(recorrencia);
+        } catch (DataIntegrityViolationException e) {
+            if (Restricoes.violou(e, Restricoes.FK_RECORRENCIA_USUARIO))
+                throw new RegraNegocioException("Usuário não encontrado para o id informado.");
+            throw e;
+        }
+
+        List<Lancamento> lancamentos = new ArrayList<>();
+        gerarOcorrencias(recorrencia, YearMonth.now(), lancamentos);
+        repository.flush();
+        if (!lancamentos.isEmpty())
+            lancamentoService.salvarEmLote(lancamentos);
+        return recorrencia;
+    }
+
+    /**
+     * Os lançamentos já gerados pela recorrência são mantidos.
+     */
+    @Override
+    @Transactional
+    public void deletar(Recorrencia recorrencia) {
+        Objects.requireNonNull(recorrencia.getId());
+        repository.delete(recorrencia);
+    }
+
+    @Override
+    public Optional<Recorrencia> obterPorId(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Recorrencia> buscarPorUsuario(Long idUsuario) {
+        return repository.obterPorUsuario(idUsuario);
+    }
+
+    @Override
+    @Scheduled(cron = "${debtcontroll.recorrencias.cron:0 15 0 * * *}")
+    public int gerarLancamentos() {
+        return gerarLancamentos(YearMonth.now());
+    }
+
+    /**
+     * Gera, em todas as partições locais, as ocorrências até o mês informado, inclusive.
+     *
+     * @return a quantidade de lançamentos gerados
+     */
+    @Override
+    @Timed("debtcontroll.servico")
+    public int gerarLancamentos(YearMonth ate) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, particoesLocais.size())),
+                new CustomizableThreadFactory("recorrencias-"));
+        try {
+            List<Future<Integer>> execucoes = new ArrayList<>();
+            for (Integer particao : particoesLocais)
+                execucoes.add(executor.submit(() -> gerarParticao(particao, ate)));
+
+            int gerados = 0;
+            for (int i = 0; i < execucoes.size(); i++) {
+                try {
+                    gerados += execucoes.get(i).get();
+                } catch (ExecutionException e) {
+                    log.error("Falha ao gerar os lançamentos recorrentes da partição {}.", particoesLocais.get(i), e.getCause());
+                }
+            }
+            log.info("Geração de recorrências até {} concluída com {} lançamento(s).", ate, gerados);
+            return gerados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geração de recorrências interrompida.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int gerarParticao(int particao, YearMonth ate) {
+        AtomicInteger gerados = new AtomicInteger();
+        Long ultimoId = 0L;
+        List<Recorrencia> lote;
+        do {
+            Long inicio = ultimoId;
+            lote = transactionTemplate.execute(status -> {
+                List<Recorrencia> recorrencias = repository.bloquearPendentes(particoes, particao, inicio,
+                        ate.getYear(), ate.getMonthValue(), PageRequest.of(0, tamanhoLote));
+                if (recorrencias.isEmpty())
+                    return recorrencias;
+                List<Lancamento> lancamentos = new ArrayList<>();
+                for (Recorrencia recorrencia : recorrencias)
+                    gerarOcorrencias(recorrencia, ate, lancamentos);
+                // o avanço do próximo mês vai para o banco antes do salvarEmLote, que limpa a sessão
+                repository.flush();
+                if (!lancamentos.isEmpty())
+                    lancamentoService.salvarEmLote(lancamentos);
+                gerados.addAndGet(lancamentos.size());
+                return recorrencias;
+            });
+            if (!lote.isEmpty())
+                ultimoId = lote.get(lote.size() - 1).getId();
+        } while (lote.size() == tamanhoLote);
+        return gerados.get();
+    }
+
+    /**
+     * Acrescenta as ocorrências de mes/anoProximo até o mês informado (ou o fim da recorrência, se
+     * vier antes) e avança mes/anoProximo para o mês seguinte à última gerada.
+     */
+    private void gerarOcorrencias(Recorrencia recorrencia, YearMonth ate, List<Lancamento> lancamentos) {
+        YearMonth limite = ate;
+        if (recorrencia.getAnoFim() != null) {
+            YearMonth fim = YearMonth.of(recorrencia.getAnoFim(), recorrencia.getMesFim());
+            if (fim.isBefore(limite))
+                limite = fim;
+        }
+
+        YearMonth proximo = YearMonth.of(recorrencia.getAnoProximo(), recorrencia.getMesProximo());
+        for (; !proximo.isAfter(limite); proximo = proximo.plusMonths(1)) {
+            lancamentos.add(Lancamento.builder()
+                    .descricao(recorrencia.getDescricao())
+                    .mes(proximo.getMonthValue())
+                    .ano(proximo.getYear())
+                    .valor(recorrencia.getValor())
+                    .tipo(recorrencia.getTipo())
+                    .idCategoria(recorrencia.getIdCategoria())
+                    .usuario(recorrencia.getUsuario())
+                    .idRecorrencia(recorrencia.getId())
+                    .build());
+        }
+        recorrencia.setMesProximo(proximo.getMonthValue());
+        recorrencia.setAnoProximo(proximo.getYear());
+    }
+
+    private void validar(Recorrencia recorrencia) {
+        if (recorrencia.getDescricao() == null || recorrencia.getDescricao().trim().equals(""))
+            throw new RegraNegocioException("Informe uma Descrição válida.");
+        if (recorrencia.getDescricao().length() > Lancamento.TAMANHO_MAXIMO_DESCRICAO)
+            throw new RegraNegocioException("Informe uma Descrição com até " + Lancamento.TAMANHO_MAXIMO_DESCRICAO + " caracteres.");
+        if (recorrencia.getUsuario() == null || recorrencia.getUsuario().getId() == null)
+            throw new RegraNegocioException("Informe um Usuário.");
+        if (recorrencia.getValor() == null || recorrencia.getValor().compareTo(BigDecimal.ZERO) < 1)
+            throw new RegraNegocioException("Informe um Valor válido.");
+        if (!Centavos.representavel(recorrencia.getValor()))
+            throw new RegraNegocioException("Informe um Valor com no máximo duas casas decimais.");
+        if (recorrencia.getTipo() == null)
+            throw new RegraNegocioException("Informe um tipo de Lançamento.");
+        if (!periodoValido(recorrencia.getMesInicio(), recorrencia.getAnoInicio()))
+            throw new RegraNegocioException("Informe um Mês e um Ano de início válidos.");
+        if (YearMonth.of(recorrencia.getAnoInicio(), recorrencia.getMesInicio()).isBefore(YearMonth.now().minusMonths(mesesRetroativos)))
+            throw new RegraNegocioException("O início da recorrência pode ser no máximo " + mesesRetroativos + " meses antes do mês atual.");
+        if (recorrencia.getMesFim() == null && recorrencia.getAnoFim() == null)
+            return;
+        if (!periodoValido(recorrencia.getMesFim(), recorrencia.getAnoFim()))
+            throw new RegraNegocioException("Informe um Mês e um Ano de fim válidos.");
+        if (YearMonth.of(recorrencia.getAnoFim(), recorrencia.getMesFim())
+                .isBefore(YearMonth.of(recorrencia.getAnoInicio(), recorrencia.getMesInicio())))
+            throw new RegraNegocioException("O fim da recorrência deve ser posterior ao início.");
+    }
+
+    private boolean periodoValido(Integer mes, Integer ano) {
+        return mes != null && mes >= 1 && mes <= 12 && ano != null && ano.toString().length() == 4;
+    }
+
+    /**
+     * Lista separada por vírgulas; vazia, o nó gera todas as partições.
+     */
+    private static List<Integer> lerParticoes(String particoesLocais, int particoes) {
+        List<Integer> lidas = new ArrayList<>();
+        for (String particao : particoesLocais.split(",")) {
+            if (particao.trim().isEmpty())
+                continue;
+            int numero = Integer.parseInt(particao.trim());
+            if (numero < 0 || numero >= particoes)
+                throw new IllegalArgumentException("Partição " + numero + " fora do intervalo 0.." + (particoes - 1) + ".");
+            lidas.add(numero);
+        }
+        if (lidas.isEmpty())
+            for (int particao = 0; particao < particoes; particao++)
+                lidas.add(particao);
+        return lidas;
+    }
+}
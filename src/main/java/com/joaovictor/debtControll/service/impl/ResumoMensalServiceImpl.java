@@ -0,0 +1,111 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.ResumoMensal;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.projection.TotalMensal;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.model.repository.ResumoMensalRepository;
+import com.joaovictor.debtControll.service.ResumoMensalService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Slf4j
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+    private ResumoMensalRepository repository;
+    private LancamentoRepository lancamentoRepository;
+    private PrimeiraEscritaRepository primeiraEscritaRepository;
+
+    public ResumoMensalServiceImpl(ResumoMensalRepository repository, LancamentoRepository lancamentoRepository,
+                                   PrimeiraEscritaRepository primeiraEscritaRepository) {
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.primeiraEscritaRepository = primeiraEscritaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensalDTO> obterResumo(Long idUsuario, Integer ano) {
+        if (ano == null || ano.toString().length() != 4)
+            throw new RegraNegocioException("Informe um Ano válido.");
+
+        List<ResumoMensalDTO> meses = new ArrayList<>(12);
+        for (int mes = 1; mes <= 12; mes++)
+            meses.add(new ResumoMensalDTO(mes));
+        List<ResumoMensal> resumos = repository.obterPorUsuarioEAno(idUsuario, ano);
+        if (resumos.isEmpty()) {
+            // ano ainda não materializado: os lançamentos anteriores ao resumo só entram na reconciliação
+            for (TotalMensal total : lancamentoRepository.obterTotaisMensais(idUsuario, ano))
+                meses.get(total.getMes() - 1).adicionar(total.getTipo(), total.getStatus(), total.getTotal());
+            return meses;
+        }
+        for (ResumoMensal resumo : resumos) {
+            ResumoMensalId chave = resumo.getId();
+            meses.get(chave.getMes() - 1).adicionar(chave.getTipo(), chave.getStatus(), resumo.getTotal());
+        }
+        return meses;
+    }
+
+    /**
+     * Deve ser chamado depois da escrita do lançamento, na mesma transação. Uma chave ainda sem
+     * linha recebe o total calculado dos lançamentos, que já refletem a escrita. Se outra transação criou a
+     * linha primeiro, o delta é aplicado sobre ela.
+     */
+    @Override
+    @Transactional
+    public void aplicar(ResumoMensalId chave, BigDecimal delta) {
+        if (delta.signum() == 0)
+            return;
+        if (adicionar(chave, delta) == 0 && !primeiraEscritaRepository.inserirResumoMensal(chave, lancamentoRepository.obterTotalMensal(
+                chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(), chave.getStatus())))
+            adicionar(chave, delta);
+    }
+
+    private int adicionar(ResumoMensalId chave, BigDecimal delta) {
+        return repository.adicionar(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(), chave.getStatus(), delta);
+    }
+
+    /**
+     * Recalcula o resumo dos usuários a partir dos lançamentos e corrige só as linhas divergentes.
+     * As linhas existentes são bloqueadas antes da soma: escritas concorrentes aguardam a correção e
+     * aplicam o delta depois dela. Uma linha ausente é inserida em savepoint; se uma escrita concorrente
+     * a criar primeiro, o total calculado por ela prevalece.
+     *
+     * @return a quantidade de linhas corrigidas
+     */
+    @Override
+    @Transactional
+    public int reconciliar(Collection<Long> idsUsuarios) {
+        List<ResumoMensal> materializados = repository.bloquearPorUsuarios(idsUsuarios);
+        Map<ResumoMensalId, BigDecimal> calculados = new HashMap<>();
+        for (TotalMensal total : lancamentoRepository.obterTotaisMensais(idsUsuarios))
+            calculados.put(new ResumoMensalId(total.getIdUsuario(), total.getAno(), total.getMes(),
+                    total.getTipo(), total.getStatus()), total.getTotal());
+
+        int corrigidas = 0;
+        for (ResumoMensal resumo : materializados) {
+            BigDecimal calculado = calculados.getOrDefault(resumo.getId(), BigDecimal.ZERO);
+            calculados.remove(resumo.getId());
+            if (resumo.getTotal().compareTo(calculado) != 0) {
+                resumo.setTotal(calculado);
+                corrigidas++;
+            }
+        }
+
+        for (Map.Entry<ResumoMensalId, BigDecimal> ausente : calculados.entrySet())
+            if (primeiraEscritaRepository.inserirResumoMensal(ausente.getKey(), ausente.getValue()))
+                corrigidas++;
+
+        if (corrigidas > 0)
+            log.warn("Resumo mensal corrigido em {} linha(s) para {} usuário(s).", corrigidas, idsUsuarios.size());
+        return corrigidas;
+    }
+}
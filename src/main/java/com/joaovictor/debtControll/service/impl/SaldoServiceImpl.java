@@ -0,0 +1,141 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.DivergenciaSaldoDTO;
+import com.joaovictor.debtControll.model.Centavos;
+import com.joaovictor.debtControll.model.entity.SaldoUsuario;
+import com.joaovictor.debtControll.model.projection.TotalPorTipo;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.model.repository.SaldoUsuarioRepository;
+import com.joaovictor.debtControll.model.repository.UsuarioRepository;
+import com.joaovictor.debtControll.service.ResumoMensalService;
+import com.joaovictor.debtControll.service.SaldoService;
+import com.joaovictor.debtControll.service.VersaoUsuarioService;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class SaldoServiceImpl implements SaldoService {
+
+    private SaldoUsuarioRepository repository;
+    private LancamentoRepository lancamentoRepository;
+    private PrimeiraEscritaRepository primeiraEscritaRepository;
+    private UsuarioRepository usuarioRepository;
+    private ResumoMensalService resumoMensalService;
+    private VersaoUsuarioService versaoUsuarioService;
+    private TransactionTemplate transactionTemplate;
+    private int tamanhoLoteReconciliacao;
+
+    public SaldoServiceImpl(SaldoUsuarioRepository repository,
+                            LancamentoRepository lancamentoRepository,
+                            PrimeiraEscritaRepository primeiraEscritaRepository,
+                            UsuarioRepository usuarioRepository,
+                            ResumoMensalService resumoMensalService,
+                            VersaoUsuarioService versaoUsuarioService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${debtcontroll.saldo.reconciliacao.tamanho-lote:500}") int tamanhoLoteReconciliacao) {
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+        this.primeiraEscritaRepository = primeiraEscritaRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.resumoMensalService = resumoMensalService;
+        this.versaoUsuarioService = versaoUsuarioService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLoteReconciliacao = tamanhoLoteReconciliacao;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long idUsuario) {
+        return repository.findById(idUsuario)
+                .map(SaldoUsuario::getValor)
+                .orElseGet(() -> calcularSaldo(idUsuario));
+    }
+
+    /**
+     * Deve ser chamado depois da escrita do lançamento, na mesma transação. Se o usuário ainda não
+     * tem saldo materializado, o saldo é calculado a partir dos lançamentos, que já refletem a escrita. Se outra
+     * transação materializou o saldo primeiro, o cálculo dela não inclui esta escrita e o delta é aplicado sobre ele.
+     */
+    @Override
+    @Transactional
+    public void aplicar(Long idUsuario, BigDecimal delta) {
+        if (delta.signum() == 0)
+            return;
+        if (repository.adicionar(idUsuario, delta) == 0 && !primeiraEscritaRepository.inserirSaldo(idUsuario, calcularSaldo(idUsuario)))
+            repository.adicionar(idUsuario, delta);
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
+    @Scheduled(cron = "${debtcontroll.saldo.reconciliacao.cron:0 0 3 * * *}")
+    public List<DivergenciaSaldoDTO> reconciliar() {
+        List<DivergenciaSaldoDTO> divergencias = new ArrayList<>();
+        Long ultimoId = 0L;
+        List<Long> ids;
+        while (!(ids = usuarioRepository.obterIdsApos(ultimoId, PageRequest.of(0, tamanhoLoteReconciliacao))).isEmpty()) {
+            List<Long> lote = ids;
+            divergencias.addAll(transactionTemplate.execute(status -> reconciliarLote(lote)));
+            ultimoId = ids.get(ids.size() - 1);
+        }
+
+        if (divergencias.isEmpty())
+            log.info("Reconciliação de saldos concluída sem divergências.");
+        else
+            log.warn("Reconciliação de saldos corrigiu {} usuário(s) com divergência.", divergencias.size());
+        return divergencias;
+    }
+
+    private List<DivergenciaSaldoDTO> reconciliarLote(List<Long> ids) {
+        // o bloqueio vem antes da soma: escritas concorrentes aguardam a correção e aplicam o delta depois dela
+        Map<Long, SaldoUsuario> materializados = repository.bloquearPorUsuarios(ids).stream()
+                .collect(Collectors.toMap(SaldoUsuario::getIdUsuario, Function.identity()));
+        Map<Long, BigDecimal> calculados = somarPorUsuario(lancamentoRepository.obterTotaisPorTipo(ids));
+
+        List<DivergenciaSaldoDTO> divergencias = new ArrayList<>();
+        for (Long id : ids) {
+            BigDecimal calculado = calculados.getOrDefault(id, BigDecimal.ZERO);
+            SaldoUsuario saldo = materializados.get(id);
+            if (saldo == null) {
+                // sem linha não há o que bloquear; se uma escrita concorrente criar o saldo antes, o dela prevalece
+                primeiraEscritaRepository.inserirSaldo(id, calculado);
+            } else if (saldo.getValor().compareTo(calculado) != 0) {
+                log.warn("Saldo do usuário {} divergente: materializado {}, calculado {}.", id, saldo.getValor(), calculado);
+                divergencias.add(new DivergenciaSaldoDTO(id, saldo.getValor(), calculado));
+                saldo.setValor(calculado);
+            }
+        }
+        // o resumo bloqueia as próprias linhas; o bloqueio do saldo não impede escritas no resumo
+        resumoMensalService.reconciliar(ids);
+        // depois do resumo, na mesma ordem de bloqueio das escritas; o saldo corrigido é outra resposta
+        versaoUsuarioService.incrementar(divergencias.stream().map(DivergenciaSaldoDTO::getIdUsuario).collect(Collectors.toList()));
+        return divergencias;
+    }
+
+    private BigDecimal calcularSaldo(Long idUsuario) {
+        return somarPorUsuario(lancamentoRepository.obterTotaisPorTipo(idUsuario))
+                .getOrDefault(idUsuario, BigDecimal.ZERO);
+    }
+
+    private Map<Long, BigDecimal> somarPorUsuario(List<TotalPorTipo> totais) {
+        Map<Long, Long> centavos = new HashMap<>();
+        for (TotalPorTipo total : totais)
+            centavos.merge(total.getIdUsuario(), total.getTipo().aplicarSinal(Centavos.de(total.getTotal())), Math::addExact);
+        Map<Long, BigDecimal> saldos = new HashMap<>(centavos.size() * 2);
+        centavos.forEach((idUsuario, saldo) -> saldos.put(idUsuario, Centavos.paraValor(saldo)));
+        return saldos;
+    }
+}
@@ -0,0 +1,102 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.dto.UsuarioAutenticadoDTO;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.service.TokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Token no formato {@code <id do usuário>.<expiração em segundos>.<HMAC-SHA256 dos dois primeiros campos>}.
+ * Sem debtcontroll.token.segredo a chave é sorteada na subida e os tokens não sobrevivem a um restart
+ * nem valem entre instâncias.
+ */
+@Slf4j
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final SecretKeySpec chave;
+    private final long validadeMinutos;
+    private final ThreadLocal<Mac> macs;
+
+    public TokenServiceImpl(@Value("${debtcontroll.token.segredo:}") String segredo,
+                            @Value("${debtcontroll.token.validade-minutos:720}") long validadeMinutos) {
+        this.chave = new SecretKeySpec(bytesDoSegredo(segredo), ALGORITMO);
+        this.validadeMinutos = validadeMinutos;
+        this.macs = ThreadLocal.withInitial(this::criarMac);
+    }
+
+    @Override
+    public UsuarioAutenticadoDTO emitirToken(Usuario usuario) {
+        Instant expiraEm = Instant.now().plusSeconds(validadeMinutos * 60);
+        String conteudo = usuario.getId() + "." + expiraEm.getEpochSecond();
+        return UsuarioAutenticadoDTO.builder()
+                .id(usuario.getId())
+                .nome(usuario.getNome())
+                .email(usuario.getEmail())
+                .token(conteudo + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(assinar(conteudo)))
+                .expiraEm(expiraEm)
+                .build();
+    }
+
+    @Override
+    public Optional<Long> obterIdUsuario(String token) {
+        if (token == null)
+            return Optional.empty();
+        int fimConteudo = token.lastIndexOf('.');
+        int fimId = token.indexOf('.');
+        if (fimId <= 0 || fimConteudo == fimId)
+            return Optional.empty();
+
+        try {
+            String conteudo = token.substring(0, fimConteudo);
+            byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(fimConteudo + 1));
+            if (!MessageDigest.isEqual(assinar(conteudo), assinatura))
+                return Optional.empty();
+
+            long expiraEm = Long.parseLong(token.substring(fimId + 1, fimConteudo));
+            if (Instant.now().getEpochSecond() >= expiraEm)
+                return Optional.empty();
+            return Optional.of(Long.valueOf(token.substring(0, fimId)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] assinar(String conteudo) {
+        return macs.get().doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac criarMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytesDoSegredo(String segredo) {
+        if (segredo != null && !segredo.isEmpty())
+            return segredo.getBytes(StandardCharsets.UTF_8);
+
+        log.warn("debtcontroll.token.segredo não configurado; usando uma chave aleatória.");
+        byte[] aleatorio = new byte[32];
+        new SecureRandom().nextBytes(aleatorio);
+        return aleatorio;
+    }
+}
@@ -1,41 +1,69 @@
 package com.joaovictor.debtControll.service.impl;
 
+import com.joaovictor.debtControll.config.AutenticacaoConfig;
 import com.joaovictor.debtControll.exceptions.ErroAutenticacao;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
 import com.joaovictor.debtControll.model.entity.Usuario;
 import com.joaovictor.debtControll.model.repository.UsuarioRepository;
 import com.joaovictor.debtControll.service.UsuarioService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 
     private UsuarioRepository repository;
 
-    public UsuarioServiceImpl(UsuarioRepository repository) {
+    private PasswordEncoder passwordEncoder;
+
+    public UsuarioServiceImpl(UsuarioRepository repository, PasswordEncoder passwordEncoder) {
         super();
         this.repository = repository;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Override
+    @Timed("debtcontroll.servico")
     public Usuario autenticar(String email, String senha) {
         Optional<Usuario> usuario = repository.findByEmail(email);
 
         if (!usuario.isPresent())
             throw new ErroAutenticacao("Usuário não encontrado para o email informado");
-        if (!usuario.get().getSenha().equals(senha))
+        if (senha == null || !passwordEncoder.matches(senha, usuario.get().getSenha()))
             throw new ErroAutenticacao("Senha inválida");
+        if (passwordEncoder.upgradeEncoding(usuario.get().getSenha()))
+            repository.atualizarSenha(usuario.get().getId(), email, passwordEncoder.encode(senha));
         return usuario.get();
     }
 
     @Override
+    @Async(AutenticacaoConfig.EXECUTOR)
+    @Timed("debtcontroll.servico")
+    public CompletableFuture<Usuario> autenticarAsync(String email, String senha) {
+        return CompletableFuture.completedFuture(autenticar(email, senha));
+    }
+
+    @Override
+    @Timed("debtcontroll.servico")
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "usuarios", key = "#usuario.id", condition = "#usuario.id != null"),
+            @CacheEvict(cacheNames = "usuariosPorEmail", key = "#usuario.email", condition = "#usuario.email != null")
+    })
     public Usuario salvarUsuario(Usuario usuario) {
         validarEmail(usuario.getEmail());
+        if (usuario.getSenha() != null)
+            usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
         return repository.save(usuario);
     }
 
@@ -47,8 +75,20 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
     }
 
+    /**
+     * Só usuários encontrados ficam no cache; um id ainda inexistente continua consultando o banco.
+     */
     @Override
+    @Cacheable(cacheNames = "usuarios", key = "#id", unless = "#result == null")
     public Optional<Usuario> obterPorId(Long id) {
         return repository.findById(id);
     }
+
+    /**
+     * Referência ao usuário sem consultá-lo; a existência é garantida pela chave estrangeira na gravação.
+     */
+    @Override
+    public Usuario obterReferencia(Long id) {
+        return repository.getOne(id);
+    }
 }
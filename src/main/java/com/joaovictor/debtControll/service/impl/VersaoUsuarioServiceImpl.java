@@ -0,0 +1,53 @@
+package com.joaovictor.debtControll.service.impl;
+
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.model.repository.VersaoUsuarioRepository;
+import com.joaovictor.debtControll.service.VersaoUsuarioService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Versão dos dados de cada usuário, incrementada a cada escrita que muda o saldo ou a listagem
+ * de lançamentos. Usuário sem linha ainda não recebeu escrita desde que a versão existe: versão 0.
+ */
+@Service
+public class VersaoUsuarioServiceImpl implements VersaoUsuarioService {
+
+    private VersaoUsuarioRepository repository;
+    private PrimeiraEscritaRepository primeiraEscritaRepository;
+
+    public VersaoUsuarioServiceImpl(VersaoUsuarioRepository repository, PrimeiraEscritaRepository primeiraEscritaRepository) {
+        this.repository = repository;
+        this.primeiraEscritaRepository = primeiraEscritaRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long obterVersao(Long idUsuario) {
+        return repository.obterVersao(idUsuario).orElse(0L);
+    }
+
+    /**
+     * Deve ser chamado na mesma transação da escrita, para que a versão nova só fique visível junto
+     * com os dados que ela representa. Se outra transação criou a linha primeiro, o incremento é repetido sobre ela.
+     */
+    @Override
+    @Transactional
+    public void incrementar(Long idUsuario) {
+        if (repository.incrementar(idUsuario) == 0 && !primeiraEscritaRepository.inserirVersao(idUsuario))
+            repository.incrementar(idUsuario);
+    }
+
+    /**
+     * Em ordem de id, para que transações que alteram os mesmos usuários bloqueiem as linhas na mesma ordem.
+     */
+    @Override
+    @Transactional
+    public void incrementar(Collection<Long> idsUsuarios) {
+        for (Long idUsuario : new TreeSet<>(idsUsuarios))
+            incrementar(idUsuario);
+    }
+}
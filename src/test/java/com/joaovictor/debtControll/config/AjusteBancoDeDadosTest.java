@@ -0,0 +1,59 @@
+package com.joaovictor.debtControll.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AjusteBancoDeDadosTest {
+
+    @Test
+    public void naoDeveAjustarSemOPerfilDeProducao(){
+        //cenário
+        MockEnvironment ambiente = new MockEnvironment()
+                .withProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/debtcontroll");
+
+        //ação
+        new AjusteBancoDeDados(8).postProcessEnvironment(ambiente, null);
+
+        //verificação
+        assertFalse(ambiente.getPropertySources().contains(AjusteBancoDeDados.FONTE));
+        assertNull(ambiente.getProperty("spring.datasource.hikari.maximum-pool-size"));
+    }
+
+    @Test
+    public void deveManterOPoolMinimoSemPropriedadesDoPostgresqlEmOutroBanco(){
+        //cenário
+        MockEnvironment ambiente = new MockEnvironment()
+                .withProperty("debtcontroll.banco.ajuste-automatico", "true")
+                .withProperty("spring.datasource.url", "jdbc:h2:mem:db");
+
+        //ação
+        new AjusteBancoDeDados(2).postProcessEnvironment(ambiente, null);
+
+        //verificação
+        assertEquals(10, ambiente.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class));
+        assertEquals(10, ambiente.getProperty("spring.datasource.hikari.minimum-idle", Integer.class));
+        assertNull(ambiente.getProperty("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts"));
+    }
+
+    @Test
+    public void deveDimensionarPelosNucleosDoBancoELigarOCacheDeInstrucoesNoPostgresql(){
+        //cenário
+        MockEnvironment ambiente = new MockEnvironment()
+                .withProperty("debtcontroll.banco.ajuste-automatico", "true")
+                .withProperty("debtcontroll.banco.nucleos", "4")
+                .withProperty("debtcontroll.banco.conexoes-por-nucleo", "3")
+                .withProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/debtcontroll")
+                .withProperty("spring.datasource.hikari.minimum-idle", "2");
+
+        //ação
+        new AjusteBancoDeDados(1).postProcessEnvironment(ambiente, null);
+
+        //verificação
+        assertEquals(13, ambiente.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class));
+        assertEquals(2, ambiente.getProperty("spring.datasource.hikari.minimum-idle", Integer.class));
+        assertEquals("true", ambiente.getProperty("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts"));
+        assertEquals("512", ambiente.getProperty("spring.datasource.hikari.data-source-properties.preparedStatementCacheQueries"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.joaovictor.debtControll.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "debtcontroll.execucao.modo=ASSINCRONO",
+        "debtcontroll.execucao.compartimentos.lento.threads=1",
+        "debtcontroll.execucao.compartimentos.lento.fila=0"})
+class CompartimentosExecucaoTest {
+
+    @SpyBean
+    CompartimentosExecucao compartimentos;
+
+    @Test
+    public void deveExecutarAConsultaNoPoolDoCompartimento(){
+        //ação
+        Object resposta = compartimentos.executar("saldo", () -> ResponseEntity.ok(Thread.currentThread().getName()));
+
+        //verificação
+        assertTrue(resposta instanceof CompletableFuture);
+        ResponseEntity entidade = ((CompletableFuture<ResponseEntity>) resposta).join();
+        assertTrue(entidade.getBody().toString().startsWith("consulta-saldo-"));
+    }
+
+    @Test
+    public void deveRecusarSomenteOCompartimentoCheio() throws InterruptedException {
+        //cenário
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Object lenta = compartimentos.executar("lento", () -> {
+            iniciada.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.ok().build();
+        });
+        iniciada.await();
+
+        try {
+            //ação
+            Object recusada = compartimentos.executar("lento", () -> ResponseEntity.ok().build());
+            Object outroCompartimento = compartimentos.executar("saldo", () -> ResponseEntity.ok().build());
+
+            //verificação
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseEntity) recusada).getStatusCode());
+            assertEquals(HttpStatus.OK, ((CompletableFuture<ResponseEntity>) outroCompartimento).join().getStatusCode());
+        } finally {
+            liberar.countDown();
+        }
+        assertEquals(HttpStatus.OK, ((CompletableFuture<ResponseEntity>) lenta).join().getStatusCode());
+    }
+}
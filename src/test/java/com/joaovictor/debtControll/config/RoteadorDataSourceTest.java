@@ -0,0 +1,96 @@
+package com.joaovictor.debtControll.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoteadorDataSourceTest {
+
+    DataSource principal = h2("principal");
+    DataSource replica = h2("replica");
+
+    @AfterEach
+    public void encerrarTransacao(){
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    public void deveLerDaReplicaEEscreverNoPrincipal() throws SQLException {
+        //cenário
+        RoteadorDataSource roteador = roteador(replica, "select 0");
+
+        //ação e verificação
+        assertEquals("PRINCIPAL", banco(roteador));
+        transacao(true);
+        assertEquals("REPLICA", banco(roteador));
+        transacao(false);
+        assertEquals("PRINCIPAL", banco(roteador));
+    }
+
+    @Test
+    public void deveLerDoPrincipalQuandoAReplicaPassarDoAtrasoMaximo() throws SQLException {
+        //cenário
+        JdbcTemplate jdbc = new JdbcTemplate(replica);
+        jdbc.execute("create table if not exists atraso (segundos decimal)");
+        jdbc.update("delete from atraso");
+        jdbc.update("insert into atraso values (10)");
+        RoteadorDataSource roteador = roteador(replica, "select segundos from atraso");
+        transacao(true);
+
+        //ação e verificação
+        assertEquals("PRINCIPAL", banco(roteador));
+        jdbc.update("update atraso set segundos = 0.5");
+        roteador.verificarReplicas();
+        assertEquals("REPLICA", banco(roteador));
+    }
+
+    @Test
+    public void deveLerDoPrincipalQuandoAReplicaNaoResponder() throws SQLException {
+        //cenário
+        DriverManagerDataSource foraDoAr = new DriverManagerDataSource("jdbc:h2:mem:replica;IFEXISTS=TRUE;INIT=select 1/0", "sa", "sa");
+        RoteadorDataSource roteador = roteador(foraDoAr, "select 0");
+        transacao(true);
+
+        //ação e verificação
+        assertEquals("PRINCIPAL", banco(roteador));
+    }
+
+    private RoteadorDataSource roteador(DataSource replica, String consultaAtraso) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica);
+        RoteadorDataSource roteador = new RoteadorDataSource(principal, replicas, consultaAtraso, 1000);
+        roteador.verificarReplicas();
+        return roteador;
+    }
+
+    private void transacao(boolean somenteLeitura) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(somenteLeitura);
+    }
+
+    private String banco(DataSource dataSource) throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             Statement instrucao = conexao.createStatement();
+             ResultSet resultado = instrucao.executeQuery("select database()")) {
+            resultado.next();
+            return resultado.getString(1);
+        }
+    }
+
+    private static DataSource h2(String nome) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "sa");
+    }
+}
@@ -0,0 +1,238 @@
+package com.joaovictor.debtControll.controller;
+
+import com.joaovictor.debtControll.config.CompartimentosExecucao;
+import com.joaovictor.debtControll.dto.ResultadoAtualizacaoStatusDTO;
+import com.joaovictor.debtControll.dto.ResultadoImportacaoDTO;
+import com.joaovictor.debtControll.exceptions.AcessoNegadoException;
+import com.joaovictor.debtControll.metricas.ContadorRejeicoes;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.service.AtualizacaoStatusLancamentoService;
+import com.joaovictor.debtControll.service.CategoriaService;
+import com.joaovictor.debtControll.service.ExportacaoLancamentoService;
+import com.joaovictor.debtControll.service.ImportacaoLancamentoService;
+import com.joaovictor.debtControll.service.LancamentoService;
+import com.joaovictor.debtControll.service.TokenService;
+import com.joaovictor.debtControll.service.UsuarioService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoController.class)
+@AutoConfigureMockMvc
+@Import(CompartimentosExecucao.class)
+class LancamentoControllerTest {
+
+    static final String API = "/api/lancamentos";
+    static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    static final int UM_MEGABYTE = 1024 * 1024;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Value("${spring.servlet.multipart.max-file-size}")
+    String tamanhoMaximoArquivo;
+
+    @Value("${spring.servlet.multipart.max-request-size}")
+    String tamanhoMaximoRequisicao;
+
+    @MockBean
+    LancamentoService service;
+
+    @MockBean
+    UsuarioService usuarioService;
+
+    @MockBean
+    CategoriaService categoriaService;
+
+    @MockBean
+    ImportacaoLancamentoService importacaoService;
+
+    @MockBean
+    AtualizacaoStatusLancamentoService atualizacaoStatusService;
+
+    @MockBean
+    ExportacaoLancamentoService exportacaoService;
+
+    @MockBean
+    ContadorRejeicoes rejeicoes;
+
+    @MockBean
+    TokenService tokenService;
+
+    @Test
+    public void deveImportarUmCsvMaiorQueOLimitePadraoDeUploadLendoOCorpoEmFluxo() throws Exception {
+        //cenário
+        StringBuilder csv = new StringBuilder("descricao;mes;ano;valor;usuario;tipo\n");
+        while (csv.length() <= 2 * UM_MEGABYTE)
+            csv.append("Mercado do bairro;1;2020;150,00;1;DESPESA\n");
+        byte[] corpo = csv.toString().getBytes(StandardCharsets.UTF_8);
+        AtomicLong lidos = new AtomicLong();
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(importacaoService.importarCsv(Mockito.any(InputStream.class), Mockito.eq(1l))).thenAnswer(invocacao -> {
+            InputStream entrada = invocacao.getArgument(0);
+            byte[] buffer = new byte[8192];
+            for (int n; (n = entrada.read(buffer)) != -1; )
+                lidos.addAndGet(n);
+            return new ResultadoImportacaoDTO();
+        });
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/importacao"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType("text/csv")
+                .content(corpo);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(corpo.length, lidos.get());
+    }
+
+    @Test
+    public void deveAceitarUploadMultipartMaiorQueOLimitePadrao(){
+        assertTrue(DataSize.parse(tamanhoMaximoArquivo).toBytes() > 2 * UM_MEGABYTE);
+        assertTrue(DataSize.parse(tamanhoMaximoRequisicao).toBytes() > 2 * UM_MEGABYTE);
+    }
+
+    @Test
+    public void deveRecusarAsOperacoesDeLancamentoSemToken() throws Exception {
+        //ação e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/export")).param("usuario", "1"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        mvc.perform(MockMvcRequestBuilders.post(API).contentType(JSON)
+                        .content("{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2020,\"valor\":10,\"usuario\":1,\"tipo\":\"DESPESA\"}"))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        mvc.perform(MockMvcRequestBuilders.delete(API.concat("/1")))
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        Mockito.verifyNoInteractions(service, exportacaoService);
+    }
+
+    @Test
+    public void deveRecusarAConsultaDeLancamentosDeOutroUsuarioQueNaoODoToken() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+
+        //ação e verificação
+        mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verify(service, Mockito.never()).buscar(Mockito.any());
+    }
+
+    @Test
+    public void deveRecusarAAtualizacaoDeStatusDeLancamentoDeOutroUsuario() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+        Mockito.when(service.atulizarStatus(Mockito.any(Lancamento.class), Mockito.eq(StatusLancamento.EFETIVADO), Mockito.eq(2l)))
+                .thenThrow(new AcessoNegadoException(LancamentoController.MENSAGEM_ACESSO_NEGADO));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/1/atualiza-status"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType(JSON)
+                .content("{\"status\":\"EFETIVADO\"}");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.content().string(LancamentoController.MENSAGEM_ACESSO_NEGADO));
+    }
+
+    @Test
+    public void deveRecusarAAtualizacaoDeStatusEmLoteParaOutroUsuarioQueNaoODoToken() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/status"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType(JSON)
+                .content("{\"ids\":[1,2],\"usuario\":1,\"status\":\"EFETIVADO\"}");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verifyNoInteractions(atualizacaoStatusService);
+    }
+
+    @Test
+    public void deveAtualizarOStatusEmLoteSomenteDosLancamentosDoUsuarioDoToken() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+        Mockito.when(atualizacaoStatusService.atualizar(Arrays.asList(1l, 2l), StatusLancamento.EFETIVADO, 2l))
+                .thenReturn(new ResultadoAtualizacaoStatusDTO());
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .put(API.concat("/status"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType(JSON)
+                .content("{\"ids\":[1,2],\"status\":\"EFETIVADO\"}");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(atualizacaoStatusService).atualizar(Arrays.asList(1l, 2l), StatusLancamento.EFETIVADO, 2l);
+    }
+
+    @Test
+    public void deveRecusarAExclusaoDeLancamentoDeOutroUsuario() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(Lancamento.builder().id(1l).usuario(Usuario.builder().id(1l).build()).build()));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .delete(API.concat("/1"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verify(service, Mockito.never()).deletar(Mockito.any());
+    }
+
+    @Test
+    public void deveImportarComOUsuarioDoToken() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/importacao"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType(JSON)
+                .content("[]");
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Mockito.verify(importacaoService).importarJson(Mockito.any(), Mockito.eq(2l));
+    }
+}
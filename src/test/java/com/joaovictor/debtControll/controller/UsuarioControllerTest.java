@@ -2,11 +2,22 @@ package com.joaovictor.debtControll.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joaovictor.debtControll.config.CompartimentosExecucao;
+import com.joaovictor.debtControll.dto.PrevisaoSaldoDTO;
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
+import com.joaovictor.debtControll.dto.TotalCategoriaDTO;
+import com.joaovictor.debtControll.dto.UsuarioAutenticadoDTO;
 import com.joaovictor.debtControll.dto.UsuarioDTO;
 import com.joaovictor.debtControll.exceptions.ErroAutenticacao;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.metricas.ContadorRejeicoes;
 import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.service.CategoriaService;
 import com.joaovictor.debtControll.service.LancamentoService;
+import com.joaovictor.debtControll.service.PrevisaoSaldoService;
+import com.joaovictor.debtControll.service.TokenService;
 import com.joaovictor.debtControll.service.UsuarioService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,20 +26,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = UsuarioController.class)
 @AutoConfigureMockMvc
+@Import(CompartimentosExecucao.class)
 class UsuarioControllerTest {
 
     static final String API = "/api/usuarios";
@@ -43,6 +67,18 @@ class UsuarioControllerTest {
     @MockBean
     LancamentoService lancamentoService;
 
+    @MockBean
+    ContadorRejeicoes rejeicoes;
+
+    @MockBean
+    TokenService tokenService;
+
+    @MockBean
+    PrevisaoSaldoService previsaoSaldoService;
+
+    @MockBean
+    CategoriaService categoriaService;
+
     @Test
     public void deveAutenticarUmUsuario() throws Exception {
         //cenário
@@ -58,7 +94,11 @@ class UsuarioControllerTest {
                 .email(email)
                 .senha(senha).build();
 
-        Mockito.when(service.autenticar(email,senha)).thenReturn(usuario);
+        Mockito.when(service.autenticarAsync(email,senha)).thenReturn(CompletableFuture.completedFuture(usuario));
+        Mockito.when(tokenService.emitirToken(usuario)).thenReturn(UsuarioAutenticadoDTO.builder()
+                .id(usuario.getId())
+                .email(email)
+                .token("1.1700000000.assinatura").build());
         String json = new ObjectMapper().writeValueAsString(dto);
 
         //ação e verificação
@@ -68,11 +108,13 @@ class UsuarioControllerTest {
                 .contentType(JSON)
                 .content(json);
 
-        mvc.perform(request)
+        MvcResult resultado = mvc.perform(request).andReturn();
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
                 .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+                .andExpect(MockMvcResultMatchers.jsonPath("token").value("1.1700000000.assinatura"));
     }
 
     @Test
@@ -85,7 +127,9 @@ class UsuarioControllerTest {
                 .email(email)
                 .senha(senha).build();
 
-        Mockito.when(service.autenticar(email,senha)).thenThrow(ErroAutenticacao.class);
+        CompletableFuture<Usuario> falha = new CompletableFuture<>();
+        falha.completeExceptionally(new CompletionException(new ErroAutenticacao("Senha inválida")));
+        Mockito.when(service.autenticarAsync(email,senha)).thenReturn(falha);
         String json = new ObjectMapper().writeValueAsString(dto);
 
         //ação e verificação
@@ -95,8 +139,34 @@ class UsuarioControllerTest {
                 .contentType(JSON)
                 .content(json);
 
-        mvc.perform(request)
+        MvcResult resultado = mvc.perform(request).andReturn();
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(rejeicoes).registrar(Mockito.any(ErroAutenticacao.class));
+    }
+
+    @Test
+    public void deveRetornarServiceUnavailableQuandoAFilaDeAutenticacaoEstiverCheia() throws Exception {
+        //cenário
+        UsuarioDTO dto = UsuarioDTO.builder()
+                .email("usuario@email.com")
+                .senha("senha").build();
+
+        Mockito.when(service.autenticarAsync(Mockito.anyString(), Mockito.anyString()))
+                .thenThrow(new TaskRejectedException("fila cheia"));
+        String json = new ObjectMapper().writeValueAsString(dto);
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .post(API.concat("/autenticar"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(json);
+
+        MvcResult resultado = mvc.perform(request).andReturn();
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
     }
 
     @Test
@@ -154,4 +224,172 @@ class UsuarioControllerTest {
         mvc.perform(request)
                 .andExpect(MockMvcResultMatchers.status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deveObterOResumoMensalDoUsuario() throws Exception {
+        //cenário
+        ResumoMensalDTO janeiro = new ResumoMensalDTO(1);
+        janeiro.adicionar(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(500));
+
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(lancamentoService.obterResumoMensal(1l, 2020)).thenReturn(Collections.singletonList(janeiro));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/resumo"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .param("ano", "2020")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].mes").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].receitas.EFETIVADO").value(500))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].despesas.PENDENTE").value(0));
+    }
+
+    @Test
+    public void deveObterAPrevisaoDeSaldoDoUsuario() throws Exception {
+        //cenário
+        PrevisaoSaldoDTO marco = new PrevisaoSaldoDTO(2021, 3, BigDecimal.valueOf(500), BigDecimal.valueOf(-200),
+                BigDecimal.valueOf(1500), BigDecimal.valueOf(1300));
+
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(previsaoSaldoService.obterPrevisao(1l, YearMonth.of(2021, 3), YearMonth.of(2021, 3)))
+                .thenReturn(Collections.singletonList(marco));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/previsao"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .param("inicio", "2021-03")
+                .param("fim", "2021-03")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].mes").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldoRealizado").value(1500))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].saldoPrevisto").value(1300));
+    }
+
+    @Test
+    public void deveObterOsTotaisPorCategoriaDoMes() throws Exception {
+        //cenário
+        TotalCategoriaDTO moradia = new TotalCategoriaDTO(3, "moradia", BigDecimal.ZERO, BigDecimal.valueOf(1900));
+
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(categoriaService.obterTotais(1l, 2020, 1)).thenReturn(Collections.singletonList(moradia));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/categorias"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .param("ano", "2020")
+                .param("mes", "1")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].categoria").value("moradia"))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].despesas").value(1900));
+    }
+
+    @Test
+    public void deveObterOSaldoDoUsuarioDoTokenSemConsultarOUsuario() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(BigDecimal.TEN);
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/saldo"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("10"));
+        Mockito.verify(service, Mockito.never()).obterPorId(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveInformarAVersaoDoUsuarioComoETagDoSaldo() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(lancamentoService.obterVersaoPorUsuario(1l)).thenReturn(7l);
+        Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(BigDecimal.TEN);
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/saldo"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-6\"")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"1-7\""))
+                .andExpect(MockMvcResultMatchers.content().string("10"));
+    }
+
+    @Test
+    public void deveResponderNaoModificadoSemCalcularOSaldoQuandoAVersaoNaoMudou() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(1l));
+        Mockito.when(lancamentoService.obterVersaoPorUsuario(1l)).thenReturn(7l);
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/saldo"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-7\"")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "W/\"1-7\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+        Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveRecusarOSaldoDeOutroUsuarioQueNaoODoToken() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario("token")).thenReturn(Optional.of(2l));
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/saldo"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveRecusarConsultasDoUsuarioSemToken() throws Exception {
+        //ação e verificação
+        for (String consulta : Arrays.asList("/1/saldo", "/1/resumo?ano=2020", "/1/previsao?inicio=2021-03&fim=2021-03", "/1/categorias?ano=2020"))
+            mvc.perform(MockMvcRequestBuilders.get(API.concat(consulta)).accept(JSON))
+                    .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+        Mockito.verifyNoInteractions(lancamentoService, previsaoSaldoService, categoriaService);
+    }
+
+    @Test
+    public void deveRecusarTokenInvalido() throws Exception {
+        //cenário
+        Mockito.when(tokenService.obterIdUsuario(Mockito.anyString())).thenReturn(Optional.empty());
+
+        //ação e verificação
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(API.concat("/1/saldo"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer adulterado")
+                .accept(JSON);
+
+        mvc.perform(request)
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+}
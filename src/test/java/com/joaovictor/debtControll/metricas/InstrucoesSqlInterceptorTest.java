@@ -0,0 +1,61 @@
+package com.joaovictor.debtControll.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrucoesSqlInterceptorTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    InstrucoesSqlInterceptor interceptor = new InstrucoesSqlInterceptor(registry);
+    ContadorInstrucoesSql inspetor = new ContadorInstrucoesSql();
+
+    @Test
+    public void deveRegistrarAsInstrucoesExecutadasPelaRequisicaoPorRota(){
+        //cenário
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/usuarios/1/saldo");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/usuarios/{id}/saldo");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //ação
+        interceptor.preHandle(request, response, null);
+        inspetor.inspect("select 1");
+        inspetor.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+        inspetor.inspect("select 3");
+
+        //verificação
+        DistributionSummary resumo = registry.get(InstrucoesSqlInterceptor.METRICA)
+                .tag("method", "GET")
+                .tag("uri", "/api/usuarios/{id}/saldo")
+                .summary();
+        assertEquals(1, resumo.count());
+        assertEquals(2, resumo.totalAmount());
+    }
+
+    @Test
+    public void naoDeveRegistrarODespachoAssincronoDeUmaRespostaEmStream(){
+        //cenário
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos/stream");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //ação
+        interceptor.preHandle(request, response, null);
+        inspetor.inspect("select 1");
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        //verificação
+        assertNull(registry.find(InstrucoesSqlInterceptor.METRICA).summary());
+    }
+}
@@ -0,0 +1,29 @@
+package com.joaovictor.debtControll.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentavosTest {
+
+    @Test
+    public void deveConverterNosDoisSentidosSemPerda(){
+        //ação
+        long centavos = Centavos.de(new BigDecimal("1234.5"));
+
+        //verificação
+        assertEquals(123450l, centavos);
+        assertEquals(new BigDecimal("1234.50"), Centavos.paraValor(centavos));
+        assertEquals(new BigDecimal("-0.07"), Centavos.paraValor(Centavos.de(new BigDecimal("-0.070"))));
+    }
+
+    @Test
+    public void deveRecusarValoresComFracaoDeCentavo(){
+        //ação e verificação
+        assertFalse(Centavos.representavel(new BigDecimal("10.005")));
+        assertTrue(Centavos.representavel(new BigDecimal("10.0500")));
+        assertThrows(ArithmeticException.class, () -> Centavos.de(new BigDecimal("10.005")));
+    }
+}
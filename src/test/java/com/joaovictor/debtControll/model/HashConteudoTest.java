@@ -0,0 +1,48 @@
+package com.joaovictor.debtControll.model;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashConteudoTest {
+
+    @Test
+    public void deveIgnorarEspacosMaiusculasEZerosADireita(){
+        //cenário
+        Lancamento lancamento = lancamento(1l, "Conta de  luz ", new BigDecimal("150.0"));
+        Lancamento reenvio = lancamento(1l, "conta de luz", new BigDecimal("150"));
+
+        //ação e verificação
+        assertEquals(HashConteudo.calcular(lancamento), HashConteudo.calcular(reenvio));
+        assertTrue(HashConteudo.mesmoConteudo(lancamento, reenvio));
+    }
+
+    @Test
+    public void deveDiferenciarUsuarioValorEDescricao(){
+        //cenário
+        long hash = HashConteudo.calcular(lancamento(1l, "Conta de luz", BigDecimal.valueOf(150)));
+
+        //ação e verificação
+        assertNotEquals(hash, HashConteudo.calcular(lancamento(2l, "Conta de luz", BigDecimal.valueOf(150))));
+        assertNotEquals(hash, HashConteudo.calcular(lancamento(1l, "Conta de luz", BigDecimal.valueOf(151))));
+        assertNotEquals(hash, HashConteudo.calcular(lancamento(1l, "Conta de água", BigDecimal.valueOf(150))));
+        assertFalse(HashConteudo.mesmoConteudo(lancamento(1l, "Conta de luz", BigDecimal.valueOf(150)),
+                lancamento(1l, "Conta de luz", BigDecimal.valueOf(151))));
+    }
+
+    private Lancamento lancamento(Long idUsuario, String descricao, BigDecimal valor) {
+        return Lancamento.builder()
+                .usuario(Usuario.builder().id(idUsuario).build())
+                .ano(2020)
+                .mes(3)
+                .descricao(descricao)
+                .valor(valor)
+                .tipo(TipoLancamento.DESPESA)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.joaovictor.debtControll.model;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RestricoesTest {
+
+    @Autowired
+    LancamentoRepository repository;
+
+    @Test
+    public void deveIdentificarAChaveEstrangeiraDoUsuarioNaViolacaoDoBanco(){
+        //cenário
+        Lancamento lancamento = Lancamento.builder()
+                .descricao("Aluguel")
+                .mes(1)
+                .ano(2020)
+                .valor(BigDecimal.TEN)
+                .tipo(TipoLancamento.DESPESA)
+                .status(StatusLancamento.PENDENTE)
+                .usuario(Usuario.builder().id(99l).build())
+                .build();
+
+        //ação
+        DataIntegrityViolationException violacao = assertThrows(DataIntegrityViolationException.class,
+                () -> repository.saveAndFlush(lancamento));
+
+        //verificação
+        assertTrue(Restricoes.violou(violacao, Restricoes.FK_LANCAMENTO_USUARIO));
+        assertFalse(Restricoes.violou(violacao, Restricoes.FK_RECORRENCIA_USUARIO));
+    }
+}
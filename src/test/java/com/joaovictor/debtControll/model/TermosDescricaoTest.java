@@ -0,0 +1,40 @@
+package com.joaovictor.debtControll.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermosDescricaoTest {
+
+    @Test
+    public void deveIndexarOsPrefixosNormalizadosDeCadaPalavra(){
+        //ação
+        Set<String> termos = TermosDescricao.indexar("Conta de Água");
+
+        //verificação
+        assertEquals(new HashSet<>(Arrays.asList("con", "cont", "conta", "agu", "agua")), termos);
+    }
+
+    @Test
+    public void deveLimitarOTamanhoDosTermosIndexadosEConsultados(){
+        //cenário
+        String palavra = "anticonstitucionalissimamente";
+
+        //ação
+        Set<String> termos = TermosDescricao.indexar(palavra);
+
+        //verificação
+        assertEquals(TermosDescricao.TAMANHO_MAXIMO - TermosDescricao.TAMANHO_MINIMO + 1, termos.size());
+        assertTrue(termos.containsAll(TermosDescricao.consultar(palavra.toUpperCase())));
+    }
+
+    @Test
+    public void deveRetornarVazioParaDescricaoNula(){
+        assertTrue(TermosDescricao.indexar(null).isEmpty());
+        assertTrue(TermosDescricao.consultar(null).isEmpty());
+    }
+}
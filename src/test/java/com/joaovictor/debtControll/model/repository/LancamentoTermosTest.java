@@ -0,0 +1,86 @@
+package com.joaovictor.debtControll.model.repository;
+
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LancamentoTermosTest {
+
+    @Autowired
+    LancamentoRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    public void criarUsuario(){
+        jdbc.update("insert into debt.usuario (id, nome, email, senha) values (1, 'usuario', 'usuario@email.com', 'senha')");
+    }
+
+    @Test
+    public void deveIndexarOsTermosDosLancamentosGravadosAntesDoIndice(){
+        //cenário
+        lancarSemTermos(1l, "Conta de Água");
+        lancarSemTermos(2l, "Pão");
+
+        //ação
+        int preenchidos = repository.preencherTermos(10);
+
+        //verificação
+        assertEquals(2, preenchidos);
+        List<String> termos = jdbc.queryForList("select termo from debt.lancamento_termo where id_lancamento = 1 order by termo", String.class);
+        assertEquals(List.of("agu", "agua", "con", "cont", "conta"), termos);
+        assertEquals(List.of("pao"), jdbc.queryForList("select termo from debt.lancamento_termo where id_lancamento = 2", String.class));
+        assertEquals(0, jdbc.queryForObject("select count(*) from debt.lancamento where termos_indexados is null", Integer.class));
+        assertEquals(0, repository.preencherTermos(10));
+    }
+
+    @Test
+    public void deveBuscarPorLikeSemAcentoEnquantoOIndiceNaoEstaDisponivel(){
+        //cenário
+        lancarSemTermos(1l, "Conta de Água");
+        Lancamento filtro = Lancamento.builder().descricao("agua").build();
+
+        //ação
+        List<Lancamento> semIndice = repository.findAll(LancamentoSpecifications.filtro(filtro, false));
+        List<Lancamento> comIndice = repository.findAll(LancamentoSpecifications.filtro(filtro, true));
+
+        //verificação
+        assertEquals(1, semIndice.size());
+        assertTrue(comIndice.isEmpty());
+    }
+
+    @Test
+    public void deveCompararPalavrasCurtasComADescricaoNormalizada(){
+        //cenário
+        lancarSemTermos(1l, "Pão de Açúcar");
+        repository.preencherTermos(10);
+
+        //ação
+        List<Lancamento> encontrados = repository.findAll(LancamentoSpecifications.filtro(
+                Lancamento.builder().descricao("Pã de ACU").build(), true));
+
+        //verificação
+        assertEquals(1, encontrados.size());
+    }
+
+    private void lancarSemTermos(Long id, String descricao) {
+        jdbc.update("insert into debt.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, versao) " +
+                "values (?, ?, 6, 2020, 1, 10, 'DESPESA', 'PENDENTE', 0)", id, descricao);
+    }
+}
@@ -0,0 +1,126 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.ResultadoAtualizacaoStatusDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.impl.AtualizacaoStatusLancamentoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "debtcontroll.lancamentos.status.tamanho-lote=2")
+class AtualizacaoStatusLancamentoServiceTest {
+
+    @SpyBean
+    AtualizacaoStatusLancamentoServiceImpl service;
+
+    @MockBean
+    LancamentoRepository repository;
+
+    @MockBean
+    ResumoMensalService resumoMensalService;
+
+    @MockBean
+    VersaoUsuarioService versaoUsuarioService;
+
+    @MockBean
+    EventoLancamentoService eventoService;
+
+    @MockBean
+    IndiceTermosService indiceTermosService;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveAtualizarOsIdsEmLotesContandoOsQueJaEstavamNoStatus(){
+        //cenário
+        List<EstadoLancamento> primeiroLote = Arrays.asList(
+                estado(1l, 1, TipoLancamento.DESPESA, 100), estado(2l, 1, TipoLancamento.DESPESA, 50));
+        List<EstadoLancamento> segundoLote = Collections.singletonList(estado(3l, 2, TipoLancamento.RECEITA, 30));
+        Mockito.when(repository.bloquearParaAlterarStatus(Arrays.asList(1l, 2l), 1l, StatusLancamento.EFETIVADO)).thenReturn(primeiroLote);
+        Mockito.when(repository.bloquearParaAlterarStatus(Arrays.asList(3l, 4l), 1l, StatusLancamento.EFETIVADO)).thenReturn(segundoLote);
+        Mockito.when(repository.atualizarStatus(Arrays.asList(1l, 2l), 1l, StatusLancamento.EFETIVADO)).thenReturn(2);
+        Mockito.when(repository.atualizarStatus(Collections.singletonList(3l), 1l, StatusLancamento.EFETIVADO)).thenReturn(1);
+
+        //ação
+        ResultadoAtualizacaoStatusDTO resultado = service.atualizar(Arrays.asList(4l, 2l, 3l, 1l, 2l), StatusLancamento.EFETIVADO, 1l);
+
+        //verificação
+        assertEquals(3, resultado.getAtualizados());
+        assertEquals(1, resultado.getIgnorados());
+        Mockito.verify(resumoMensalService).aplicar(chave(1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE), new BigDecimal("-150.00"));
+        Mockito.verify(resumoMensalService).aplicar(chave(1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO), new BigDecimal("150.00"));
+        Mockito.verify(resumoMensalService).aplicar(chave(2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE), new BigDecimal("-30.00"));
+        Mockito.verify(resumoMensalService).aplicar(chave(2, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO), new BigDecimal("30.00"));
+    }
+
+    @Test
+    public void devePercorrerOFiltroPorIdAteNaoRestaremLancamentos(){
+        //cenário
+        Mockito.when(repository.buscarIds(Mockito.any(Specification.class), Mockito.eq(2)))
+                .thenReturn(Arrays.asList(1l, 2l), Collections.singletonList(5l), Collections.emptyList());
+        Mockito.when(repository.bloquearParaAlterarStatus(Mockito.anyCollection(), Mockito.eq(1l), Mockito.eq(StatusLancamento.CANCELADO)))
+                .thenReturn(Collections.emptyList());
+        Lancamento filtro = Lancamento.builder().ano(2020).usuario(Usuario.builder().id(1l).build()).build();
+
+        //ação
+        ResultadoAtualizacaoStatusDTO resultado = service.atualizar(filtro, StatusLancamento.CANCELADO);
+
+        //verificação
+        assertEquals(0, resultado.getAtualizados());
+        assertEquals(3, resultado.getIgnorados());
+        Mockito.verify(repository, Mockito.times(3)).buscarIds(Mockito.any(Specification.class), Mockito.eq(2));
+        Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveLancarErroAoAtualizarPorFiltroSemUsuario(){
+        Lancamento filtro = Lancamento.builder().ano(2020).usuario(Usuario.builder().build()).build();
+        assertThrows(RegraNegocioException.class, () -> service.atualizar(filtro, StatusLancamento.EFETIVADO));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveLancarErroAoAtualizarListaVaziaDeIds(){
+        assertThrows(RegraNegocioException.class, () -> service.atualizar(Collections.emptyList(), StatusLancamento.EFETIVADO, 1l));
+    }
+
+    private ResumoMensalId chave(int mes, TipoLancamento tipo, StatusLancamento status) {
+        return new ResumoMensalId(1l, 2020, mes, tipo, status);
+    }
+
+    private EstadoLancamento estado(Long id, int mes, TipoLancamento tipo, long valor) {
+        EstadoLancamento estado = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(estado.getId()).thenReturn(id);
+        Mockito.when(estado.getIdUsuario()).thenReturn(1l);
+        Mockito.when(estado.getAno()).thenReturn(2020);
+        Mockito.when(estado.getMes()).thenReturn(mes);
+        Mockito.when(estado.getTipo()).thenReturn(tipo);
+        Mockito.when(estado.getStatus()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(estado.getValor()).thenReturn(BigDecimal.valueOf(valor));
+        return estado;
+    }
+}
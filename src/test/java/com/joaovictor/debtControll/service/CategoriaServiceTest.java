@@ -0,0 +1,135 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.TotalCategoriaDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.Categoria;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.TotalPorCategoria;
+import com.joaovictor.debtControll.model.repository.CategoriaRepository;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.impl.CategoriaServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class CategoriaServiceTest {
+
+    @SpyBean
+    CategoriaServiceImpl service;
+
+    @MockBean
+    CategoriaRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveReutilizarACategoriaExistentePeloNomeNormalizado(){
+        //cenário
+        Mockito.when(repository.findByNome("casa e moradia")).thenReturn(Optional.of(Categoria.builder().id(3).nome("casa e moradia").build()));
+
+        //ação
+        Integer id = service.obterId("  Casa   e MORADIA ");
+
+        //verificação
+        assertEquals(3, id);
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any());
+    }
+
+    @Test
+    public void deveCriarACategoriaInexistente(){
+        //cenário
+        Mockito.when(repository.findByNome("mercado")).thenReturn(Optional.empty());
+        Mockito.when(repository.saveAndFlush(Mockito.any(Categoria.class))).thenReturn(Categoria.builder().id(7).nome("mercado").build());
+
+        //ação
+        Integer id = service.obterId("Mercado");
+
+        //verificação
+        assertEquals(7, id);
+        Mockito.verify(repository).saveAndFlush(Mockito.argThat(categoria -> "mercado".equals(categoria.getNome())));
+    }
+
+    @Test
+    public void deveUsarACategoriaCriadaAoMesmoTempoPorOutraRequisicao(){
+        //cenário
+        Mockito.when(repository.findByNome("mercado"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(Categoria.builder().id(8).nome("mercado").build()));
+        Mockito.when(repository.saveAndFlush(Mockito.any(Categoria.class))).thenThrow(new DataIntegrityViolationException("uk_categoria_nome"));
+
+        //ação
+        Integer id = service.obterId("mercado");
+
+        //verificação
+        assertEquals(8, id);
+    }
+
+    @Test
+    public void naoDeveCriarCategoriaSemNomeOuComNomeLongo(){
+        assertNull(service.obterId("   "));
+        assertThrows(RegraNegocioException.class, () -> service.obterId(String.join("", Collections.nCopies(61, "a"))));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveTotalizarPorCategoriaDasMaioresDespesasParaAsMenores(){
+        //cenário
+        List<TotalPorCategoria> totais = Arrays.asList(
+                total(1, TipoLancamento.DESPESA, 300),
+                total(2, TipoLancamento.DESPESA, 1900),
+                total(1, TipoLancamento.RECEITA, 50),
+                total(null, TipoLancamento.DESPESA, 20));
+        Mockito.when(lancamentoRepository.obterTotaisPorCategoria(1l, 2020, 1, StatusLancamento.CANCELADO)).thenReturn(totais);
+        Mockito.when(repository.findAllById(Mockito.anyCollection())).thenReturn(Arrays.asList(
+                Categoria.builder().id(1).nome("mercado").build(),
+                Categoria.builder().id(2).nome("moradia").build()));
+
+        //ação
+        List<TotalCategoriaDTO> resultado = service.obterTotais(1l, 2020, 1);
+
+        //verificação
+        assertEquals(3, resultado.size());
+        assertEquals("moradia", resultado.get(0).getCategoria());
+        assertEquals(BigDecimal.valueOf(1900), resultado.get(0).getDespesas());
+        assertEquals("mercado", resultado.get(1).getCategoria());
+        assertEquals(BigDecimal.valueOf(50), resultado.get(1).getReceitas());
+        assertEquals(BigDecimal.valueOf(300), resultado.get(1).getDespesas());
+        assertNull(resultado.get(2).getIdCategoria());
+        assertNull(resultado.get(2).getCategoria());
+    }
+
+    @Test
+    public void naoDeveTotalizarComMesInvalido(){
+        assertThrows(RegraNegocioException.class, () -> service.obterTotais(1l, 2020, 13));
+        Mockito.verifyNoInteractions(lancamentoRepository);
+    }
+
+    private TotalPorCategoria total(Integer idCategoria, TipoLancamento tipo, long valor) {
+        TotalPorCategoria total = Mockito.mock(TotalPorCategoria.class);
+        Mockito.when(total.getIdCategoria()).thenReturn(idCategoria);
+        Mockito.when(total.getTipo()).thenReturn(tipo);
+        Mockito.when(total.getTotal()).thenReturn(BigDecimal.valueOf(valor));
+        return total;
+    }
+}
@@ -0,0 +1,69 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.DuplicidadeLancamentoDTO;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.projection.GrupoDuplicados;
+import com.joaovictor.debtControll.model.repository.ChaveIdempotenciaRepository;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.impl.DuplicidadeLancamentoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class DuplicidadeLancamentoServiceTest {
+
+    @SpyBean
+    DuplicidadeLancamentoServiceImpl service;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void devePreencherOsHashesAusentesAntesDeAgruparOsDuplicados(){
+        //cenário
+        Mockito.when(lancamentoRepository.preencherHashConteudo(Mockito.anyInt())).thenReturn(1000, 20, 0);
+        GrupoDuplicados grupo = Mockito.mock(GrupoDuplicados.class);
+        Mockito.when(grupo.getIdUsuario()).thenReturn(1l);
+        Mockito.when(grupo.getIdOriginal()).thenReturn(10l);
+        Mockito.when(grupo.getQuantidade()).thenReturn(3l);
+        Mockito.when(lancamentoRepository.obterDuplicados(StatusLancamento.CANCELADO)).thenReturn(Collections.singletonList(grupo));
+
+        //ação
+        List<DuplicidadeLancamentoDTO> duplicados = service.localizarDuplicados();
+
+        //verificação
+        assertEquals(Collections.singletonList(new DuplicidadeLancamentoDTO(1l, 10l, 3l)), duplicados);
+        Mockito.verify(lancamentoRepository, Mockito.times(3)).preencherHashConteudo(Mockito.anyInt());
+    }
+
+    @Test
+    public void deveRemoverAsChavesDeIdempotenciaExpiradas(){
+        //cenário
+        Mockito.when(chaveIdempotenciaRepository.removerExpiradas(Mockito.any(Instant.class))).thenReturn(4);
+
+        //ação
+        int removidas = service.removerChavesExpiradas();
+
+        //verificação
+        assertEquals(4, removidas);
+    }
+}
@@ -0,0 +1,110 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
+import com.joaovictor.debtControll.model.enums.ModoDurabilidadeEventos;
+import com.joaovictor.debtControll.model.enums.TipoEventoLancamento;
+import com.joaovictor.debtControll.model.repository.EventoLancamentoRepository;
+import com.joaovictor.debtControll.service.impl.EventoLancamentoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class EventoLancamentoServiceTest {
+
+    @SpyBean
+    EventoLancamentoServiceImpl service;
+
+    @MockBean
+    EventoLancamentoRepository repository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveGravarPelaThreadDoDiarioOsEventosPublicadosForaDeTransacao(){
+        //cenário
+        EventoLancamento primeiro = evento(1l);
+        EventoLancamento segundo = evento(2l);
+
+        //ação
+        service.registrar(Arrays.asList(primeiro, segundo));
+
+        //verificação
+        Mockito.verify(repository, Mockito.timeout(2000).atLeastOnce()).saveAll(Mockito.argThat(lote -> contem(lote, primeiro)));
+        Mockito.verify(repository, Mockito.timeout(2000).atLeastOnce()).saveAll(Mockito.argThat(lote -> contem(lote, segundo)));
+    }
+
+    @Test
+    public void deveAguardarOCommitParaPublicarOsEventos(){
+        //cenário
+        EventoLancamento evento = evento(1l);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //ação
+            service.registrar(evento);
+
+            //verificação
+            Mockito.verify(repository, Mockito.after(300).never()).saveAll(Mockito.anyList());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            Mockito.verify(repository, Mockito.timeout(2000)).saveAll(Collections.singletonList(evento));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void deveGravarNaPropriaThreadQuandoOBufferNaoAceitaMaisEventos() throws InterruptedException {
+        //cenário
+        EventoLancamentoServiceImpl semEscritor = new EventoLancamentoServiceImpl(repository, transactionManager,
+                ModoDurabilidadeEventos.GRUPO, 1, 500, 10, 3);
+        List<EventoLancamento> eventos = Arrays.asList(evento(1l), evento(2l));
+
+        //ação
+        semEscritor.registrar(eventos);
+
+        //verificação
+        Mockito.verify(repository).saveAll(eventos);
+    }
+
+    @Test
+    public void deveGravarNaTransacaoDaEscritaNoModoSincrono(){
+        //cenário
+        EventoLancamentoServiceImpl sincrono = new EventoLancamentoServiceImpl(repository, transactionManager,
+                ModoDurabilidadeEventos.SINCRONO, 1, 500, 10, 3);
+        EventoLancamento evento = evento(1l);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //ação
+            sincrono.registrar(evento);
+
+            //verificação
+            Mockito.verify(repository).saveAll(Collections.singletonList(evento));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private boolean contem(Iterable<EventoLancamento> lote, EventoLancamento evento) {
+        for (EventoLancamento gravado : lote)
+            if (gravado == evento)
+                return true;
+        return false;
+    }
+
+    private EventoLancamento evento(Long idLancamento) {
+        return EventoLancamento.builder().tipoEvento(TipoEventoLancamento.CRIADO).idLancamento(idLancamento).build();
+    }
+}
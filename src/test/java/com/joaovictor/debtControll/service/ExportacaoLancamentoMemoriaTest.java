@@ -0,0 +1,111 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
+import com.joaovictor.debtControll.service.impl.ExportacaoLancamentoServiceImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Roda na execução "memoria" do surefire, com heap reduzido (memoria.xmx no pom). Um milhão de
+ * lançamentos como entidades não caberia nesse heap; a exportação precisa manter a memória constante.
+ * A base fica em arquivo para que os dados não ocupem o heap do teste.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@Tag("memoria")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:file:./target/h2/exportacao;INIT=CREATE SCHEMA IF NOT EXISTS debt")
+@Import(ExportacaoLancamentoServiceImpl.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportacaoLancamentoMemoriaTest {
+
+    static final int LANCAMENTOS = 1_000_000;
+    static final int TAMANHO_LOTE = 100_000;
+
+    @Autowired
+    ExportacaoLancamentoService service;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @BeforeAll
+    public void popular(){
+        jdbc.update("delete from debt.lancamento");
+        jdbc.update("delete from debt.usuario");
+        jdbc.update("insert into debt.usuario (id, nome, email, senha) values (1, 'usuario', 'usuario@email.com', 'senha')");
+        for (int inicio = 1; inicio <= LANCAMENTOS; inicio += TAMANHO_LOTE)
+            jdbc.update("insert into debt.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, versao) " +
+                    "select x, concat('Lançamento, nº ', x), 1 + mod(x, 12), 2000 + mod(x, 20), 1, x / 100.0, 'DESPESA', 'PENDENTE', 0 " +
+                    "from system_range(?, ?)", inicio, inicio + TAMANHO_LOTE - 1);
+    }
+
+    @Test
+    public void deveExportarUmMilhaoDeLancamentosEmCsvCompactado() throws IOException {
+        //cenário
+        ContadorLinhas saida = new ContadorLinhas();
+
+        //ação
+        long exportados;
+        try (GZIPOutputStream compactada = new GZIPOutputStream(saida, 8192)) {
+            exportados = service.exportar(1l, FormatoExportacao.CSV, compactada);
+        }
+
+        //verificação
+        assertEquals(LANCAMENTOS, exportados);
+        assertTrue(saida.bytes > 0);
+    }
+
+    @Test
+    public void deveExportarUmMilhaoDeLancamentosEmNdjson(){
+        //cenário
+        ContadorLinhas saida = new ContadorLinhas();
+
+        //ação
+        long exportados = service.exportar(1l, FormatoExportacao.NDJSON, saida);
+
+        //verificação
+        assertEquals(LANCAMENTOS, exportados);
+        assertEquals(LANCAMENTOS, saida.linhas);
+    }
+
+    static class ContadorLinhas extends OutputStream {
+        long bytes;
+        long linhas;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n')
+                linhas++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++)
+                if (b[i] == '\n')
+                    linhas++;
+        }
+    }
+}
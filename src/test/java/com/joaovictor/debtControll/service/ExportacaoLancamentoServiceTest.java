@@ -0,0 +1,100 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.impl.ExportacaoLancamentoServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class ExportacaoLancamentoServiceTest {
+
+    @SpyBean
+    ExportacaoLancamentoServiceImpl service;
+
+    @MockBean
+    LancamentoRepository repository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        ResultSet linha = Mockito.mock(ResultSet.class);
+        Mockito.when(linha.getLong(1)).thenReturn(10l);
+        Mockito.when(linha.getString(2)).thenReturn("Aluguel, \"apto\"");
+        Mockito.when(linha.getInt(3)).thenReturn(1);
+        Mockito.when(linha.getInt(4)).thenReturn(2020);
+        Mockito.when(linha.getBigDecimal(5)).thenReturn(new BigDecimal("1500.50"));
+        Mockito.when(linha.getLong(6)).thenReturn(1l);
+        Mockito.when(linha.getString(7)).thenReturn("DESPESA");
+        Mockito.when(linha.getString(8)).thenReturn("PENDENTE");
+        Mockito.when(linha.getDate(9)).thenReturn(Date.valueOf(LocalDate.of(2020, 1, 5)));
+
+        Mockito.doAnswer(invocacao -> {
+            RowCallbackHandler linhas = invocacao.getArgument(1);
+            linhas.processRow(linha);
+            linhas.processRow(linha);
+            return null;
+        }).when(repository).percorrerLinhas(Mockito.eq(1l), Mockito.any());
+    }
+
+    @Test
+    public void deveExportarEmCsvComOCabecalhoDaImportacao(){
+        //cenário
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        //ação
+        long exportados = service.exportar(1l, FormatoExportacao.CSV, saida);
+
+        //verificação
+        assertEquals(2, exportados);
+        String[] linhas = new String(saida.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, linhas.length);
+        assertEquals("id,descricao,mes,ano,valor,usuario,tipo,status,data_cadastro", linhas[0]);
+        assertEquals("10,\"Aluguel, \"\"apto\"\"\",1,2020,1500.50,1,DESPESA,PENDENTE,2020-01-05", linhas[1]);
+    }
+
+    @Test
+    public void deveExportarEmNdjsonUmObjetoPorLinha(){
+        //cenário
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        //ação
+        long exportados = service.exportar(1l, FormatoExportacao.NDJSON, saida);
+
+        //verificação
+        assertEquals(2, exportados);
+        String[] linhas = new String(saida.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("{\"id\":10,\"descricao\":\"Aluguel, \\\"apto\\\"\",\"mes\":1,\"ano\":2020,\"valor\":1500.50," +
+                "\"dataCadastro\":\"2020-01-05\",\"tipo\":\"DESPESA\",\"status\":\"PENDENTE\",\"usuario\":1}", linhas[0]);
+    }
+
+    @Test
+    public void deveExportarSomenteOCabecalhoQuandoNaoHouverLancamentos(){
+        //cenário
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        //ação
+        long exportados = service.exportar(2l, FormatoExportacao.CSV, saida);
+
+        //verificação
+        assertEquals(0, exportados);
+        assertEquals("id,descricao,mes,ano,valor,usuario,tipo,status,data_cadastro\n", new String(saida.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,254 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.ResultadoImportacaoDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.FormatoExportacao;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.UsuarioRepository;
+import com.joaovictor.debtControll.service.impl.ExportacaoLancamentoServiceImpl;
+import com.joaovictor.debtControll.service.impl.ImportacaoLancamentoServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@Import(JacksonAutoConfiguration.class)
+class ImportacaoLancamentoServiceTest {
+
+    @SpyBean
+    ImportacaoLancamentoServiceImpl service;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    @MockBean
+    UsuarioRepository usuarioRepository;
+
+    @MockBean
+    CategoriaService categoriaService;
+
+    @SpyBean
+    ExportacaoLancamentoServiceImpl exportacao;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @BeforeEach
+    public void setUp(){
+        Mockito.when(usuarioRepository.obterIdsExistentes(Mockito.anyCollection())).thenReturn(Collections.singletonList(1l));
+        Mockito.when(usuarioRepository.getOne(1l)).thenReturn(Usuario.builder().id(1l).build());
+    }
+
+    @Test
+    public void deveImportarUmCsvReportandoOsErrosPorLinha(){
+        //cenário
+        Mockito.doThrow(new RegraNegocioException("Informe uma Descrição válida."))
+                .when(lancamentoService).validar(Mockito.argThat(lancamento -> lancamento.getDescricao() == null));
+        String csv = "descricao;mes;ano;valor;usuario;tipo\n" +
+                "\"Aluguel; apto\";1;2020;1.500,50;1;DESPESA\n" +
+                ";2;2020;10;1;DESPESA\n" +
+                "Salário;2;2020;5000;2;RECEITA\n" +
+                "Bônus;2;2020;abc;1;RECEITA\n" +
+                "Freela;3;2020;800;1;OUTRO\n";
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarCsv(entrada(csv), null);
+
+        //verificação
+        assertEquals(1, resultado.getImportados());
+        assertEquals(4, resultado.getRejeitados());
+        assertEquals(3, resultado.getErros().get(0).getLinha());
+        assertEquals("Informe uma Descrição válida.", resultado.getErros().get(0).getMensagem());
+        assertEquals("Lançamento com formato inválido.", resultado.getErros().get(1).getMensagem());
+        assertEquals("Informe um tipo de Lançamento válido.", resultado.getErros().get(2).getMensagem());
+        assertEquals(4, resultado.getErros().get(3).getLinha());
+        assertEquals("Usuário não encontrado para o id informado.", resultado.getErros().get(3).getMensagem());
+
+        List<Lancamento> gravados = lancamentosGravados();
+        assertEquals("Aluguel; apto", gravados.get(0).getDescricao());
+        assertEquals(new BigDecimal("1500.50"), gravados.get(0).getValor());
+        assertEquals(TipoLancamento.DESPESA, gravados.get(0).getTipo());
+    }
+
+    @Test
+    public void deveRejeitarLancamentosDeOutroUsuarioQueNaoODoToken(){
+        //cenário
+        String json = "[{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2020,\"valor\":1500,\"usuario\":2,\"tipo\":\"DESPESA\"}," +
+                "{\"descricao\":\"Salário\",\"mes\":1,\"ano\":2020,\"valor\":5000,\"tipo\":\"RECEITA\"}]";
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarJson(entrada(json), 1l);
+
+        //verificação
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getErros().get(0).getLinha());
+        assertEquals("O usuário informado não é o usuário autenticado.", resultado.getErros().get(0).getMensagem());
+        List<Lancamento> gravados = lancamentosGravados();
+        assertEquals("Salário", gravados.get(0).getDescricao());
+        assertEquals(1l, gravados.get(0).getUsuario().getId());
+    }
+
+    @Test
+    public void deveImportarUmaListaJsonConsultandoCadaUsuarioUmaUnicaVez(){
+        //cenário
+        String json = "[{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2020,\"valor\":1500,\"usuario\":1,\"tipo\":\"DESPESA\"}," +
+                "{\"descricao\":\"Mercado\",\"mes\":1,\"ano\":2020,\"valor\":\"x\",\"usuario\":1,\"tipo\":\"DESPESA\"}," +
+                "{\"descricao\":\"Salário\",\"mes\":1,\"ano\":2020,\"valor\":5000,\"usuario\":1,\"tipo\":\"RECEITA\"}]";
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarJson(entrada(json), null);
+
+        //verificação
+        assertEquals(2, resultado.getImportados());
+        assertEquals(2, resultado.getErros().get(0).getLinha());
+        assertEquals(2, lancamentosGravados().size());
+        Mockito.verify(usuarioRepository, Mockito.times(1)).obterIdsExistentes(Mockito.anyCollection());
+    }
+
+    @Test
+    public void deveImportarACategoriaOpcionalDoCsvResolvendoCadaNomeUmaUnicaVez(){
+        //cenário
+        Mockito.when(categoriaService.obterId("Moradia")).thenReturn(3);
+        String csv = "descricao,mes,ano,valor,usuario,tipo,categoria\n" +
+                "Aluguel,1,2020,1500,1,DESPESA,Moradia\n" +
+                "Condomínio,1,2020,400,1,DESPESA,Moradia\n" +
+                "Salário,1,2020,5000,1,RECEITA,\n";
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarCsv(entrada(csv), null);
+
+        //verificação
+        assertEquals(3, resultado.getImportados());
+        List<Lancamento> gravados = lancamentosGravados();
+        assertEquals(3, gravados.get(0).getIdCategoria());
+        assertEquals(3, gravados.get(1).getIdCategoria());
+        assertNull(gravados.get(2).getIdCategoria());
+        Mockito.verify(categoriaService, Mockito.times(1)).obterId("Moradia");
+    }
+
+    @Test
+    public void deveImportarCamposEntreAspasComQuebraDeLinhaInformandoALinhaDeCadaRegistro(){
+        //cenário
+        String csv = "descricao;mes;ano;valor;usuario;tipo\n" +
+                "\"Aluguel\nparcela \"\"1\"\"\";1;2020;1500;1;DESPESA\n" +
+                "Mercado;1;2020;abc;1;DESPESA\n" +
+                "\"Sem fechamento;1;2020;10;1;DESPESA\n";
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarCsv(entrada(csv), null);
+
+        //verificação
+        assertEquals(1, resultado.getImportados());
+        assertEquals(4, resultado.getErros().get(0).getLinha());
+        assertEquals("Lançamento com formato inválido.", resultado.getErros().get(0).getMensagem());
+        assertEquals(5, resultado.getErros().get(1).getLinha());
+        assertEquals("Campo entre aspas sem fechamento.", resultado.getErros().get(1).getMensagem());
+        assertEquals("Aluguel\nparcela \"1\"", lancamentosGravados().get(0).getDescricao());
+    }
+
+    @Test
+    public void deveRegravarUmAUmOLoteQueFalhouRejeitandoSomenteAsLinhasRecusadas(){
+        //cenário
+        Mockito.doThrow(new DataIntegrityViolationException("valor fora do limite da coluna"))
+                .when(lancamentoService).salvarEmLote(Mockito.argThat(lista ->
+                        lista.stream().anyMatch(lancamento -> "Recusado".equals(lancamento.getDescricao()))));
+        String csv = "descricao;mes;ano;valor;usuario;tipo\n" +
+                "Aluguel;1;2020;1500;1;DESPESA\n" +
+                "Recusado;1;2020;10;1;DESPESA\n" +
+                "Salário;1;2020;5000;1;RECEITA\n";
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarCsv(entrada(csv), null);
+
+        //verificação
+        assertEquals(2, resultado.getImportados());
+        assertEquals(1, resultado.getRejeitados());
+        assertEquals(3, resultado.getErros().get(0).getLinha());
+        assertEquals("Não foi possível gravar este lançamento.", resultado.getErros().get(0).getMensagem());
+        Mockito.verify(lancamentoService, Mockito.times(4)).salvarEmLote(Mockito.anyList());
+    }
+
+    @Test
+    public void deveImportarOCsvExportadoSemAlterarOsLancamentos() throws Exception {
+        //cenário
+        ResultSet linha = Mockito.mock(ResultSet.class);
+        Mockito.when(linha.getLong(1)).thenReturn(10l, 11l);
+        Mockito.when(linha.getString(2)).thenReturn("Aluguel, \"apto\"\nparcela 1/2", "Salário; bônus");
+        Mockito.when(linha.getInt(3)).thenReturn(1, 2);
+        Mockito.when(linha.getInt(4)).thenReturn(2020);
+        Mockito.when(linha.getBigDecimal(5)).thenReturn(new BigDecimal("1500.50"), new BigDecimal("5000.00"));
+        Mockito.when(linha.getLong(6)).thenReturn(1l);
+        Mockito.when(linha.getString(7)).thenReturn("DESPESA", "RECEITA");
+        Mockito.when(linha.getString(8)).thenReturn("PENDENTE");
+        Mockito.when(linha.getDate(9)).thenReturn(Date.valueOf(LocalDate.of(2020, 1, 5)));
+        Mockito.doAnswer(invocacao -> {
+            RowCallbackHandler linhas = invocacao.getArgument(1);
+            linhas.processRow(linha);
+            linhas.processRow(linha);
+            return null;
+        }).when(lancamentoRepository).percorrerLinhas(Mockito.eq(1l), Mockito.any());
+        ByteArrayOutputStream exportado = new ByteArrayOutputStream();
+        exportacao.exportar(1l, FormatoExportacao.CSV, exportado);
+
+        //ação
+        ResultadoImportacaoDTO resultado = service.importarCsv(new ByteArrayInputStream(exportado.toByteArray()), null);
+
+        //verificação
+        assertEquals(2, resultado.getImportados());
+        assertEquals(0, resultado.getRejeitados());
+        List<Lancamento> gravados = lancamentosGravados();
+        assertEquals("Aluguel, \"apto\"\nparcela 1/2", gravados.get(0).getDescricao());
+        assertEquals(1, gravados.get(0).getMes());
+        assertEquals(2020, gravados.get(0).getAno());
+        assertEquals(new BigDecimal("1500.50"), gravados.get(0).getValor());
+        assertEquals(1l, gravados.get(0).getUsuario().getId());
+        assertEquals(TipoLancamento.DESPESA, gravados.get(0).getTipo());
+        assertEquals("Salário; bônus", gravados.get(1).getDescricao());
+        assertEquals(2, gravados.get(1).getMes());
+        assertEquals(new BigDecimal("5000.00"), gravados.get(1).getValor());
+        assertEquals(TipoLancamento.RECEITA, gravados.get(1).getTipo());
+    }
+
+    @Test
+    public void deveRejeitarCsvSemAsColunasObrigatorias(){
+        assertThrows(RegraNegocioException.class, () -> service.importarCsv(entrada("descricao;valor\nAluguel;10\n"), null));
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    private List<Lancamento> lancamentosGravados() {
+        ArgumentCaptor<List<Lancamento>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(lancamentoService).salvarEmLote(captor.capture());
+        return captor.getValue();
+    }
+
+    private InputStream entrada(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.service.impl.IndiceTermosServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class IndiceTermosServiceTest {
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    IndiceTermosServiceImpl service;
+
+    @BeforeEach
+    public void criarServico(){
+        // cada teste começa com o índice ainda indisponível
+        service = new IndiceTermosServiceImpl(lancamentoRepository, transactionManager, 1000);
+    }
+
+    @Test
+    public void deveLiberarOIndiceSoDepoisDeIndexarTodosOsLancamentosAntigos(){
+        //cenário
+        Mockito.when(lancamentoRepository.preencherTermos(Mockito.anyInt())).thenReturn(1000, 20, 0);
+        assertFalse(service.disponivel());
+
+        //ação
+        int preenchidos = service.preencherPendentes();
+
+        //verificação
+        assertEquals(1020, preenchidos);
+        assertTrue(service.disponivel());
+        Mockito.verify(lancamentoRepository, Mockito.times(3)).preencherTermos(Mockito.anyInt());
+    }
+
+    @Test
+    public void naoDeveConsultarOsLancamentosDepoisDeLiberarOIndice(){
+        //cenário
+        Mockito.when(lancamentoRepository.preencherTermos(Mockito.anyInt())).thenReturn(0);
+        service.preencherPendentes();
+
+        //ação
+        int preenchidos = service.preencherPendentes();
+
+        //verificação
+        assertEquals(0, preenchidos);
+        Mockito.verify(lancamentoRepository, Mockito.times(1)).preencherTermos(Mockito.anyInt());
+    }
+
+    @Test
+    public void naoDeveLiberarOIndiceSeOPreenchimentoFalhar(){
+        //cenário
+        Mockito.when(lancamentoRepository.preencherTermos(Mockito.anyInt()))
+                .thenReturn(1000)
+                .thenThrow(new IllegalStateException("conexão perdida"));
+
+        //ação
+        assertThrows(IllegalStateException.class, () -> service.preencherPendentes());
+
+        //verificação
+        assertFalse(service.disponivel());
+    }
+}
@@ -1,26 +1,49 @@
 package com.joaovictor.debtControll.service;
 
+import com.joaovictor.debtControll.dto.CursorLancamentoDTO;
+import com.joaovictor.debtControll.dto.PaginaLancamentoDTO;
+import com.joaovictor.debtControll.exceptions.AcessoNegadoException;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.exceptions.RequisicaoConcorrenteException;
+import com.joaovictor.debtControll.model.HashConteudo;
+import com.joaovictor.debtControll.model.Restricoes;
+import com.joaovictor.debtControll.model.entity.ChaveIdempotencia;
+import com.joaovictor.debtControll.model.entity.ChaveIdempotenciaId;
+import com.joaovictor.debtControll.model.entity.EventoLancamento;
 import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
 import com.joaovictor.debtControll.model.entity.Usuario;
 import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoEventoLancamento;
 import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.EstadoLancamento;
+import com.joaovictor.debtControll.model.repository.ChaveIdempotenciaRepository;
 import com.joaovictor.debtControll.model.repository.LancamentoRepository;
 import com.joaovictor.debtControll.model.repository.LancamentoRepositoryTest;
 import com.joaovictor.debtControll.service.impl.LancamentoServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -34,6 +57,24 @@ class LancamentoServiceTest {
     @MockBean
     LancamentoRepository repository;
 
+    @MockBean
+    SaldoService saldoService;
+
+    @MockBean
+    ResumoMensalService resumoMensalService;
+
+    @MockBean
+    VersaoUsuarioService versaoUsuarioService;
+
+    @MockBean
+    EventoLancamentoService eventoService;
+
+    @MockBean
+    IndiceTermosService indiceTermosService;
+
+    @MockBean
+    ChaveIdempotenciaRepository chaveIdempotenciaRepository;
+
     @Test
     public void deveSalvarUmLancamento(){
         //cenário
@@ -42,6 +83,7 @@ class LancamentoServiceTest {
 
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
         lancamentoSalvo.setId(1l);
+        lancamentoSalvo.setUsuario(Usuario.builder().id(1l).build());
         Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoSalvo);
 
         //ação
@@ -50,6 +92,36 @@ class LancamentoServiceTest {
         //verificação
         assertEquals(lancamentoSalvo.getId(), lancamento.getId());
         assertEquals(StatusLancamento.PENDENTE, lancamento.getStatus());
+        assertTrue(lancamentoASalvar.getTermos().contains("tes"));
+        Mockito.verify(saldoService).aplicar(1l, BigDecimal.valueOf(100));
+        Mockito.verify(versaoUsuarioService).incrementar(1l);
+        Mockito.verify(eventoService).registrar(Mockito.argThat((EventoLancamento evento) ->
+                evento.getTipoEvento() == TipoEventoLancamento.CRIADO && evento.getIdLancamento().equals(1l)));
+    }
+
+    @Test
+    public void deveSalvarUmLoteAplicandoUmaUnicaVezOSaldoDeCadaUsuario(){
+        //cenário
+        Lancamento receita = LancamentoRepositoryTest.criarLancamento();
+        receita.setUsuario(Usuario.builder().id(1l).build());
+        Lancamento despesa = LancamentoRepositoryTest.criarLancamento();
+        despesa.setTipo(TipoLancamento.DESPESA);
+        despesa.setValor(BigDecimal.valueOf(30));
+        despesa.setUsuario(Usuario.builder().id(1l).build());
+        Lancamento outroUsuario = LancamentoRepositoryTest.criarLancamento();
+        outroUsuario.setUsuario(Usuario.builder().id(2l).build());
+        List<Lancamento> lote = Arrays.asList(receita, despesa, outroUsuario);
+
+        //ação
+        service.salvarEmLote(lote);
+
+        //verificação
+        Mockito.verify(repository).inserirEmLote(lote);
+        assertTrue(despesa.getTermos().contains("teste"));
+        Mockito.verify(saldoService).aplicar(1l, new BigDecimal("70.00"));
+        Mockito.verify(saldoService).aplicar(2l, new BigDecimal("100.00"));
+        Mockito.verifyNoMoreInteractions(saldoService);
+        Mockito.verify(versaoUsuarioService).incrementar(new HashSet<>(Arrays.asList(1l, 2l)));
     }
 
     @Test
@@ -63,11 +135,116 @@ class LancamentoServiceTest {
         Mockito.verify(repository, Mockito.never()).save(lancamentoASalvar);
     }
 
+    @Test
+    public void deveLancarErroAoSalvarLancamentoDeUsuarioInexistente(){
+        //cenário
+        Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(99l).build());
+        Mockito.doNothing().when(service).validar(lancamentoASalvar);
+        Mockito.doThrow(violacao(Restricoes.FK_LANCAMENTO_USUARIO)).when(repository).flush();
+
+        //ação e verificação
+        RegraNegocioException exception = assertThrows(RegraNegocioException.class, () -> service.salvar(lancamentoASalvar));
+        assertEquals("Usuário não encontrado para o id informado.", exception.getMessage());
+        Mockito.verifyNoInteractions(saldoService);
+    }
+
+    @Test
+    public void naoDeveTratarOutraViolacaoDeRestricaoComoUsuarioInexistente(){
+        //cenário
+        Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(lancamentoASalvar);
+        DataIntegrityViolationException violacao = violacao("uk_lancamento_recorrencia_periodo");
+        Mockito.doThrow(violacao).when(repository).flush();
+
+        //ação e verificação
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> service.salvar(lancamentoASalvar));
+        assertSame(violacao, exception);
+        Mockito.verifyNoInteractions(saldoService);
+    }
+
+    @Test
+    public void deveGravarAChaveDeIdempotenciaComOLancamentoCriado(){
+        //cenário
+        Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(lancamentoASalvar);
+        Mockito.when(repository.save(lancamentoASalvar)).thenAnswer(invocacao -> {
+            lancamentoASalvar.setId(1l);
+            return lancamentoASalvar;
+        });
+        ChaveIdempotencia chave = new ChaveIdempotencia();
+        Mockito.when(chaveIdempotenciaRepository.findById(new ChaveIdempotenciaId(1l, "abc"))).thenReturn(Optional.empty());
+        Mockito.when(chaveIdempotenciaRepository.saveAndFlush(Mockito.any(ChaveIdempotencia.class))).thenReturn(chave);
+
+        //ação
+        service.salvar(lancamentoASalvar, "abc");
+
+        //verificação
+        assertEquals(1l, chave.getIdLancamento());
+        assertEquals(HashConteudo.calcular(lancamentoASalvar), lancamentoASalvar.getHashConteudo());
+        Mockito.verify(chaveIdempotenciaRepository).saveAndFlush(Mockito.argThat(nova ->
+                nova.getHashConteudo().equals(lancamentoASalvar.getHashConteudo()) && nova.getDataExpiracao().isAfter(Instant.now())));
+    }
+
+    @Test
+    public void deveDevolverOLancamentoJaCriadoComAMesmaChaveDeIdempotencia(){
+        //cenário
+        Lancamento reenvio = LancamentoRepositoryTest.criarLancamento();
+        reenvio.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(reenvio);
+        Lancamento original = LancamentoRepositoryTest.criarLancamento();
+        original.setId(7l);
+        ChaveIdempotencia chave = new ChaveIdempotencia(new ChaveIdempotenciaId(1l, "abc"), 7l,
+                HashConteudo.calcular(reenvio), Instant.now().plusSeconds(60));
+        Mockito.when(chaveIdempotenciaRepository.findById(chave.getId())).thenReturn(Optional.of(chave));
+        Mockito.when(repository.findById(7l)).thenReturn(Optional.of(original));
+
+        //ação
+        Lancamento lancamento = service.salvar(reenvio, "abc");
+
+        //verificação
+        assertSame(original, lancamento);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+        Mockito.verifyNoInteractions(saldoService, eventoService);
+    }
+
+    @Test
+    public void deveRecusarAChaveDeIdempotenciaReusadaComOutroConteudo(){
+        //cenário
+        Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(lancamentoASalvar);
+        ChaveIdempotencia chave = new ChaveIdempotencia(new ChaveIdempotenciaId(1l, "abc"), 7l, 42l, Instant.now().plusSeconds(60));
+        Mockito.when(chaveIdempotenciaRepository.findById(chave.getId())).thenReturn(Optional.of(chave));
+
+        //ação e verificação
+        assertThrows(RegraNegocioException.class, () -> service.salvar(lancamentoASalvar, "abc"));
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void deveLancarConflitoQuandoOutraRequisicaoGravarAMesmaChave(){
+        //cenário
+        Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(lancamentoASalvar);
+        Mockito.when(chaveIdempotenciaRepository.findById(Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(chaveIdempotenciaRepository.saveAndFlush(Mockito.any(ChaveIdempotencia.class)))
+                .thenThrow(new DataIntegrityViolationException("chave_idempotencia_pkey"));
+
+        //ação e verificação
+        assertThrows(RequisicaoConcorrenteException.class, () -> service.salvar(lancamentoASalvar, "abc"));
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     public void deveAtualizarUmLancamento(){
         //cenário
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
         lancamentoSalvo.setId(1l);
+        lancamentoSalvo.setUsuario(Usuario.builder().id(1l).build());
         Mockito.doNothing().when(service).validar(lancamentoSalvo);
 
         Mockito.when(repository.save(lancamentoSalvo)).thenReturn(lancamentoSalvo);
@@ -81,6 +258,76 @@ class LancamentoServiceTest {
         assertEquals(StatusLancamento.EFETIVADO, lancamentoAtualizado.getStatus());
     }
 
+    @Test
+    public void deveAplicarNoSaldoADiferencaEntreOValorAnteriorEOAtual(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        lancamento.setTipo(TipoLancamento.DESPESA);
+        Mockito.doNothing().when(service).validar(lancamento);
+
+        EstadoLancamento anterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1l);
+        Mockito.when(anterior.getTipo()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(40));
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        //ação
+        service.atualizar(lancamento);
+
+        //verificação
+        Mockito.verify(saldoService).aplicar(1l, BigDecimal.valueOf(-140));
+    }
+
+    @Test
+    public void deveMoverOValorNoResumoMensalQuandoOStatusMudar(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        lancamento.setStatus(StatusLancamento.EFETIVADO);
+        Mockito.doNothing().when(service).validar(lancamento);
+
+        EstadoLancamento anterior = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1l);
+        Mockito.when(anterior.getAno()).thenReturn(2020);
+        Mockito.when(anterior.getMes()).thenReturn(6);
+        Mockito.when(anterior.getTipo()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(anterior.getStatus()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(100));
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        //ação
+        service.atualizar(lancamento);
+
+        //verificação
+        Mockito.verify(resumoMensalService).aplicar(new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE), BigDecimal.valueOf(-100));
+        Mockito.verify(resumoMensalService).aplicar(new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO), BigDecimal.valueOf(100));
+        Mockito.verify(saldoService).aplicar(1l, BigDecimal.ZERO);
+    }
+
+    @Test
+    public void deveAtualizarSobreAVersaoGravadaQuandoNenhumaForInformada(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(lancamento);
+
+        EstadoLancamento anterior = estadoPendente(7l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        //ação
+        service.atualizar(lancamento);
+
+        //verificação
+        assertEquals(7l, lancamento.getVersao());
+    }
+
     @Test
     public void deveLancarErroAoTentarAtualizarLancamentoQueAindaNaoFoiSalvo(){
         //cenário
@@ -96,12 +343,71 @@ class LancamentoServiceTest {
         //cenário
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1l);
+        lancamento.setVersao(2l);
+        EstadoLancamento anterior = estadoPendente(2l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.excluir(1l, 2020, 2l)).thenReturn(1);
 
         //ação
         service.deletar(lancamento);
 
         //verificação
-        Mockito.verify(repository).delete(lancamento);
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).excluirTermos(1l);
+        ordem.verify(repository).excluir(1l, 2020, 2l);
+        Mockito.verify(repository, Mockito.never()).delete(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void deveEstornarDoSaldoOLancamentoDeletado(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+
+        EstadoLancamento anterior = estadoPendente(3l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.excluir(1l, 2020, 3l)).thenReturn(1);
+
+        //ação
+        service.deletar(lancamento);
+
+        //verificação
+        Mockito.verify(saldoService).aplicar(1l, BigDecimal.valueOf(-100));
+        Mockito.verify(resumoMensalService).aplicar(new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE),
+                BigDecimal.valueOf(-100));
+        Mockito.verify(versaoUsuarioService).incrementar(1l);
+    }
+
+    @Test
+    public void naoDeveEstornarQuandoAVersaoDoLancamentoDeletadoMudou(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setVersao(2l);
+        EstadoLancamento anterior = estadoPendente(3l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.excluir(1l, 2020, 2l)).thenReturn(0);
+
+        //ação
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.deletar(lancamento));
+
+        //verificação
+        Mockito.verifyNoInteractions(saldoService, resumoMensalService, versaoUsuarioService, eventoService);
+    }
+
+    @Test
+    public void naoDeveEstornarQuandoOLancamentoJaFoiDeletado(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.empty());
+
+        //ação
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.deletar(lancamento));
+
+        //verificação
+        Mockito.verify(repository, Mockito.never()).excluir(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.verifyNoInteractions(saldoService, resumoMensalService, versaoUsuarioService, eventoService);
     }
 
     @Test
@@ -113,7 +419,7 @@ class LancamentoServiceTest {
         assertThrows(NullPointerException.class,() -> service.deletar(lancamento));
 
         //verificação
-        Mockito.verify(repository, Mockito.never()).delete(lancamento);
+        Mockito.verify(repository, Mockito.never()).excluir(Mockito.any(), Mockito.any(), Mockito.any());
     }
 
     @Test
@@ -123,28 +429,143 @@ class LancamentoServiceTest {
         lancamento.setId(1l);
 
         List<Lancamento> lista = Arrays.asList(lancamento);
-        Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+        Mockito.when(repository.findAll(Mockito.any(Specification.class), Mockito.any(Sort.class))).thenReturn(lista);
 
         //ação
         List<Lancamento> resultado = service.buscar(lancamento);
         assertEquals(lista, resultado);
     }
 
+    @Test
+    public void deveRetornarOCursorDaProximaPaginaQuandoHouverMaisLancamentos(){
+        //cenário
+        Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+        primeiro.setId(1l);
+        Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+        segundo.setId(2l);
+        Lancamento terceiro = LancamentoRepositoryTest.criarLancamento();
+        terceiro.setId(3l);
+
+        Mockito.when(repository.buscarLimitado(Mockito.any(Specification.class), Mockito.any(Sort.class), Mockito.eq(3)))
+                .thenReturn(Arrays.asList(primeiro, segundo, terceiro));
+
+        //ação
+        PaginaLancamentoDTO pagina = service.buscarPagina(new Lancamento(), null, 2);
+
+        //verificação
+        assertEquals(Arrays.asList(primeiro, segundo), pagina.getLancamentos());
+        CursorLancamentoDTO cursor = CursorLancamentoDTO.decodificar(pagina.getProximoCursor());
+        assertEquals(new CursorLancamentoDTO(2020, 6, 2l), cursor);
+    }
+
+    @Test
+    public void deveLimitarOTamanhoDaPaginaEOmitirOCursorNaUltimaPagina(){
+        //cenário
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        Mockito.when(repository.buscarLimitado(Mockito.any(Specification.class), Mockito.any(Sort.class), Mockito.anyInt()))
+                .thenReturn(Collections.singletonList(lancamento));
+
+        //ação
+        PaginaLancamentoDTO pagina = service.buscarPagina(new Lancamento(), new CursorLancamentoDTO(2020, 1, 10l), 100000);
+
+        //verificação
+        Mockito.verify(repository).buscarLimitado(Mockito.any(Specification.class), Mockito.any(Sort.class), Mockito.eq(501));
+        assertNull(pagina.getProximoCursor());
+    }
+
+    @Test
+    public void deveLancarErroAoBuscarPaginaComTamanhoInvalido(){
+        RegraNegocioException exception = assertThrows(RegraNegocioException.class,
+                () -> service.buscarPagina(new Lancamento(), null, 0));
+        assertEquals("Informe um tamanho de página válido.", exception.getMessage());
+    }
+
     @Test
     public void deveAtualizarOStatusDeUmLancamento(){
         //cenário
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
         lancamento.setId(1l);
+        lancamento.setStatus(StatusLancamento.EFETIVADO);
+
+        EstadoLancamento anterior = estadoPendente(3l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.atualizarStatus(1l, 2020, 1l, StatusLancamento.EFETIVADO, 3l)).thenReturn(1);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(lancamento));
+
+        //ação
+        Lancamento atualizado = service.atulizarStatus(Lancamento.builder().id(1l).build(), StatusLancamento.EFETIVADO);
+
+        //verificação
+        assertEquals(StatusLancamento.EFETIVADO, atualizado.getStatus());
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+        Mockito.verify(resumoMensalService).aplicar(new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE), BigDecimal.valueOf(-100));
+        Mockito.verify(resumoMensalService).aplicar(new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO), BigDecimal.valueOf(100));
+        Mockito.verifyNoInteractions(saldoService);
+        Mockito.verify(versaoUsuarioService).incrementar(1l);
+    }
+
+    @Test
+    public void deveRefazerAAtualizacaoDeStatusSobreAVersaoNovaQuandoHouverAlteracaoConcorrente(){
+        //cenário
+        EstadoLancamento lido = estadoPendente(3l);
+        EstadoLancamento alteradoPorOutro = estadoPendente(4l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(lido), Optional.of(alteradoPorOutro));
+        Mockito.when(repository.atualizarStatus(1l, 2020, 1l, StatusLancamento.CANCELADO, 3l)).thenReturn(0);
+        Mockito.when(repository.atualizarStatus(1l, 2020, 1l, StatusLancamento.CANCELADO, 4l)).thenReturn(1);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(new Lancamento()));
+
+        //ação
+        service.atulizarStatus(Lancamento.builder().id(1l).build(), StatusLancamento.CANCELADO);
+
+        //verificação
+        Mockito.verify(repository).atualizarStatus(1l, 2020, 1l, StatusLancamento.CANCELADO, 4l);
+        Mockito.verify(resumoMensalService, Mockito.times(2)).aplicar(Mockito.any(ResumoMensalId.class), Mockito.any(BigDecimal.class));
+    }
 
-        StatusLancamento novoStatus = StatusLancamento.EFETIVADO;
-        Mockito.doReturn(lancamento).when(service).atualizar(lancamento);
+    @Test
+    public void deveLancarConflitoAoAtualizarStatusComVersaoDesatualizada(){
+        //cenário
+        EstadoLancamento atual = estadoPendente(4l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(atual));
 
         //ação
-        service.atulizarStatus(lancamento,novoStatus);
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.atulizarStatus(Lancamento.builder().id(1l).versao(3l).build(), StatusLancamento.EFETIVADO));
 
         //verificação
-        assertEquals(novoStatus, lancamento.getStatus());
-        Mockito.verify(service).atualizar(lancamento);
+        Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyLong(), Mockito.any(), Mockito.anyLong());
+        Mockito.verifyNoInteractions(resumoMensalService);
+    }
+
+    @Test
+    public void naoDeveAtualizarOStatusDeLancamentoDeOutroUsuario(){
+        //cenário
+        EstadoLancamento atual = estadoPendente(3l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(atual));
+
+        //ação
+        assertThrows(AcessoNegadoException.class,
+                () -> service.atulizarStatus(Lancamento.builder().id(1l).build(), StatusLancamento.EFETIVADO, 2l));
+
+        //verificação
+        Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyLong(), Mockito.any(), Mockito.anyLong());
+        Mockito.verifyNoInteractions(resumoMensalService);
+    }
+
+    @Test
+    public void deveDesistirDaAtualizacaoDeStatusDepoisDoLimiteDeTentativas(){
+        //cenário
+        EstadoLancamento atual = estadoPendente(3l);
+        Mockito.when(repository.obterEstadoPersistido(1l)).thenReturn(Optional.of(atual));
+        Mockito.when(repository.atualizarStatus(1l, 2020, 1l, StatusLancamento.EFETIVADO, 3l)).thenReturn(0);
+
+        //ação
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.atulizarStatus(Lancamento.builder().id(1l).build(), StatusLancamento.EFETIVADO));
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(5)).atualizarStatus(1l, 2020, 1l, StatusLancamento.EFETIVADO, 3l);
     }
 
     @Test
@@ -184,6 +605,11 @@ class LancamentoServiceTest {
         RegraNegocioException exception = criarExcecaoNaValidacaoDeUmLancamento(lancamento);
         assertEquals(exception.getMessage(),"Informe uma Descrição válida.");
 
+        //cenário com descrição longa demais
+        lancamento.setDescricao(String.join("", Collections.nCopies(Lancamento.TAMANHO_MAXIMO_DESCRICAO + 1, "a")));
+        exception = criarExcecaoNaValidacaoDeUmLancamento(lancamento);
+        assertEquals(exception.getMessage(),"Informe uma Descrição com até 255 caracteres.");
+
         //cenário com mes vazio
         lancamento.setDescricao("teste");
         exception = criarExcecaoNaValidacaoDeUmLancamento(lancamento);
@@ -212,6 +638,17 @@ class LancamentoServiceTest {
         lancamento.setValor(BigDecimal.valueOf(200));
         exception = criarExcecaoNaValidacaoDeUmLancamento(lancamento);
         assertEquals(exception.getMessage(),"Informe um tipo de Lançamento.");
+
+        //cenário com etiquetas demais
+        lancamento.setTipo(TipoLancamento.DESPESA);
+        lancamento.setEtiquetas(new TreeSet<>(Arrays.asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j", "k")));
+        exception = criarExcecaoNaValidacaoDeUmLancamento(lancamento);
+        assertEquals(exception.getMessage(),"Informe no máximo 10 etiquetas.");
+
+        //cenário com etiqueta com vírgula
+        lancamento.setEtiquetas(new TreeSet<>(Collections.singletonList("viagem, férias")));
+        exception = criarExcecaoNaValidacaoDeUmLancamento(lancamento);
+        assertEquals(exception.getMessage(),"Informe etiquetas de até 30 caracteres, sem vírgula.");
     }
 
     private RegraNegocioException criarExcecaoNaValidacaoDeUmLancamento(Lancamento lancamento) {
@@ -219,4 +656,35 @@ class LancamentoServiceTest {
             service.validar(lancamento);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deveObterOSaldoMaterializadoDoUsuario(){
+        //cenário
+        Mockito.when(saldoService.obterSaldo(1l)).thenReturn(BigDecimal.valueOf(250));
+
+        //ação
+        BigDecimal saldo = service.obterSaldoPorUsuario(1l);
+
+        //verificação
+        assertEquals(BigDecimal.valueOf(250), saldo);
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    private DataIntegrityViolationException violacao(String restricao) {
+        return new DataIntegrityViolationException("violação",
+                new ConstraintViolationException("violação", new SQLException("violação"), restricao));
+    }
+
+    private EstadoLancamento estadoPendente(Long versao) {
+        EstadoLancamento estado = Mockito.mock(EstadoLancamento.class);
+        Mockito.when(estado.getId()).thenReturn(1l);
+        Mockito.when(estado.getIdUsuario()).thenReturn(1l);
+        Mockito.when(estado.getAno()).thenReturn(2020);
+        Mockito.when(estado.getMes()).thenReturn(6);
+        Mockito.when(estado.getTipo()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(estado.getStatus()).thenReturn(StatusLancamento.PENDENTE);
+        Mockito.when(estado.getValor()).thenReturn(BigDecimal.valueOf(100));
+        Mockito.when(estado.getVersao()).thenReturn(versao);
+        return estado;
+    }
+}
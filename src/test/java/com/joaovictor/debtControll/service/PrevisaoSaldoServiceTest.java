@@ -0,0 +1,98 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.PrevisaoSaldoDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+import com.joaovictor.debtControll.model.entity.ResumoMensal;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.RecorrenciaRepository;
+import com.joaovictor.debtControll.model.repository.ResumoMensalRepository;
+import com.joaovictor.debtControll.service.impl.PrevisaoSaldoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class PrevisaoSaldoServiceTest {
+
+    @SpyBean
+    PrevisaoSaldoServiceImpl service;
+
+    @MockBean
+    ResumoMensalRepository resumoMensalRepository;
+
+    @MockBean
+    RecorrenciaRepository recorrenciaRepository;
+
+    @Test
+    public void deveAcumularOSaldoRealizadoEOPrevistoMesAMes(){
+        //cenário
+        Mockito.when(resumoMensalRepository.obterAte(1l, 2021, 3, StatusLancamento.CANCELADO)).thenReturn(Arrays.asList(
+                resumo(2020, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1000),
+                resumo(2021, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 300),
+                resumo(2021, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 200)));
+        Mockito.when(recorrenciaRepository.obterPorUsuario(1l)).thenReturn(Collections.emptyList());
+
+        //ação
+        List<PrevisaoSaldoDTO> previsao = service.obterPrevisao(1l, YearMonth.of(2021, 1), YearMonth.of(2021, 3));
+
+        //verificação
+        assertEquals(3, previsao.size());
+        assertEquals(new PrevisaoSaldoDTO(2021, 1, new BigDecimal("-300.00"), new BigDecimal("0.00"),
+                new BigDecimal("700.00"), new BigDecimal("700.00")), previsao.get(0));
+        assertEquals(new PrevisaoSaldoDTO(2021, 2, new BigDecimal("0.00"), new BigDecimal("-200.00"),
+                new BigDecimal("700.00"), new BigDecimal("500.00")), previsao.get(1));
+        assertEquals(new BigDecimal("500.00"), previsao.get(2).getSaldoPrevisto());
+    }
+
+    @Test
+    public void deveProjetarAsOcorrenciasAindaNaoGeradasDasRecorrencias(){
+        //cenário
+        Recorrencia aluguel = Recorrencia.builder()
+                .valor(new BigDecimal("1200.00"))
+                .tipo(TipoLancamento.DESPESA)
+                .mesProximo(2).anoProximo(2021)
+                .mesFim(3).anoFim(2021)
+                .build();
+        Mockito.when(resumoMensalRepository.obterAte(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(recorrenciaRepository.obterPorUsuario(1l)).thenReturn(Collections.singletonList(aluguel));
+
+        //ação
+        List<PrevisaoSaldoDTO> previsao = service.obterPrevisao(1l, YearMonth.of(2021, 1), YearMonth.of(2021, 4));
+
+        //verificação
+        assertEquals(new BigDecimal("0.00"), previsao.get(0).getPrevisto());
+        assertEquals(new BigDecimal("-1200.00"), previsao.get(1).getPrevisto());
+        assertEquals(new BigDecimal("-1200.00"), previsao.get(2).getPrevisto());
+        assertEquals(new BigDecimal("-2400.00"), previsao.get(3).getSaldoPrevisto());
+        assertEquals(new BigDecimal("0.00"), previsao.get(3).getSaldoRealizado());
+    }
+
+    @Test
+    public void deveRecusarPeriodoQueTerminaAntesDeComecar(){
+        //ação e verificação
+        assertThrows(RegraNegocioException.class,
+                () -> service.obterPrevisao(1l, YearMonth.of(2021, 3), YearMonth.of(2021, 1)));
+        Mockito.verifyNoInteractions(resumoMensalRepository);
+    }
+
+    private ResumoMensal resumo(int ano, int mes, TipoLancamento tipo, StatusLancamento status, int total) {
+        return new ResumoMensal(new ResumoMensalId(1l, ano, mes, tipo, status), BigDecimal.valueOf(total));
+    }
+}
@@ -0,0 +1,152 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.service.impl.ResumoMensalServiceImpl;
+import com.joaovictor.debtControll.service.impl.SaldoServiceImpl;
+import com.joaovictor.debtControll.service.impl.VersaoUsuarioServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Duas transações fazem a primeira escrita do mesmo usuário: a primeira cria a linha e segura o commit
+ * enquanto a segunda, que ainda não a enxerga, tenta criá-la também. A segunda deve aplicar o delta sobre
+ * a linha criada pela primeira, sem perder a transação.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:primeiraescrita;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS debt")
+@Import({SaldoServiceImpl.class, ResumoMensalServiceImpl.class, VersaoUsuarioServiceImpl.class})
+class PrimeiraEscritaConcorrenteTest {
+
+    static final ResumoMensalId CHAVE = new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+
+    @Autowired
+    SaldoService saldoService;
+
+    @Autowired
+    ResumoMensalService resumoMensalService;
+
+    @Autowired
+    VersaoUsuarioService versaoUsuarioService;
+
+    @SpyBean
+    PrimeiraEscritaRepository primeiraEscritaRepository;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach
+    public void limpar(){
+        jdbc.update("delete from debt.saldo_usuario");
+        jdbc.update("delete from debt.resumo_mensal");
+        jdbc.update("delete from debt.versao_usuario");
+        jdbc.update("delete from debt.lancamento");
+        jdbc.update("delete from debt.usuario");
+        jdbc.update("insert into debt.usuario (id, nome, email, senha) values (1, 'usuario', 'usuario@email.com', 'senha')");
+    }
+
+    @AfterEach
+    public void encerrar(){
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void deveSomarAsPrimeirasEscritasConcorrentesNoSaldo() throws Exception {
+        //ação
+        escreverConcorrentemente(valor -> saldoService.aplicar(1l, valor));
+
+        //verificação
+        assertEquals(0, new BigDecimal("150").compareTo(jdbc.queryForObject(
+                "select valor from debt.saldo_usuario where id_usuario = 1", BigDecimal.class)));
+        Mockito.verify(primeiraEscritaRepository, Mockito.times(2)).inserirSaldo(Mockito.eq(1l), Mockito.any());
+    }
+
+    @Test
+    public void deveSomarAsPrimeirasEscritasConcorrentesNoResumoMensal() throws Exception {
+        //ação
+        escreverConcorrentemente(valor -> resumoMensalService.aplicar(CHAVE, valor));
+
+        //verificação
+        assertEquals(0, new BigDecimal("150").compareTo(jdbc.queryForObject(
+                "select total from debt.resumo_mensal where id_usuario = 1 and ano = 2020 and mes = 6", BigDecimal.class)));
+        Mockito.verify(primeiraEscritaRepository, Mockito.times(2)).inserirResumoMensal(Mockito.eq(CHAVE), Mockito.any());
+    }
+
+    @Test
+    public void deveIncrementarAVersaoNasPrimeirasEscritasConcorrentes() throws Exception {
+        //ação
+        escreverConcorrentemente(valor -> versaoUsuarioService.incrementar(1l));
+
+        //verificação
+        assertEquals(2l, jdbc.queryForObject("select versao from debt.versao_usuario where id_usuario = 1", Long.class));
+        Mockito.verify(primeiraEscritaRepository, Mockito.times(2)).inserirVersao(1l);
+    }
+
+    /**
+     * Cada transação grava um lançamento de receita e aplica a escrita com o valor dele: 100 na primeira, 50 na segunda.
+     */
+    private void escreverConcorrentemente(Consumer<BigDecimal> escrita) throws Exception {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        CountDownLatch primeiraEscrita = new CountDownLatch(1);
+
+        Future<?> primeira = executor.submit(() -> transacao.executeWithoutResult(status -> {
+            lancar(1l, 100);
+            escrita.accept(BigDecimal.valueOf(100));
+            primeiraEscrita.countDown();
+            // segura o commit até a segunda transação esbarrar na linha ainda não confirmada
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        primeiraEscrita.await();
+        transacao.executeWithoutResult(status -> {
+            lancar(2l, 50);
+            escrita.accept(BigDecimal.valueOf(50));
+        });
+        primeira.get();
+    }
+
+    private void lancar(Long id, long valor) {
+        jdbc.update("insert into debt.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, versao) " +
+                "values (?, 'Salário', 6, 2020, 1, ?, 'RECEITA', 'PENDENTE', 0)", id, valor);
+    }
+}
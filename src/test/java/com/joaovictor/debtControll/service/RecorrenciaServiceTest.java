@@ -0,0 +1,207 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.Restricoes;
+import com.joaovictor.debtControll.model.entity.Lancamento;
+import com.joaovictor.debtControll.model.entity.Recorrencia;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.repository.RecorrenciaRepository;
+import com.joaovictor.debtControll.service.impl.RecorrenciaServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class RecorrenciaServiceTest {
+
+    @SpyBean
+    RecorrenciaServiceImpl service;
+
+    @MockBean
+    RecorrenciaRepository repository;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveGerarAsOcorrenciasVencidasEAvancarOProximoMes(){
+        //cenário
+        Recorrencia aluguel = criarRecorrencia(2020, 11);
+        Mockito.when(repository.bloquearPendentes(Mockito.eq(1), Mockito.eq(0), Mockito.eq(0l), Mockito.eq(2021), Mockito.eq(2), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.singletonList(aluguel));
+
+        //ação
+        int gerados = service.gerarLancamentos(YearMonth.of(2021, 2));
+
+        //verificação
+        assertEquals(4, gerados);
+        List<Lancamento> lancamentos = lancamentosGerados();
+        assertEquals(Collections.nCopies(4, 7l), lancamentos.stream().map(Lancamento::getIdRecorrencia).collect(Collectors.toList()));
+        assertEquals(YearMonth.of(2020, 11), YearMonth.of(lancamentos.get(0).getAno(), lancamentos.get(0).getMes()));
+        assertEquals(YearMonth.of(2021, 2), YearMonth.of(lancamentos.get(3).getAno(), lancamentos.get(3).getMes()));
+        assertEquals(YearMonth.of(2021, 3), YearMonth.of(aluguel.getAnoProximo(), aluguel.getMesProximo()));
+        Mockito.verify(repository).flush();
+    }
+
+    @Test
+    public void deveGerarAteOFimDaRecorrencia(){
+        //cenário
+        Recorrencia aluguel = criarRecorrencia(2020, 11);
+        aluguel.setMesFim(12);
+        aluguel.setAnoFim(2020);
+        Mockito.when(repository.bloquearPendentes(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.singletonList(aluguel));
+
+        //ação
+        int gerados = service.gerarLancamentos(YearMonth.of(2021, 6));
+
+        //verificação
+        assertEquals(2, gerados);
+        assertEquals(YearMonth.of(2021, 1), YearMonth.of(aluguel.getAnoProximo(), aluguel.getMesProximo()));
+    }
+
+    @Test
+    public void deveGerarSomenteAsParticoesLocais(){
+        //cenário
+        RecorrenciaServiceImpl particionado = new RecorrenciaServiceImpl(repository, lancamentoService, transactionManager,
+                4, "1, 3", 2, 200, 12);
+        Mockito.when(repository.bloquearPendentes(Mockito.anyInt(), Mockito.anyInt(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        //ação
+        particionado.gerarLancamentos(YearMonth.of(2021, 2));
+
+        //verificação
+        Mockito.verify(repository).bloquearPendentes(Mockito.eq(4), Mockito.eq(1), Mockito.eq(0l), Mockito.eq(2021), Mockito.eq(2), Mockito.any(Pageable.class));
+        Mockito.verify(repository).bloquearPendentes(Mockito.eq(4), Mockito.eq(3), Mockito.eq(0l), Mockito.eq(2021), Mockito.eq(2), Mockito.any(Pageable.class));
+        Mockito.verifyNoMoreInteractions(repository);
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    @Test
+    public void deveRecusarRecorrenciaQueTerminaAntesDeComecar(){
+        //cenário
+        YearMonth inicio = YearMonth.now();
+        Recorrencia recorrencia = criarRecorrencia(inicio.getYear(), inicio.getMonthValue());
+        recorrencia.setMesFim(inicio.minusMonths(1).getMonthValue());
+        recorrencia.setAnoFim(inicio.minusMonths(1).getYear());
+
+        //ação e verificação
+        assertThrows(RegraNegocioException.class, () -> service.salvar(recorrencia));
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any(Recorrencia.class));
+    }
+
+    @Test
+    public void deveLancarErroAoSalvarRecorrenciaDeUsuarioInexistente(){
+        //cenário
+        Recorrencia recorrencia = criarRecorrenciaRecente();
+        Mockito.when(repository.saveAndFlush(recorrencia)).thenThrow(new DataIntegrityViolationException("violação",
+                new ConstraintViolationException("violação", new SQLException("violação"), Restricoes.FK_RECORRENCIA_USUARIO)));
+
+        //ação e verificação
+        RegraNegocioException exception = assertThrows(RegraNegocioException.class, () -> service.salvar(recorrencia));
+        assertEquals("Usuário não encontrado para o id informado.", exception.getMessage());
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    @Test
+    public void naoDeveTratarOutraViolacaoDeRestricaoComoUsuarioInexistente(){
+        //cenário
+        Recorrencia recorrencia = criarRecorrenciaRecente();
+        Mockito.when(repository.saveAndFlush(recorrencia)).thenThrow(new DataIntegrityViolationException("violação",
+                new ConstraintViolationException("violação", new SQLException("violação"), "recorrencia_pkey")));
+
+        //ação e verificação
+        assertThrows(DataIntegrityViolationException.class, () -> service.salvar(recorrencia));
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    @Test
+    public void deveRecusarRecorrenciaComDescricaoLongaDemais(){
+        //cenário
+        Recorrencia recorrencia = criarRecorrenciaRecente();
+        recorrencia.setDescricao(String.join("", Collections.nCopies(Lancamento.TAMANHO_MAXIMO_DESCRICAO + 1, "a")));
+
+        //ação e verificação
+        RegraNegocioException exception = assertThrows(RegraNegocioException.class, () -> service.salvar(recorrencia));
+        assertEquals("Informe uma Descrição com até 255 caracteres.", exception.getMessage());
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any(Recorrencia.class));
+    }
+
+    @Test
+    public void deveGerarNaCriacaoAsOcorrenciasDesdeOInicioRetroativo(){
+        //cenário
+        YearMonth inicio = YearMonth.now().minusMonths(2);
+        Recorrencia recorrencia = criarRecorrencia(inicio.getYear(), inicio.getMonthValue());
+        Mockito.when(repository.saveAndFlush(recorrencia)).thenReturn(recorrencia);
+
+        //ação
+        service.salvar(recorrencia);
+
+        //verificação
+        assertEquals(3, lancamentosGerados().size());
+        assertEquals(YearMonth.now().plusMonths(1), YearMonth.of(recorrencia.getAnoProximo(), recorrencia.getMesProximo()));
+    }
+
+    @Test
+    public void deveRecusarRecorrenciaComInicioAlemDoLimiteRetroativo(){
+        //cenário
+        YearMonth inicio = YearMonth.now().minusMonths(13);
+        Recorrencia recorrencia = criarRecorrencia(inicio.getYear(), inicio.getMonthValue());
+
+        //ação e verificação
+        RegraNegocioException exception = assertThrows(RegraNegocioException.class, () -> service.salvar(recorrencia));
+        assertEquals("O início da recorrência pode ser no máximo 12 meses antes do mês atual.", exception.getMessage());
+        Mockito.verify(repository, Mockito.never()).saveAndFlush(Mockito.any(Recorrencia.class));
+        Mockito.verifyNoInteractions(lancamentoService);
+    }
+
+    private List<Lancamento> lancamentosGerados() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Lancamento>> lancamentos = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(lancamentoService).salvarEmLote(lancamentos.capture());
+        return lancamentos.getValue();
+    }
+
+    private Recorrencia criarRecorrenciaRecente() {
+        YearMonth inicio = YearMonth.now().minusMonths(1);
+        return criarRecorrencia(inicio.getYear(), inicio.getMonthValue());
+    }
+
+    private Recorrencia criarRecorrencia(int anoProximo, int mesProximo) {
+        return Recorrencia.builder()
+                .id(7l)
+                .descricao("Aluguel")
+                .valor(BigDecimal.valueOf(1200))
+                .tipo(TipoLancamento.DESPESA)
+                .usuario(Usuario.builder().id(1l).build())
+                .mesInicio(mesProximo)
+                .anoInicio(anoProximo)
+                .mesProximo(mesProximo)
+                .anoProximo(anoProximo)
+                .build();
+    }
+}
@@ -0,0 +1,188 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.ResumoMensalDTO;
+import com.joaovictor.debtControll.exceptions.RegraNegocioException;
+import com.joaovictor.debtControll.model.entity.ResumoMensal;
+import com.joaovictor.debtControll.model.entity.ResumoMensalId;
+import com.joaovictor.debtControll.model.enums.StatusLancamento;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.TotalMensal;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.model.repository.ResumoMensalRepository;
+import com.joaovictor.debtControll.service.impl.ResumoMensalServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class ResumoMensalServiceTest {
+
+    @SpyBean
+    ResumoMensalServiceImpl service;
+
+    @MockBean
+    ResumoMensalRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    PrimeiraEscritaRepository primeiraEscritaRepository;
+
+    @Test
+    public void deveMontarOResumoDosDozeMesesAPartirDasLinhasDoAno(){
+        //cenário
+        Mockito.when(repository.obterPorUsuarioEAno(1l, 2020)).thenReturn(Arrays.asList(
+                resumo(1l, 3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500),
+                resumo(1l, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 120)));
+
+        //ação
+        List<ResumoMensalDTO> meses = service.obterResumo(1l, 2020);
+
+        //verificação
+        assertEquals(12, meses.size());
+        assertEquals(3, meses.get(2).getMes());
+        assertEquals(BigDecimal.valueOf(500), meses.get(2).getReceitas().get(StatusLancamento.EFETIVADO));
+        assertEquals(BigDecimal.valueOf(120), meses.get(2).getDespesas().get(StatusLancamento.PENDENTE));
+        assertEquals(BigDecimal.ZERO, meses.get(2).getDespesas().get(StatusLancamento.EFETIVADO));
+        assertEquals(BigDecimal.ZERO, meses.get(0).getReceitas().get(StatusLancamento.PENDENTE));
+    }
+
+    @Test
+    public void deveCalcularOResumoAPartirDosLancamentosQuandoOAnoNaoTiverLinhas(){
+        //cenário
+        Mockito.when(repository.obterPorUsuarioEAno(1l, 2020)).thenReturn(Collections.emptyList());
+        TotalMensal total = total(5, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 80);
+        Mockito.when(lancamentoRepository.obterTotaisMensais(1l, 2020)).thenReturn(Collections.singletonList(total));
+
+        //ação
+        List<ResumoMensalDTO> meses = service.obterResumo(1l, 2020);
+
+        //verificação
+        assertEquals(12, meses.size());
+        assertEquals(BigDecimal.valueOf(80), meses.get(4).getDespesas().get(StatusLancamento.EFETIVADO));
+        assertEquals(BigDecimal.ZERO, meses.get(4).getReceitas().get(StatusLancamento.EFETIVADO));
+    }
+
+    @Test
+    public void deveLancarErroAoObterResumoDeAnoInvalido(){
+        assertThrows(RegraNegocioException.class, () -> service.obterResumo(1l, 20));
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveCriarALinhaDoResumoComOTotalCalculadoQuandoElaAindaNaoExistir(){
+        //cenário
+        ResumoMensalId chave = new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+        Mockito.when(lancamentoRepository.obterTotalMensal(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE))
+                .thenReturn(BigDecimal.valueOf(350));
+        Mockito.when(primeiraEscritaRepository.inserirResumoMensal(chave, BigDecimal.valueOf(350))).thenReturn(true);
+
+        //ação
+        service.aplicar(chave, BigDecimal.valueOf(100));
+
+        //verificação
+        Mockito.verify(primeiraEscritaRepository).inserirResumoMensal(chave, BigDecimal.valueOf(350));
+        Mockito.verify(repository, Mockito.times(1)).adicionar(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(100));
+    }
+
+    @Test
+    public void deveAplicarODeltaSobreALinhaCriadaPorOutraTransacao(){
+        //cenário
+        ResumoMensalId chave = new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+        Mockito.when(repository.adicionar(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(100)))
+                .thenReturn(0, 1);
+        Mockito.when(primeiraEscritaRepository.inserirResumoMensal(Mockito.eq(chave), Mockito.any())).thenReturn(false);
+
+        //ação
+        service.aplicar(chave, BigDecimal.valueOf(100));
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(2)).adicionar(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.valueOf(100));
+    }
+
+    @Test
+    public void naoDeveAlterarOResumoQuandoODeltaForZero(){
+        //ação
+        service.aplicar(new ResumoMensalId(1l, 2020, 6, TipoLancamento.RECEITA, StatusLancamento.PENDENTE), BigDecimal.ZERO);
+
+        //verificação
+        Mockito.verifyNoInteractions(repository, lancamentoRepository);
+    }
+
+    @Test
+    public void deveCorrigirLinhasDivergentesEIncluirAsAusentesNaReconciliacao(){
+        //cenário
+        List<Long> ids = Collections.singletonList(1l);
+        ResumoMensal correto = resumo(1l, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+        ResumoMensal divergente = resumo(1l, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 70);
+        ResumoMensal semLancamentos = resumo(1l, 3, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 10);
+        Mockito.when(repository.bloquearPorUsuarios(ids)).thenReturn(Arrays.asList(correto, divergente, semLancamentos));
+        List<TotalMensal> totais = Arrays.asList(
+                total(1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100),
+                total(2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30),
+                total(4, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 15));
+        Mockito.when(lancamentoRepository.obterTotaisMensais(ids)).thenReturn(totais);
+        ResumoMensalId ausente = new ResumoMensalId(1l, 2020, 4, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+        Mockito.when(primeiraEscritaRepository.inserirResumoMensal(ausente, BigDecimal.valueOf(15))).thenReturn(true);
+
+        //ação
+        int corrigidas = service.reconciliar(ids);
+
+        //verificação
+        assertEquals(3, corrigidas);
+        assertEquals(BigDecimal.valueOf(100), correto.getTotal());
+        assertEquals(BigDecimal.valueOf(30), divergente.getTotal());
+        assertEquals(BigDecimal.ZERO, semLancamentos.getTotal());
+        Mockito.verify(primeiraEscritaRepository).inserirResumoMensal(ausente, BigDecimal.valueOf(15));
+        Mockito.verify(repository, Mockito.never()).saveAll(Mockito.any());
+    }
+
+    @Test
+    public void deveBloquearOResumoAntesDeSomarOsLancamentosNaReconciliacao(){
+        //cenário
+        List<Long> ids = Collections.singletonList(1l);
+        TotalMensal total = total(4, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 15);
+        Mockito.when(lancamentoRepository.obterTotaisMensais(ids)).thenReturn(Collections.singletonList(total));
+        // outra transação criou a linha depois da soma: o total calculado por ela prevalece
+        Mockito.when(primeiraEscritaRepository.inserirResumoMensal(Mockito.any(), Mockito.any())).thenReturn(false);
+
+        //ação
+        int corrigidas = service.reconciliar(ids);
+
+        //verificação
+        assertEquals(0, corrigidas);
+        InOrder ordem = Mockito.inOrder(repository, lancamentoRepository);
+        ordem.verify(repository).bloquearPorUsuarios(ids);
+        ordem.verify(lancamentoRepository).obterTotaisMensais(ids);
+    }
+
+    private ResumoMensal resumo(Long idUsuario, int mes, TipoLancamento tipo, StatusLancamento status, long total) {
+        return new ResumoMensal(new ResumoMensalId(idUsuario, 2020, mes, tipo, status), BigDecimal.valueOf(total));
+    }
+
+    private TotalMensal total(int mes, TipoLancamento tipo, StatusLancamento status, long valor) {
+        TotalMensal total = Mockito.mock(TotalMensal.class);
+        Mockito.when(total.getIdUsuario()).thenReturn(1l);
+        Mockito.when(total.getAno()).thenReturn(2020);
+        Mockito.when(total.getMes()).thenReturn(mes);
+        Mockito.when(total.getTipo()).thenReturn(tipo);
+        Mockito.when(total.getStatus()).thenReturn(status);
+        Mockito.when(total.getTotal()).thenReturn(BigDecimal.valueOf(valor));
+        return total;
+    }
+}
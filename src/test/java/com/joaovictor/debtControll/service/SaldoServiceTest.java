@@ -0,0 +1,174 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.DivergenciaSaldoDTO;
+import com.joaovictor.debtControll.model.entity.SaldoUsuario;
+import com.joaovictor.debtControll.model.enums.TipoLancamento;
+import com.joaovictor.debtControll.model.projection.TotalPorTipo;
+import com.joaovictor.debtControll.model.repository.LancamentoRepository;
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.model.repository.SaldoUsuarioRepository;
+import com.joaovictor.debtControll.model.repository.UsuarioRepository;
+import com.joaovictor.debtControll.service.impl.SaldoServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class SaldoServiceTest {
+
+    @SpyBean
+    SaldoServiceImpl service;
+
+    @MockBean
+    SaldoUsuarioRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    PrimeiraEscritaRepository primeiraEscritaRepository;
+
+    @MockBean
+    UsuarioRepository usuarioRepository;
+
+    @MockBean
+    ResumoMensalService resumoMensalService;
+
+    @MockBean
+    VersaoUsuarioService versaoUsuarioService;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void deveObterOSaldoMaterializado(){
+        //cenário
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(new SaldoUsuario(1l, BigDecimal.TEN)));
+
+        //ação
+        BigDecimal saldo = service.obterSaldo(1l);
+
+        //verificação
+        assertEquals(BigDecimal.TEN, saldo);
+        Mockito.verifyNoInteractions(lancamentoRepository);
+    }
+
+    @Test
+    public void deveCalcularOSaldoEmUmaUnicaConsultaQuandoNaoHouverSaldoMaterializado(){
+        //cenário
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.empty());
+        List<TotalPorTipo> totais = Arrays.asList(total(1l, TipoLancamento.RECEITA, 300), total(1l, TipoLancamento.DESPESA, 120));
+        Mockito.when(lancamentoRepository.obterTotaisPorTipo(1l)).thenReturn(totais);
+
+        //ação
+        BigDecimal saldo = service.obterSaldo(1l);
+
+        //verificação
+        assertEquals(new BigDecimal("180.00"), saldo);
+        Mockito.verify(lancamentoRepository, Mockito.times(1)).obterTotaisPorTipo(1l);
+    }
+
+    @Test
+    public void deveMaterializarOSaldoQuandoOUsuarioAindaNaoPossuirRegistro(){
+        //cenário
+        Mockito.when(repository.adicionar(1l, BigDecimal.TEN)).thenReturn(0);
+        List<TotalPorTipo> totais = Collections.singletonList(total(1l, TipoLancamento.RECEITA, 50));
+        Mockito.when(lancamentoRepository.obterTotaisPorTipo(1l)).thenReturn(totais);
+        Mockito.when(primeiraEscritaRepository.inserirSaldo(1l, new BigDecimal("50.00"))).thenReturn(true);
+
+        //ação
+        service.aplicar(1l, BigDecimal.TEN);
+
+        //verificação
+        Mockito.verify(primeiraEscritaRepository).inserirSaldo(1l, new BigDecimal("50.00"));
+        Mockito.verify(repository, Mockito.times(1)).adicionar(1l, BigDecimal.TEN);
+    }
+
+    @Test
+    public void deveAplicarODeltaSobreOSaldoMaterializadoPorOutraTransacao(){
+        //cenário
+        Mockito.when(repository.adicionar(1l, BigDecimal.TEN)).thenReturn(0, 1);
+        Mockito.when(primeiraEscritaRepository.inserirSaldo(Mockito.eq(1l), Mockito.any())).thenReturn(false);
+
+        //ação
+        service.aplicar(1l, BigDecimal.TEN);
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(2)).adicionar(1l, BigDecimal.TEN);
+    }
+
+    @Test
+    public void naoDeveAlterarOSaldoQuandoODeltaForZero(){
+        //ação
+        service.aplicar(1l, BigDecimal.ZERO);
+
+        //verificação
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveCorrigirEReportarSaldosDivergentesNaReconciliacao(){
+        //cenário
+        List<Long> ids = Arrays.asList(1l, 2l);
+        Mockito.when(usuarioRepository.obterIdsApos(Mockito.eq(0l), Mockito.any(Pageable.class))).thenReturn(ids);
+        Mockito.when(usuarioRepository.obterIdsApos(Mockito.eq(2l), Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+
+        SaldoUsuario correto = new SaldoUsuario(1l, BigDecimal.valueOf(100));
+        SaldoUsuario divergente = new SaldoUsuario(2l, BigDecimal.valueOf(70));
+        Mockito.when(repository.bloquearPorUsuarios(ids)).thenReturn(Arrays.asList(correto, divergente));
+        List<TotalPorTipo> totais = Arrays.asList(total(1l, TipoLancamento.RECEITA, 100), total(2l, TipoLancamento.DESPESA, 30));
+        Mockito.when(lancamentoRepository.obterTotaisPorTipo(ids)).thenReturn(totais);
+
+        //ação
+        List<DivergenciaSaldoDTO> divergencias = service.reconciliar();
+
+        //verificação
+        assertEquals(1, divergencias.size());
+        assertEquals(2l, divergencias.get(0).getIdUsuario());
+        assertEquals(new BigDecimal("-30.00"), divergente.getValor());
+        assertEquals(BigDecimal.valueOf(100), correto.getValor());
+        Mockito.verify(resumoMensalService).reconciliar(ids);
+        Mockito.verify(versaoUsuarioService).incrementar(Collections.singletonList(2l));
+    }
+
+    @Test
+    public void deveInserirEmSavepointOSaldoAusenteNaReconciliacao(){
+        //cenário
+        List<Long> ids = Collections.singletonList(1l);
+        Mockito.when(usuarioRepository.obterIdsApos(Mockito.eq(0l), Mockito.any(Pageable.class))).thenReturn(ids);
+        Mockito.when(usuarioRepository.obterIdsApos(Mockito.eq(1l), Mockito.any(Pageable.class))).thenReturn(Collections.emptyList());
+        TotalPorTipo total = total(1l, TipoLancamento.RECEITA, 100);
+        Mockito.when(lancamentoRepository.obterTotaisPorTipo(ids)).thenReturn(Collections.singletonList(total));
+
+        //ação
+        List<DivergenciaSaldoDTO> divergencias = service.reconciliar();
+
+        //verificação
+        assertTrue(divergencias.isEmpty());
+        Mockito.verify(primeiraEscritaRepository).inserirSaldo(1l, new BigDecimal("100.00"));
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
+
+    private TotalPorTipo total(Long idUsuario, TipoLancamento tipo, long valor) {
+        TotalPorTipo total = Mockito.mock(TotalPorTipo.class);
+        Mockito.when(total.getIdUsuario()).thenReturn(idUsuario);
+        Mockito.when(total.getTipo()).thenReturn(tipo);
+        Mockito.when(total.getTotal()).thenReturn(BigDecimal.valueOf(valor));
+        return total;
+    }
+}
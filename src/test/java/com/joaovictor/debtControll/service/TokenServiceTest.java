@@ -0,0 +1,62 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.dto.UsuarioAutenticadoDTO;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.service.impl.TokenServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    TokenService service = new TokenServiceImpl("segredo", 60);
+
+    @Test
+    public void deveObterOUsuarioDoTokenEmitido(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(7l).nome("usuario").email("usuario@email.com").build();
+
+        //ação
+        UsuarioAutenticadoDTO autenticado = service.emitirToken(usuario);
+        Optional<Long> idUsuario = service.obterIdUsuario(autenticado.getToken());
+
+        //verificação
+        assertEquals(Optional.of(7l), idUsuario);
+        assertEquals("usuario@email.com", autenticado.getEmail());
+        assertNotNull(autenticado.getExpiraEm());
+    }
+
+    @Test
+    public void deveRecusarTokenAdulterado(){
+        //cenário
+        String token = service.emitirToken(Usuario.builder().id(7l).build()).getToken();
+        String adulterado = "8" + token.substring(token.indexOf('.'));
+
+        //ação e verificação
+        assertFalse(service.obterIdUsuario(adulterado).isPresent());
+        assertFalse(service.obterIdUsuario("7.abc").isPresent());
+        assertFalse(service.obterIdUsuario("lixo").isPresent());
+        assertFalse(service.obterIdUsuario(null).isPresent());
+    }
+
+    @Test
+    public void deveRecusarTokenAssinadoComOutroSegredo(){
+        //cenário
+        String token = new TokenServiceImpl("outro", 60).emitirToken(Usuario.builder().id(7l).build()).getToken();
+
+        //ação e verificação
+        assertFalse(service.obterIdUsuario(token).isPresent());
+    }
+
+    @Test
+    public void deveRecusarTokenExpirado(){
+        //cenário
+        TokenService expirado = new TokenServiceImpl("segredo", -1);
+        String token = expirado.emitirToken(Usuario.builder().id(7l).build()).getToken();
+
+        //ação e verificação
+        assertFalse(service.obterIdUsuario(token).isPresent());
+    }
+}
@@ -0,0 +1,87 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.config.AutenticacaoConfig;
+import com.joaovictor.debtControll.model.entity.Usuario;
+import com.joaovictor.debtControll.model.repository.UsuarioRepository;
+import com.joaovictor.debtControll.service.impl.UsuarioServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.cache.cache-names=usuarios,usuariosPorEmail",
+        "spring.cache.caffeine.spec=maximumSize=10,recordStats"})
+class UsuarioServiceCacheTest {
+
+    @Configuration
+    @EnableCaching
+    @ImportAutoConfiguration(CacheAutoConfiguration.class)
+    @Import({UsuarioServiceImpl.class, AutenticacaoConfig.class})
+    static class Config {
+    }
+
+    @Autowired
+    UsuarioService service;
+
+    @MockBean
+    UsuarioRepository repository;
+
+    @Test
+    public void deveConsultarOBancoUmaUnicaVezParaOMesmoUsuario(){
+        //cenário
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+
+        //ação
+        service.obterPorId(1l);
+        Optional<Usuario> usuario = service.obterPorId(1l);
+
+        //verificação
+        assertTrue(usuario.isPresent());
+        Mockito.verify(repository, Mockito.times(1)).findById(1l);
+    }
+
+    @Test
+    public void naoDeveGuardarNoCacheUsuarioInexistente(){
+        //cenário
+        Mockito.when(repository.findById(2l)).thenReturn(Optional.empty());
+
+        //ação
+        service.obterPorId(2l);
+        service.obterPorId(2l);
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(2)).findById(2l);
+    }
+
+    @Test
+    public void deveInvalidarOCacheAoSalvarOUsuario(){
+        //cenário
+        Usuario usuario = Usuario.builder().id(3l).email("usuario@email.com").build();
+        Mockito.when(repository.findById(3l)).thenReturn(Optional.of(usuario));
+        Mockito.when(repository.save(usuario)).thenReturn(usuario);
+        service.obterPorId(3l);
+
+        //ação
+        service.salvarUsuario(usuario);
+        service.obterPorId(3l);
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(2)).findById(3l);
+    }
+}
@@ -1,5 +1,6 @@
 package com.joaovictor.debtControll.service;
 
+import com.joaovictor.debtControll.config.AutenticacaoConfig;
 import com.joaovictor.debtControll.exceptions.ErroAutenticacao;
 import com.joaovictor.debtControll.exceptions.RegraNegocioException;
 import com.joaovictor.debtControll.model.entity.Usuario;
@@ -9,11 +10,14 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -23,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
+@Import(AutenticacaoConfig.class)
 class UsuarioServiceTest {
 
     @SpyBean
@@ -31,6 +36,9 @@ class UsuarioServiceTest {
     @MockBean
     UsuarioRepository repository;
 
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
     @Test
     public void deveSalvarUmUsuario(){
         assertDoesNotThrow(() -> {
@@ -94,6 +102,66 @@ class UsuarioServiceTest {
         });
     }
 
+    @Test
+    public void deveGravarASenhaCodificadaAoSalvarUmUsuario(){
+        //cenário
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        //ação
+        Usuario usuarioSalvo = service.salvarUsuario(Usuario.builder().email("usuario@email.com").senha("senha").build());
+
+        //verificação
+        assertTrue(usuarioSalvo.getSenha().startsWith("{bcrypt}"));
+        assertTrue(passwordEncoder.matches("senha", usuarioSalvo.getSenha()));
+    }
+
+    @Test
+    public void deveRecodificarNoLoginASenhaGravadaEmTextoPuro(){
+        //cenário
+        String email = "email@email.com";
+        Usuario usuario = Usuario.builder().id(1l).email(email).senha("senha").build();
+        Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+
+        //ação
+        service.autenticar(email, "senha");
+
+        //verificação
+        ArgumentCaptor<String> senha = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(repository).atualizarSenha(Mockito.eq(1l), Mockito.eq(email), senha.capture());
+        assertTrue(senha.getValue().startsWith("{bcrypt}"));
+        assertTrue(passwordEncoder.matches("senha", senha.getValue()));
+    }
+
+    @Test
+    public void naoDeveRecodificarASenhaJaCodificada(){
+        //cenário
+        String email = "email@email.com";
+        Usuario usuario = Usuario.builder().id(1l).email(email).senha(passwordEncoder.encode("senha")).build();
+        Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+
+        //ação
+        Usuario result = service.autenticar(email, "senha");
+
+        //verificação
+        assertEquals(usuario, result);
+        Mockito.verify(repository, Mockito.never()).atualizarSenha(Mockito.anyLong(), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void deveAutenticarNoExecutorDedicado() throws Exception {
+        //cenário
+        String email = "email@email.com";
+        Usuario usuario = Usuario.builder().id(1l).email(email).senha(passwordEncoder.encode("senha")).build();
+        Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+
+        //ação
+        Usuario result = service.autenticarAsync(email, "senha").get();
+
+        //verificação
+        assertEquals(usuario, result);
+    }
+
     @Test
     public void deveLancarErroQuandoNaoEncontrarUsuarioCadastradoComEmailInformado(){
         ErroAutenticacao exception = assertThrows(ErroAutenticacao.class, () -> {
@@ -144,4 +212,18 @@ class UsuarioServiceTest {
             service.validarEmail("usuario@email.com");
         });
     }
+
+    @Test
+    public void deveObterAReferenciaDoUsuarioSemConsultarPorId(){
+        //cenário
+        Usuario referencia = Usuario.builder().id(1l).build();
+        Mockito.when(repository.getOne(1l)).thenReturn(referencia);
+
+        //ação
+        Usuario result = service.obterReferencia(1l);
+
+        //verificação
+        assertEquals(referencia, result);
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+    }
 }
\ No newline at end of file
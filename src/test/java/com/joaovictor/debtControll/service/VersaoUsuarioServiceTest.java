@@ -0,0 +1,87 @@
+package com.joaovictor.debtControll.service;
+
+import com.joaovictor.debtControll.model.repository.PrimeiraEscritaRepository;
+import com.joaovictor.debtControll.model.repository.VersaoUsuarioRepository;
+import com.joaovictor.debtControll.service.impl.VersaoUsuarioServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+class VersaoUsuarioServiceTest {
+
+    @SpyBean
+    VersaoUsuarioServiceImpl service;
+
+    @MockBean
+    VersaoUsuarioRepository repository;
+
+    @MockBean
+    PrimeiraEscritaRepository primeiraEscritaRepository;
+
+    @Test
+    public void deveConsiderarVersaoZeroParaUsuarioSemEscritas(){
+        //cenário
+        Mockito.when(repository.obterVersao(1l)).thenReturn(Optional.empty());
+
+        //ação
+        long versao = service.obterVersao(1l);
+
+        //verificação
+        assertEquals(0l, versao);
+    }
+
+    @Test
+    public void deveCriarAVersaoNaPrimeiraEscritaDoUsuario(){
+        //cenário
+        Mockito.when(repository.incrementar(1l)).thenReturn(0);
+        Mockito.when(primeiraEscritaRepository.inserirVersao(1l)).thenReturn(true);
+
+        //ação
+        service.incrementar(1l);
+
+        //verificação
+        Mockito.verify(primeiraEscritaRepository).inserirVersao(1l);
+        Mockito.verify(repository, Mockito.times(1)).incrementar(1l);
+    }
+
+    @Test
+    public void deveIncrementarAVersaoCriadaPorOutraTransacaoNaPrimeiraEscrita(){
+        //cenário
+        Mockito.when(repository.incrementar(1l)).thenReturn(0, 1);
+        Mockito.when(primeiraEscritaRepository.inserirVersao(1l)).thenReturn(false);
+
+        //ação
+        service.incrementar(1l);
+
+        //verificação
+        Mockito.verify(repository, Mockito.times(2)).incrementar(1l);
+    }
+
+    @Test
+    public void deveIncrementarUmaVezCadaUsuarioEmOrdemDeId(){
+        //cenário
+        Mockito.when(repository.incrementar(Mockito.anyLong())).thenReturn(1);
+
+        //ação
+        service.incrementar(Arrays.asList(3l, 1l, 3l, 2l));
+
+        //verificação
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).incrementar(1l);
+        ordem.verify(repository).incrementar(2l);
+        ordem.verify(repository).incrementar(3l);
+        Mockito.verifyNoInteractions(primeiraEscritaRepository);
+    }
+}